@@ -0,0 +1,86 @@
+package com.extractor.benchmark;
+
+import com.extractor.analyzer.ComponentRegistry;
+import com.extractor.analyzer.EdgeAccumulator;
+import com.extractor.constants.AnalysisConstants;
+import com.extractor.model.Component;
+import com.extractor.model.Edge;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accumulating dependencies between components and turning them into edges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EdgeAccumulatorBenchmark {
+
+    private static final String[] EDGE_TYPES = {
+            AnalysisConstants.CALL_TYPE, AnalysisConstants.INJECTION_FIELD_TYPE,
+            AnalysisConstants.INJECTION_CONSTRUCTOR_TYPE, AnalysisConstants.RELATION_TYPE
+    };
+
+    @Param({"10000", "100000"})
+    public int dependencies;
+
+    private String[] componentIds;
+    private int[] from;
+    private int[] to;
+    private int[] types;
+
+    private ComponentRegistry registry;
+    private EdgeAccumulator filled;
+
+    @Setup(Level.Trial)
+    public void generateDependencies() {
+        Random random = new Random(42L);
+        componentIds = new String[Math.max(2, dependencies / 10)];
+        for (int i = 0; i < componentIds.length; i++) {
+            componentIds[i] = SyntheticProjects.BASE_PACKAGE + ".domain" + (i % 100) + ".Component" + i;
+        }
+        from = new int[dependencies];
+        to = new int[dependencies];
+        types = new int[dependencies];
+        for (int i = 0; i < dependencies; i++) {
+            from[i] = random.nextInt(componentIds.length);
+            to[i] = random.nextInt(componentIds.length);
+            types[i] = random.nextInt(EDGE_TYPES.length);
+        }
+    }
+
+    // finalizeEdges records calls on the components, so every invocation gets a fresh registry
+    @Setup(Level.Invocation)
+    public void fillAccumulator() {
+        registry = new ComponentRegistry();
+        for (String id : componentIds) {
+            registry.registerComponent(new Component(id));
+        }
+        filled = new EdgeAccumulator(registry);
+        addAll(filled);
+    }
+
+    @Benchmark
+    public int addDependency() {
+        EdgeAccumulator accumulator = new EdgeAccumulator(registry);
+        addAll(accumulator);
+        return accumulator.size();
+    }
+
+    @Benchmark
+    public List<Edge> finalizeEdges() {
+        return filled.finalizeEdges();
+    }
+
+    private void addAll(EdgeAccumulator accumulator) {
+        for (int i = 0; i < dependencies; i++) {
+            accumulator.addDependency(componentIds[from[i]], componentIds[to[i]], EDGE_TYPES[types[i]], 1);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.extractor.benchmark;
+
+import com.extractor.inference.*;
+import com.extractor.model.DependencyGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clustering, inference and consolidation on synthetic dependency graphs.
+ * Each benchmark starts from the output of the previous step, computed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class InferenceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int components;
+
+    private DependencyGraph dependencyGraph;
+    private ComponentGraph componentGraph;
+    private MicroserviceCandidates candidates;
+
+    @Setup(Level.Trial)
+    public void buildGraph() {
+        dependencyGraph = SyntheticProjects.dependencyGraph(components);
+        componentGraph = ComponentGraph.build(dependencyGraph);
+        candidates = new InferenceEngine().analyze(dependencyGraph, componentGraph);
+    }
+
+    @Benchmark
+    public List<Cluster> createClusters() {
+        return new ClusteringAlgorithm().createClusters(dependencyGraph);
+    }
+
+    @Benchmark
+    public MicroserviceCandidates analyze() {
+        return new InferenceEngine().analyze(dependencyGraph, componentGraph);
+    }
+
+    @Benchmark
+    public List<Set<Integer>> consolidate() {
+        return new ClusterConsolidator(candidates.getCandidates(), componentGraph).consolidate();
+    }
+
+    @Benchmark
+    public ConsolidatedArchitecture analyzeConsolidated() {
+        return new MicroserviceRecommendationEngine()
+                .analyzeConsolidated(candidates, componentGraph, Collections.emptyMap());
+    }
+}
@@ -0,0 +1,48 @@
+package com.extractor.benchmark;
+
+import com.extractor.analyzer.AnalyzerOptions;
+import com.extractor.analyzer.ProjectAnalyzer;
+import com.extractor.model.DependencyGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end analysis of a generated project: Spoon model build, per-type analysis,
+ * linking and layer classification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class ProjectAnalyzerBenchmark {
+
+    @Param({"100", "1000"})
+    public int classes;
+
+    private Path project;
+
+    @Setup(Level.Trial)
+    public void writeProject() throws IOException {
+        project = SyntheticProjects.writeProject(Files.createTempDirectory("analyzer-bench"), classes);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteProject() throws IOException {
+        try (Stream<Path> paths = Files.walk(project)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public DependencyGraph analyzeProject() throws Exception {
+        return new ProjectAnalyzer(AnalyzerOptions.builder().build()).analyzeProject(project);
+    }
+}
@@ -0,0 +1,179 @@
+package com.extractor.benchmark;
+
+import com.extractor.model.Component;
+import com.extractor.model.DependencyGraph;
+import com.extractor.model.Edge;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic inputs for the benchmarks: layered Spring-style projects where each
+ * business domain has an entity, a repository, services and a controller, with most
+ * calls inside the domain and a few across domains.
+ */
+final class SyntheticProjects {
+
+    static final String BASE_PACKAGE = "com.acme.bench";
+
+    private static final String[] ROLES = {
+            "Entity", "Repository", "Service", "QueryService", "Controller", "Dto", "Mapper", "EventListener"
+    };
+    private static final long SEED = 42L;
+
+    private SyntheticProjects() {
+    }
+
+    /**
+     * A dependency graph with the given number of components, as the analyzer would produce it.
+     */
+    static DependencyGraph dependencyGraph(int componentCount) {
+        Random random = new Random(SEED);
+        int domainCount = Math.max(1, componentCount / ROLES.length);
+
+        List<Component> components = new ArrayList<>(componentCount);
+        for (int i = 0; i < componentCount; i++) {
+            int domain = i % domainCount;
+            String role = ROLES[(i / domainCount) % ROLES.length];
+            Component component = new Component(className(domain, role, i / (domainCount * ROLES.length)));
+            component.setLoc(40 + random.nextInt(400));
+            component.setCbo(1 + random.nextInt(12));
+            component.setLcom(random.nextDouble());
+            if ("Entity".equals(role) || "Repository".equals(role)) {
+                component.addTableUsed("domain" + domain + "_records");
+            }
+            if (random.nextInt(20) == 0) {
+                component.setSensitiveData(true);
+            }
+            components.add(component);
+        }
+
+        List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < componentCount; i++) {
+            Component from = components.get(i);
+            int calls = 1 + random.nextInt(6);
+            for (int c = 0; c < calls; c++) {
+                int target;
+                if (random.nextInt(10) < 8) {
+                    // Same domain: components of a domain are domainCount apart
+                    target = (i % domainCount) + domainCount * random.nextInt(Math.max(1, componentCount / domainCount));
+                } else {
+                    target = random.nextInt(componentCount);
+                }
+                if (target == i || target >= componentCount) continue;
+
+                Component to = components.get(target);
+                if (from.getCallsOut().contains(to.getId())) continue;
+                from.addCallOut(to.getId());
+                to.addCallIn(from.getId());
+                edges.add(new Edge(from.getId(), to.getId(), 1 + random.nextInt(5), "call"));
+            }
+        }
+        return new DependencyGraph(components, edges);
+    }
+
+    /**
+     * Writes a Maven project with the given number of classes under {@code root} and
+     * returns the project directory.
+     */
+    static Path writeProject(Path root, int classCount) throws IOException {
+        Path sources = root.resolve("src/main/java");
+        int domainCount = Math.max(1, classCount / 4);
+        Files.createDirectories(root);
+        Files.writeString(root.resolve("pom.xml"),
+                "<project><modelVersion>4.0.0</modelVersion><groupId>com.acme</groupId>"
+                        + "<artifactId>bench</artifactId><version>1.0</version></project>\n");
+
+        for (int domain = 0; domain < domainCount; domain++) {
+            String pkg = BASE_PACKAGE + ".domain" + domain;
+            String entity = "Domain" + domain + "Entity";
+            String repository = "Domain" + domain + "Repository";
+            String service = "Domain" + domain + "Service";
+            String controller = "Domain" + domain + "Controller";
+            String nextService = BASE_PACKAGE + ".domain" + ((domain + 1) % domainCount) + ".Domain"
+                    + ((domain + 1) % domainCount) + "Service";
+            Path dir = Files.createDirectories(sources.resolve(pkg.replace('.', '/')));
+
+            Files.writeString(dir.resolve(entity + ".java"),
+                    "package " + pkg + ";\n\n"
+                            + "@javax.persistence.Entity\n"
+                            + "@javax.persistence.Table(name = \"domain" + domain + "_records\")\n"
+                            + "public class " + entity + " {\n"
+                            + "    private Long id;\n"
+                            + "    private String email;\n"
+                            + "    private String name;\n\n"
+                            + "    public Long getId() { return id; }\n"
+                            + "    public String getEmail() { return email; }\n"
+                            + "    public String getName() { return name; }\n"
+                            + "    public void setName(String name) { this.name = name; }\n"
+                            + "}\n");
+
+            Files.writeString(dir.resolve(repository + ".java"),
+                    "package " + pkg + ";\n\n"
+                            + "import java.util.*;\n\n"
+                            + "public class " + repository + " {\n"
+                            + "    private final Map<Long, " + entity + "> store = new HashMap<>();\n\n"
+                            + "    public Optional<" + entity + "> findById(Long id) {\n"
+                            + "        return Optional.ofNullable(store.get(id));\n"
+                            + "    }\n\n"
+                            + "    public " + entity + " save(" + entity + " entity) {\n"
+                            + "        store.put(entity.getId(), entity);\n"
+                            + "        return entity;\n"
+                            + "    }\n"
+                            + "}\n");
+
+            Files.writeString(dir.resolve(service + ".java"),
+                    "package " + pkg + ";\n\n"
+                            + "@org.springframework.stereotype.Service\n"
+                            + "public class " + service + " {\n"
+                            + "    private final " + repository + " repository;\n\n"
+                            + "    public " + service + "(" + repository + " repository) {\n"
+                            + "        this.repository = repository;\n"
+                            + "    }\n\n"
+                            + "    public " + entity + " rename(Long id, String name) {\n"
+                            + "        " + entity + " entity = repository.findById(id).orElseThrow();\n"
+                            + "        if (name == \"\") {\n"
+                            + "            throw new IllegalArgumentException(\"empty name\");\n"
+                            + "        }\n"
+                            + "        entity.setName(name);\n"
+                            + "        return repository.save(entity);\n"
+                            + "    }\n\n"
+                            + "    public String describe(" + entity + " entity) {\n"
+                            + "        switch (entity.getName().length()) {\n"
+                            + "            case 0: return \"none\";\n"
+                            + "            case 1: return \"short\";\n"
+                            + "        }\n"
+                            + "        return entity.getName();\n"
+                            + "    }\n"
+                            + "}\n");
+
+            Files.writeString(dir.resolve(controller + ".java"),
+                    "package " + pkg + ";\n\n"
+                            + "import org.springframework.web.bind.annotation.*;\n\n"
+                            + "@RestController\n"
+                            + "@RequestMapping(\"/domain" + domain + "\")\n"
+                            + "public class " + controller + " {\n"
+                            + "    private final " + service + " service;\n"
+                            + "    private final " + nextService + " related;\n\n"
+                            + "    public " + controller + "(" + service + " service, " + nextService + " related) {\n"
+                            + "        this.service = service;\n"
+                            + "        this.related = related;\n"
+                            + "    }\n\n"
+                            + "    @PutMapping(\"/{id}\")\n"
+                            + "    public " + entity + " rename(@PathVariable Long id, @RequestBody String name) {\n"
+                            + "        related.rename(id, name);\n"
+                            + "        return service.rename(id, name);\n"
+                            + "    }\n"
+                            + "}\n");
+        }
+        return root;
+    }
+
+    private static String className(int domain, String role, int copy) {
+        return BASE_PACKAGE + ".domain" + domain + ".Domain" + domain + role + (copy == 0 ? "" : String.valueOf(copy));
+    }
+}
@@ -1,16 +1,23 @@
 package com.extractor;
 
+import com.extractor.analyzer.AnalyzerOptions;
 import com.extractor.analyzer.ProjectAnalyzer;
+import com.extractor.inference.ComponentGraph;
 import com.extractor.inference.InferenceEngine;
 import com.extractor.inference.MicroserviceCandidates;
 import com.extractor.inference.MicroserviceRecommendationEngine;
+import com.extractor.model.AnalysisMetrics;
 import com.extractor.model.DependencyGraph;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.extractor.server.AnalysisServer;
+import com.extractor.server.ProjectWatcher;
+import com.extractor.utils.JsonStreamWriter;
 
-import java.io.FileWriter;
-import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Main application that analyzes Java projects and generates architecture
@@ -19,24 +26,58 @@ import java.nio.file.Paths;
  * metadata
  * 2. output_architecture.json - Clusters based on cohesion and coupling
  * analysis
+ *
+ * With --serve it instead starts a local analysis server that keeps the analyzed
+ * projects in memory (see {@link AnalysisServer}). With --watch it keeps the outputs
+ * up to date while the project changes (see {@link ProjectWatcher}).
  */
 public class MicroserviceInferenceMain {
 
+    private static final int DEFAULT_SERVER_PORT = 7070;
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].startsWith("--serve")) {
+            serve(args);
+            return;
+        }
+
         if (args.length < 2) {
-            System.err.println("Uso: java MicroserviceInferenceMain <ruta-proyecto> <archivo-salida>");
-            System.err.println("Ejemplo: java MicroserviceInferenceMain /path/to/project output.json");
+            printUsage();
             System.exit(1);
         }
 
         String projectPath = args[0];
         String outputFile = args[1];
 
+        List<String> flags = new ArrayList<>(Arrays.asList(args).subList(2, args.length));
+        boolean watch = flags.remove("--watch");
+        String metricsFile = null;
+        for (int i = 0; i < flags.size(); i++) {
+            if (flags.get(i).startsWith("--metrics=") && flags.get(i).length() > "--metrics=".length()) {
+                metricsFile = flags.get(i).substring("--metrics=".length());
+                flags.set(i, "--metrics");
+            }
+        }
+        AnalyzerOptions options;
+        try {
+            options = parseOptions(flags.toArray(new String[0]));
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        if (watch) {
+            watch(projectPath, outputFile, options);
+            return;
+        }
+
         try {
             System.out.println("🔍 Iniciando análisis del proyecto: " + projectPath);
 
             // Step 1: Extract dependency graph
-            ProjectAnalyzer analyzer = new ProjectAnalyzer();
+            ProjectAnalyzer analyzer = new ProjectAnalyzer(options);
             Path projectPathObj = Paths.get(projectPath);
             DependencyGraph dependencyGraph = analyzer.analyzeProject(projectPathObj);
 
@@ -44,17 +85,15 @@ public class MicroserviceInferenceMain {
             System.out.println("🔗 Relaciones encontradas: " + dependencyGraph.getEdges().size());
 
             // Save dependency graph to output.json
-            ObjectMapper graphMapper = new ObjectMapper();
-            graphMapper.enable(com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT);
-            graphMapper.enable(com.fasterxml.jackson.databind.SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
-            String graphJson = graphMapper.writeValueAsString(dependencyGraph);
-            saveToFile(graphJson, outputFile);
+            JsonStreamWriter jsonWriter = new JsonStreamWriter();
+            jsonWriter.writeDependencyGraph(dependencyGraph, Paths.get(outputFile));
             System.out.println("✅ Grafo de dependencias guardado en: " + outputFile);
 
             // Step 2: Run inference engine
             System.out.println("\n🧠 Ejecutando motor de inferencias...");
+            ComponentGraph componentGraph = ComponentGraph.build(dependencyGraph);
             InferenceEngine inferenceEngine = new InferenceEngine();
-            MicroserviceCandidates candidates = inferenceEngine.analyze(dependencyGraph);
+            MicroserviceCandidates candidates = inferenceEngine.analyze(dependencyGraph, componentGraph);
 
             System.out.println("🎯 Clusters generados: " + candidates.getCandidates().size());
 
@@ -66,24 +105,30 @@ public class MicroserviceInferenceMain {
             java.util.Map<String, String> projectDeps = analyzer.getDependencyResolver().getAllDependencies();
 
             com.extractor.inference.ConsolidatedArchitecture architecture = recommendationEngine
-                    .analyzeConsolidated(candidates, dependencyGraph.getComponents(), projectDeps);
+                    .analyzeConsolidated(candidates, componentGraph, projectDeps,
+                            AnalysisMetrics.orDisabled(dependencyGraph.getMeta().getMetrics()));
+
+            // Written again once its metadata holds the inference metrics
+            if (options.isCollectMetrics()) {
+                jsonWriter.writeDependencyGraph(dependencyGraph, Paths.get(outputFile));
+            }
 
             String architectureFile = outputFile.replace(".json", "_architecture.json");
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.enable(com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT);
-            mapper.enable(com.fasterxml.jackson.databind.SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
-            String architectureJson = mapper.writeValueAsString(architecture);
-            saveToFile(architectureJson, architectureFile);
+            jsonWriter.writeValue(architecture, Paths.get(architectureFile));
 
             System.out.println("✅ Propuesta de arquitectura guardada en: " + architectureFile);
 
             // Step 4: Export API entrypoints
             System.out.println("\n🌐 Exportando entrypoints (API Contracts)...");
             String entrypointsFile = outputFile.replace(".json", "_entrypoints.json");
-            String entrypointsJson = mapper.writeValueAsString(dependencyGraph.getApiContracts());
-            saveToFile(entrypointsJson, entrypointsFile);
+            jsonWriter.writeValue(dependencyGraph.getApiContracts(), Paths.get(entrypointsFile));
             System.out.println("✅ Entrypoints guardados en: " + entrypointsFile);
 
+            if (metricsFile != null) {
+                jsonWriter.writeValue(dependencyGraph.getMeta().getMetrics(), Paths.get(metricsFile));
+                System.out.println("📈 Métricas de rendimiento guardadas en: " + metricsFile);
+            }
+
             // Print summary
             printArchitectureSummary(architecture);
 
@@ -95,12 +140,121 @@ public class MicroserviceInferenceMain {
     }
 
     /**
-     * Saves the JSON output to a file.
+     * Analyzes the project, then rewrites the outputs every time its files change, until
+     * the process is stopped.
+     */
+    private static void watch(String projectPath, String outputFile, AnalyzerOptions options) {
+        System.out.println("👀 Observando cambios en " + projectPath + " (Ctrl+C para terminar)");
+        try {
+            new ProjectWatcher(Paths.get(projectPath), Paths.get(outputFile), options).run();
+        } catch (Exception e) {
+            System.err.println("❌ Error durante el análisis: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Starts the analysis server and keeps running until the process is stopped.
+     */
+    private static void serve(String[] args) {
+        int port = DEFAULT_SERVER_PORT;
+        long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+        Path exportDirectory = Paths.get("");
+        List<String> analyzerFlags = new ArrayList<>();
+        AnalyzerOptions options;
+        try {
+            if (args[0].startsWith("--serve=")) {
+                port = parsePositiveInt(args[0]);
+            } else if (!args[0].equals("--serve")) {
+                throw new IllegalArgumentException("Opción desconocida: " + args[0]);
+            }
+            for (String flag : Arrays.copyOfRange(args, 1, args.length)) {
+                if (flag.startsWith("--memory-budget=")) {
+                    memoryBudget = parsePositiveInt(flag) * 1024L * 1024L;
+                } else if (flag.startsWith("--export-dir=") && flag.length() > "--export-dir=".length()) {
+                    exportDirectory = Paths.get(flag.substring("--export-dir=".length()));
+                } else {
+                    analyzerFlags.add(flag);
+                }
+            }
+            options = parseOptions(analyzerFlags.toArray(new String[0]));
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            printUsage();
+            System.exit(1);
+            return;
+        }
+
+        try {
+            AnalysisServer server = new AnalysisServer(options, port, memoryBudget, exportDirectory);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+            System.out.println("🛰️ Servidor de análisis escuchando en http://127.0.0.1:" + server.getPort()
+                    + " (presupuesto de memoria: " + (memoryBudget >> 20) + " MB)");
+        } catch (Exception e) {
+            System.err.println("❌ No se pudo iniciar el servidor: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Uso: java MicroserviceInferenceMain <ruta-proyecto> <archivo-salida> [opciones]");
+        System.err.println("     java MicroserviceInferenceMain --serve[=PUERTO] [--memory-budget=MB] [--export-dir=DIR] [opciones]");
+        System.err.println("Ejemplo: java MicroserviceInferenceMain /path/to/project output.json");
+        System.err.println("Opciones:");
+        System.err.println("  --parallel-models[=N]    Construye un modelo Spoon por raíz de fuentes con N hilos (por defecto: núcleos disponibles)");
+        System.err.println("  --parallel-analysis[=N]  Analiza los tipos con N hilos (por defecto: núcleos disponibles)");
+        System.err.println("  --cache-dir=DIR          Reutiliza en DIR el análisis de los archivos sin cambios desde la ejecución anterior");
+        System.err.println("  --exclude=GLOB[,GLOB...] Directorios que no se recorren al buscar fuentes y archivos de build (por defecto: .git,target,build,node_modules)");
+        System.err.println("  --metrics[=ARCHIVO]      Mide tiempo, CPU y memoria asignada de cada fase y los agrega a \"meta\" del grafo (y a ARCHIVO si se indica)");
+        System.err.println("  --watch                  Mantiene los archivos de salida actualizados mientras cambia el proyecto, reanalizando solo los archivos modificados");
+        System.err.println("  --serve[=PUERTO]         Inicia un servidor HTTP local que mantiene los proyectos analizados en memoria (por defecto: " + DEFAULT_SERVER_PORT + ")");
+        System.err.println("  --memory-budget=MB       Memoria estimada máxima de los proyectos en memoria del servidor (por defecto: la mitad del heap)");
+        System.err.println("  --export-dir=DIR         Directorio en el que el servidor escribe los archivos de /export (por defecto: el directorio actual)");
+    }
+
+    /**
+     * Parses the optional command line flags that follow the positional arguments.
      */
-    private static void saveToFile(String content, String filePath) throws IOException {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.write(content);
+    static AnalyzerOptions parseOptions(String[] flags) {
+        AnalyzerOptions.AnalyzerOptionsBuilder builder = AnalyzerOptions.builder();
+        for (String flag : flags) {
+            if (flag.equals("--parallel-models")) {
+                builder.modelBuildParallelism(Runtime.getRuntime().availableProcessors());
+            } else if (flag.startsWith("--parallel-models=")) {
+                builder.modelBuildParallelism(parsePositiveInt(flag));
+            } else if (flag.equals("--parallel-analysis")) {
+                builder.analysisParallelism(Runtime.getRuntime().availableProcessors());
+            } else if (flag.startsWith("--parallel-analysis=")) {
+                builder.analysisParallelism(parsePositiveInt(flag));
+            } else if (flag.equals("--metrics")) {
+                builder.collectMetrics(true);
+            } else if (flag.startsWith("--cache-dir=") && flag.length() > "--cache-dir=".length()) {
+                builder.cacheDirectory(Paths.get(flag.substring("--cache-dir=".length())));
+            } else if (flag.startsWith("--exclude=")) {
+                builder.excludedDirectories(Arrays.stream(flag.substring("--exclude=".length()).split(","))
+                        .map(String::trim)
+                        .filter(glob -> !glob.isEmpty())
+                        .collect(Collectors.toList()));
+            } else {
+                throw new IllegalArgumentException("Opción desconocida: " + flag);
+            }
+        }
+        return builder.build();
+    }
+
+    private static int parsePositiveInt(String flag) {
+        String value = flag.substring(flag.indexOf('=') + 1);
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
         }
+        throw new IllegalArgumentException("Valor inválido en " + flag + " (se esperaba un entero positivo)");
     }
 
     /**
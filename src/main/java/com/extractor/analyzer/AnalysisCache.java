@@ -0,0 +1,391 @@
+package com.extractor.analyzer;
+
+import com.extractor.constants.AnalysisConstants;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of per-type analysis results, keyed by the content hash of each source
+ * file and by {@link AnalysisConstants#ANALYZER_VERSION}.
+ *
+ * A snapshot is only reused when it was written by the same analyzer version for the same
+ * environment (options, source roots and build-file dependencies) and the project still has
+ * the same set of source files. {@link Snapshot#plan} then tells which types must be analyzed
+ * again and which files must be parsed for that.
+ *
+ * Without a directory the snapshot is kept in memory instead, for an analyzer that
+ * analyzes the same project again. It is still stored serialized: linking fills the
+ * components of the analyses, and a reused analysis must be the one from before linking.
+ */
+public class AnalysisCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisCache.class);
+
+    private static final String CACHE_FILE = "analysis-cache.json";
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
+
+    private final Path cacheDirectory;
+    private final ObjectMapper mapper;
+
+    // Snapshot of the previous run when there is no cache directory
+    private byte[] snapshotBytes;
+
+    public AnalysisCache(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        this.mapper = new ObjectMapper();
+        this.mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Hash every Java file under the given source roots, keyed by canonical path.
+     */
+    public Map<String, String> hashSourceFiles(List<String> sourcePaths) throws IOException {
+        Map<String, String> hashes = new TreeMap<>();
+        for (String sourcePath : sourcePaths) {
+            try (Stream<Path> paths = Files.walk(Paths.get(sourcePath))) {
+                for (Path path : paths.filter(p -> p.toString().endsWith(".java"))
+                        .filter(Files::isRegularFile)
+                        .collect(Collectors.toList())) {
+                    hashes.put(fileKey(path.toFile()), sha256(Files.readAllBytes(path)));
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Load the snapshot of the previous run, or null when there is none or it was written
+     * by another analyzer version or for another environment.
+     */
+    public Snapshot load(String environment) {
+        try {
+            Snapshot snapshot = read();
+            if (snapshot == null) {
+                return null;
+            }
+            if (!AnalysisConstants.ANALYZER_VERSION.equals(snapshot.analyzerVersion)) {
+                logger.info("Analysis cache was written by analyzer version {}, ignoring it", snapshot.analyzerVersion);
+                return null;
+            }
+            if (!environment.equals(snapshot.environment)) {
+                logger.info("Options or build dependencies changed since the cached run, ignoring the cache");
+                return null;
+            }
+            return snapshot;
+        } catch (IOException e) {
+            logger.warn("Could not read analysis cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Snapshot read() throws IOException {
+        if (cacheDirectory == null) {
+            if (snapshotBytes == null) {
+                logger.info("No analysis kept in memory");
+                return null;
+            }
+            return mapper.readValue(snapshotBytes, Snapshot.class);
+        }
+
+        Path cacheFile = cacheDirectory.resolve(CACHE_FILE);
+        if (!Files.isRegularFile(cacheFile)) {
+            logger.info("No analysis cache found in {}", cacheDirectory);
+            return null;
+        }
+        return mapper.readValue(cacheFile.toFile(), Snapshot.class);
+    }
+
+    /**
+     * Write the snapshot, replacing the previous one. Failures are logged and the analysis
+     * result is not affected.
+     */
+    public void save(Snapshot snapshot) {
+        if (cacheDirectory == null) {
+            try {
+                snapshotBytes = mapper.writeValueAsBytes(snapshot);
+                logger.info("Kept the analysis of {} types in memory", snapshot.analyses.size());
+            } catch (IOException e) {
+                snapshotBytes = null;
+                logger.warn("Could not keep the analysis in memory: {}", e.getMessage());
+            }
+            return;
+        }
+
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path tempFile = Files.createTempFile(cacheDirectory, "analysis-cache", ".tmp");
+            mapper.writeValue(tempFile.toFile(), snapshot);
+            Files.move(tempFile, cacheDirectory.resolve(CACHE_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved analysis cache with {} types to {}", snapshot.analyses.size(), cacheDirectory);
+        } catch (IOException e) {
+            logger.warn("Could not write analysis cache to {}: {}", cacheDirectory, e.getMessage());
+        }
+    }
+
+    /**
+     * Key of the environment a snapshot is valid for.
+     */
+    public static String environmentKey(AnalyzerOptions options, List<String> sourcePaths,
+            Map<String, String> dependencies) {
+        StringBuilder key = new StringBuilder();
+        key.append("lombok=").append(options.isEnableLombok()).append('\n');
+        key.append("modelPerRoot=").append(options.isParallelModelBuild()).append('\n');
+        sourcePaths.stream().map(path -> fileKey(new File(path))).sorted().forEach(path -> key.append("root=").append(path).append('\n'));
+        new TreeMap<>(dependencies).forEach((prefix, dependency) ->
+                key.append("dependency=").append(prefix).append('=').append(dependency).append('\n'));
+        return sha256(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Canonical path used as cache key for a source file.
+     */
+    public static String fileKey(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Analysis results of one run: the hash and declared types of every source file, and
+     * the analysis of every component type in analysis order.
+     */
+    public static class Snapshot {
+        @JsonProperty("analyzer_version")
+        private String analyzerVersion;
+
+        @JsonProperty("environment")
+        private String environment;
+
+        @JsonProperty("files")
+        private Map<String, FileEntry> files = new TreeMap<>();
+
+        @JsonProperty("analyses")
+        private List<TypeAnalysis> analyses = new ArrayList<>();
+
+        // Used by Jackson when reading the cache
+        private Snapshot() {
+        }
+
+        public Snapshot(String environment, Map<String, String> fileHashes,
+                Map<String, List<String>> declaredTypesByFile, List<TypeAnalysis> analyses) {
+            this.analyzerVersion = AnalysisConstants.ANALYZER_VERSION;
+            this.environment = environment;
+            fileHashes.forEach((file, hash) -> files.put(file, new FileEntry(hash,
+                    declaredTypesByFile.getOrDefault(file, Collections.emptyList()))));
+            this.analyses = analyses;
+        }
+
+        public List<TypeAnalysis> getAnalyses() {
+            return analyses;
+        }
+
+        public Map<String, List<String>> getDeclaredTypesByFile() {
+            Map<String, List<String>> declaredTypes = new HashMap<>();
+            files.forEach((file, entry) -> declaredTypes.put(file, entry.declaredTypes));
+            return declaredTypes;
+        }
+
+        /**
+         * Compare the snapshot with the current source files. Returns null when the set of
+         * files changed, in which case the whole project has to be analyzed again.
+         */
+        public Plan plan(Map<String, String> fileHashes) throws IOException {
+            if (!files.keySet().equals(fileHashes.keySet())) {
+                logger.info("Source files were added or removed since the cached run");
+                return null;
+            }
+
+            Set<String> changedFiles = new TreeSet<>();
+            fileHashes.forEach((file, hash) -> {
+                if (!hash.equals(files.get(file).hash)) {
+                    changedFiles.add(file);
+                }
+            });
+            if (changedFiles.isEmpty()) {
+                return new Plan(changedFiles, Collections.emptySet(), Collections.emptySet());
+            }
+
+            Map<String, String> fileOfType = new HashMap<>();
+            Map<String, Set<String>> filesBySimpleName = new HashMap<>();
+            files.forEach((file, entry) -> {
+                for (String typeName : entry.declaredTypes) {
+                    fileOfType.putIfAbsent(typeName, file);
+                    filesBySimpleName.computeIfAbsent(simpleName(typeName), k -> new TreeSet<>()).add(file);
+                }
+            });
+            Map<String, TypeAnalysis> analysisByType = new HashMap<>();
+            Map<String, Set<String>> subtypes = new HashMap<>();
+            for (TypeAnalysis analysis : analyses) {
+                analysisByType.put(analysis.getClassName(), analysis);
+                for (String supertype : supertypes(analysis)) {
+                    subtypes.computeIfAbsent(supertype, k -> new HashSet<>()).add(analysis.getClassName());
+                }
+            }
+
+            // Types whose analysis may change: the changed ones, the ones referencing them and
+            // every subtype of those, since inherited members are part of a type's analysis
+            Set<String> changedTypes = new HashSet<>();
+            for (String file : changedFiles) {
+                changedTypes.addAll(files.get(file).declaredTypes);
+            }
+            Set<String> affectedTypes = new TreeSet<>();
+            for (TypeAnalysis analysis : analyses) {
+                if (changedTypes.contains(analysis.getClassName())
+                        || !Collections.disjoint(analysis.getReferencedTypes(), changedTypes)) {
+                    affectedTypes.add(analysis.getClassName());
+                }
+            }
+            Deque<String> pending = new ArrayDeque<>(changedTypes);
+            Set<String> visited = new HashSet<>(changedTypes);
+            while (!pending.isEmpty()) {
+                for (String subtype : subtypes.getOrDefault(pending.poll(), Collections.emptySet())) {
+                    if (visited.add(subtype)) {
+                        affectedTypes.add(subtype);
+                        pending.add(subtype);
+                    }
+                }
+            }
+
+            // Files to parse: the affected ones plus the declarations they resolve against.
+            // References of changed files are taken from their new text, since the cached ones
+            // may be stale.
+            Set<String> parseFiles = new TreeSet<>(changedFiles);
+            Set<String> contextTypes = new HashSet<>();
+            for (String typeName : affectedTypes) {
+                String file = fileOfType.get(typeName);
+                if (file != null) {
+                    parseFiles.add(file);
+                }
+                contextTypes.addAll(analysisByType.get(typeName).getReferencedTypes());
+            }
+            for (String file : changedFiles) {
+                Matcher matcher = IDENTIFIER.matcher(new String(Files.readAllBytes(Paths.get(file)),
+                        StandardCharsets.UTF_8));
+                while (matcher.find()) {
+                    parseFiles.addAll(filesBySimpleName.getOrDefault(matcher.group(), Collections.emptySet()));
+                }
+            }
+            for (String typeName : contextTypes) {
+                String file = fileOfType.get(typeName);
+                if (file != null) {
+                    parseFiles.add(file);
+                }
+            }
+
+            // Supertypes of everything parsed, so inherited members resolve
+            pending = new ArrayDeque<>();
+            for (String file : parseFiles) {
+                pending.addAll(files.get(file).declaredTypes);
+            }
+            visited = new HashSet<>(pending);
+            while (!pending.isEmpty()) {
+                TypeAnalysis analysis = analysisByType.get(pending.poll());
+                if (analysis == null) {
+                    continue;
+                }
+                for (String supertype : supertypes(analysis)) {
+                    String file = fileOfType.get(supertype);
+                    if (file != null && visited.add(supertype)) {
+                        parseFiles.add(file);
+                        pending.add(supertype);
+                    }
+                }
+            }
+
+            return new Plan(changedFiles, affectedTypes, parseFiles);
+        }
+
+        private static List<String> supertypes(TypeAnalysis analysis) {
+            List<String> supertypes = new ArrayList<>(analysis.getComponent().getImplementsInterfaces());
+            if (analysis.getComponent().getExtendsClass() != null) {
+                supertypes.add(analysis.getComponent().getExtendsClass());
+            }
+            return supertypes;
+        }
+
+        private static String simpleName(String typeName) {
+            int start = Math.max(typeName.lastIndexOf('.'), typeName.lastIndexOf('$'));
+            return typeName.substring(start + 1);
+        }
+    }
+
+    /**
+     * Hash and declared types (nested ones included) of one source file.
+     */
+    public static class FileEntry {
+        @JsonProperty("hash")
+        private String hash;
+
+        @JsonProperty("declared_types")
+        private List<String> declaredTypes = new ArrayList<>();
+
+        // Used by Jackson when reading the cache
+        private FileEntry() {
+        }
+
+        FileEntry(String hash, Collection<String> declaredTypes) {
+            this.hash = hash;
+            this.declaredTypes = new ArrayList<>(new TreeSet<>(declaredTypes));
+        }
+    }
+
+    /**
+     * What an incremental run has to redo.
+     */
+    public static class Plan {
+        private final Set<String> changedFiles;
+        private final Set<String> affectedTypes;
+        private final Set<String> parseFiles;
+
+        Plan(Set<String> changedFiles, Set<String> affectedTypes, Set<String> parseFiles) {
+            this.changedFiles = changedFiles;
+            this.affectedTypes = affectedTypes;
+            this.parseFiles = parseFiles;
+        }
+
+        public boolean isUpToDate() {
+            return changedFiles.isEmpty();
+        }
+
+        /** Source files whose content changed since the cached run. */
+        public Set<String> getChangedFiles() { return changedFiles; }
+        /** Component types to analyze again. */
+        public Set<String> getAffectedTypes() { return affectedTypes; }
+        /** Source files to parse so that the affected types resolve as in a full run. */
+        public Set<String> getParseFiles() { return parseFiles; }
+    }
+}
@@ -0,0 +1,81 @@
+package com.extractor.analyzer;
+
+import com.extractor.utils.ProjectInventory;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tuning options for {@link ProjectAnalyzer}.
+ * Defaults reproduce the original single-threaded behaviour.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class AnalyzerOptions {
+
+    /**
+     * Enable Lombok annotation processing (compliance 17 with classpath).
+     */
+    @Builder.Default
+    private final boolean enableLombok = false;
+
+    /**
+     * Number of source roots parsed concurrently, one Spoon model per root.
+     * Values below 1 keep the single launcher over all roots.
+     */
+    @Builder.Default
+    private final int modelBuildParallelism = 0;
+
+    /**
+     * Number of types analyzed concurrently on a ForkJoin pool.
+     * Values below 1 analyze one type after the other.
+     */
+    @Builder.Default
+    private final int analysisParallelism = 0;
+
+    /**
+     * Directory of the incremental analysis cache. When null every run analyzes the
+     * whole project.
+     */
+    private final Path cacheDirectory;
+
+    /**
+     * Keep the per-type analysis of the last run in memory, so analyzing the project
+     * again with the same analyzer only redoes the types affected by the changed files.
+     * Ignored when a cache directory is set, which already gives that.
+     */
+    @Builder.Default
+    private final boolean inMemoryCache = false;
+
+    /**
+     * Measure each pass and the inference steps, and write the results to the graph
+     * metadata (see {@link com.extractor.model.AnalysisMetrics}).
+     */
+    @Builder.Default
+    private final boolean collectMetrics = false;
+
+    /**
+     * Globs of the directories not walked when looking for source roots and build files
+     * (see {@link ProjectInventory.Exclusions}).
+     */
+    @Builder.Default
+    private final List<String> excludedDirectories = ProjectInventory.DEFAULT_EXCLUDES;
+
+    public static AnalyzerOptions defaults() {
+        return AnalyzerOptions.builder().build();
+    }
+
+    public boolean isParallelModelBuild() {
+        return modelBuildParallelism > 0;
+    }
+
+    public boolean isParallelAnalysis() {
+        return analysisParallelism > 0;
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheDirectory != null || inMemoryCache;
+    }
+}
@@ -0,0 +1,211 @@
+package com.extractor.analyzer;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Classifies the qualified names referenced by the analyzed types: JDK, project or external
+ * library class, and valid call target. The passes ask about the same few thousand names
+ * for every reference, so all verdicts of a name are computed the first time it is seen and
+ * cached as one flag word; the map is safe for the parallel per-type analysis.
+ *
+ * Project verdicts depend on the registered components. The cache must be cleared whenever
+ * they change, i.e. when the registry is cleared and once pass 1 has registered them.
+ */
+public class ClassNameClassifier {
+
+    private static final int COMPUTED = 1;
+    private static final int EXTERNAL_LIBRARY = 1 << 1;
+    private static final int REAL_EXTERNAL_LIBRARY = 1 << 2;
+    private static final int JDK_CLASS = 1 << 3;
+    private static final int PROJECT_CLASS = 1 << 4;
+    private static final int INTERNAL_PROJECT_CLASS = 1 << 5;
+    private static final int VALID_TARGET = 1 << 6;
+
+    private final ComponentRegistry componentRegistry;
+    private final ClassNameValidator classNameValidator;
+    private final ConcurrentHashMap<String, Integer> verdicts = new ConcurrentHashMap<>();
+
+    public ClassNameClassifier(ComponentRegistry componentRegistry) {
+        this.componentRegistry = componentRegistry;
+        this.classNameValidator = new ClassNameValidator(componentRegistry);
+    }
+
+    /**
+     * Forget the cached verdicts, after the registered components changed.
+     */
+    public void clear() {
+        verdicts.clear();
+    }
+
+    /**
+     * Check if a class is from an external library (not part of the analyzed project).
+     */
+    public boolean isExternalLibrary(String className) {
+        return has(className, EXTERNAL_LIBRARY);
+    }
+
+    /**
+     * More strict check for real external libraries, excluding primitives, JDK classes,
+     * Spoon classes, and project internal classes.
+     */
+    public boolean isRealExternalLibrary(String className) {
+        return has(className, REAL_EXTERNAL_LIBRARY);
+    }
+
+    /**
+     * Check if a class is a JDK class.
+     */
+    public boolean isJdkClass(String className) {
+        return has(className, JDK_CLASS);
+    }
+
+    /**
+     * Check if a class belongs to the project being analyzed.
+     */
+    public boolean isProjectClass(String className) {
+        return has(className, PROJECT_CLASS);
+    }
+
+    /**
+     * Check if a class belongs to the internal project (not external library).
+     */
+    public boolean isInternalProjectClass(String className) {
+        return has(className, INTERNAL_PROJECT_CLASS);
+    }
+
+    /**
+     * Same verdict as {@link ClassNameValidator#isValidTargetClass}.
+     */
+    public boolean isValidTargetClass(String toClass, String fromClass) {
+        if (toClass == null || toClass.isEmpty() || toClass.equals(fromClass)) {
+            return false;
+        }
+        return has(toClass, VALID_TARGET);
+    }
+
+    private boolean has(String className, int flag) {
+        if (className == null || className.isEmpty()) {
+            // Every check rejects a missing name
+            return false;
+        }
+        Integer cached = verdicts.get(className);
+        int flags = cached != null ? cached : classify(className);
+        return (flags & flag) != 0;
+    }
+
+    private int classify(String className) {
+        int flags = COMPUTED;
+        if (computeExternalLibrary(className)) flags |= EXTERNAL_LIBRARY;
+        if (computeRealExternalLibrary(className)) flags |= REAL_EXTERNAL_LIBRARY;
+        if (computeJdkClass(className)) flags |= JDK_CLASS;
+        if (computeProjectClass(className)) flags |= PROJECT_CLASS;
+        if (computeInternalProjectClass(className)) flags |= INTERNAL_PROJECT_CLASS;
+        if (classNameValidator.isValidTarget(className)) flags |= VALID_TARGET;
+        verdicts.put(className, flags);
+        return flags;
+    }
+
+    private boolean computeExternalLibrary(String className) {
+        return className.startsWith("java.") ||
+                className.startsWith("javax.") ||
+                className.startsWith("org.springframework.") ||
+                className.startsWith("org.hibernate.") ||
+                className.startsWith("org.apache.") ||
+                className.startsWith("com.fasterxml.") ||
+                !computeProjectClass(className);
+    }
+
+    private boolean computeRealExternalLibrary(String className) {
+        // Exclude primitives and built-in types
+        if (className.equals("int") || className.equals("boolean") || className.equals("void") ||
+                className.equals("long") || className.equals("double") || className.equals("float") ||
+                className.equals("char") || className.equals("byte") || className.equals("short") ||
+                className.equals("<nulltype>") || className.equals("annotation") ||
+                className.startsWith("TypeFilter") || className.contains("<>")) {
+            return false;
+        }
+
+        // Include JavaEE/Jakarta EE specifications as external dependencies
+        if (className.startsWith("javax.persistence.") || // JPA
+                className.startsWith("javax.ejb.") || // EJB
+                className.startsWith("javax.ws.rs.") || // JAX-RS
+                className.startsWith("javax.servlet.") || // Servlets
+                className.startsWith("javax.faces.") || // JSF
+                className.startsWith("javax.inject.") || // CDI
+                className.startsWith("javax.validation.") || // Bean Validation
+                className.startsWith("javax.jms.") || // JMS
+                className.startsWith("javax.mail.") || // JavaMail
+                className.startsWith("javax.transaction.") || // JTA
+                className.startsWith("javax.annotation.") || // Common Annotations
+                className.startsWith("jakarta.")) { // Jakarta EE
+            return true;
+        }
+
+        // Exclude other JDK classes
+        if (className.startsWith("java.") || className.startsWith("javax.") ||
+                className.startsWith("sun.") || className.startsWith("com.sun.")) {
+            return false;
+        }
+
+        // Exclude Spoon framework classes
+        if (className.startsWith("spoon.")) {
+            return false;
+        }
+
+        // Exclude project internal classes
+        if (componentRegistry.hasComponent(className)) {
+            return false;
+        }
+
+        // Must be a real external library class
+        return className.startsWith("org.") || className.startsWith("com.") ||
+                className.startsWith("io.") || className.startsWith("net.") ||
+                className.startsWith("edu.") || className.startsWith("gov.");
+    }
+
+    private static boolean computeJdkClass(String className) {
+        return className.startsWith("java.") || className.startsWith("javax.");
+    }
+
+    private boolean computeProjectClass(String className) {
+        // Check if class is already in components or if it comes from known project
+        // packages
+        if (componentRegistry.hasComponent(className)) {
+            return true;
+        }
+
+        // Check if it's a typical project package (not well-known external library
+        // packages)
+        return !className.startsWith("java.") &&
+                !className.startsWith("javax.") &&
+                !className.startsWith("org.springframework.") &&
+                !className.startsWith("org.hibernate.") &&
+                !className.startsWith("org.apache.") &&
+                !className.startsWith("com.fasterxml.") &&
+                !className.startsWith("org.modelmapper.") &&
+                !className.startsWith("org.slf4j.") &&
+                !className.startsWith("lombok.");
+    }
+
+    private boolean computeInternalProjectClass(String className) {
+        // Exclude truncated or malformed class names
+        if (className.length() < 10 || className.endsWith(".i") ||
+                className.contains("<>") || className.contains("nulltype") ||
+                !className.contains(".")) {
+            return false;
+        }
+
+        // Check if it's an external library first
+        if (className.startsWith("java.") ||
+                className.startsWith("javax.") ||
+                className.startsWith("org.springframework") ||
+                className.startsWith("org.modelmapper") ||
+                className.startsWith("spoon.")) {
+            return false;
+        }
+
+        // Check if this class is in our components map (which means it's internal to
+        // this project)
+        return componentRegistry.hasComponent(className);
+    }
+}
@@ -1,9 +1,25 @@
 package com.extractor.analyzer;
 
 import java.util.Set;
+import java.util.regex.Pattern;
 
 public class ClassNameValidator {
     
+    private static final Set<String> INVALID_NAMES = Set.of(
+        "annotation", "iface", "type", "element", "node", "value",
+        "SPRING_DATA_REPOSITORIES", "JPA_METHODS", "JDBC_METHODS",
+        "<nulltype>", "nulltype", "<unknown>", "unknown"
+    );
+    
+    private static final Set<String> VALID_SIMPLE_NAMES = Set.of(
+        "String", "Object", "Integer", "Boolean", "Long", "Double",
+        "List", "Set", "Map", "Collection", "Optional"
+    );
+    
+    private static final Pattern CONSTANT_NAME = Pattern.compile("^[A-Z][A-Z0-9_]*$");
+    private static final Pattern PLACEHOLDER_NAME = Pattern.compile("^<.*>$");
+    private static final Pattern SIMPLE_CLASS_NAME = Pattern.compile("^[A-Z][a-zA-Z0-9]*$");
+    
     private final ComponentRegistry componentRegistry;
     
     public ClassNameValidator(ComponentRegistry componentRegistry) {
@@ -15,6 +31,15 @@ public class ClassNameValidator {
         
         if (toClass.equals(fromClass)) return false;
         
+        return isValidTarget(toClass);
+    }
+    
+    /**
+     * The checks of {@link #isValidTargetClass} that do not depend on the calling class.
+     */
+    public boolean isValidTarget(String toClass) {
+        if (toClass == null || toClass.isEmpty()) return false;
+        
         if (isInvalidClassName(toClass)) return false;
         
         if (!toClass.contains(".")) {
@@ -34,17 +59,11 @@ public class ClassNameValidator {
     public boolean isInvalidClassName(String className) {
         if (className == null) return true;
         
-        Set<String> invalidNames = Set.of(
-            "annotation", "iface", "type", "element", "node", "value",
-            "SPRING_DATA_REPOSITORIES", "JPA_METHODS", "JDBC_METHODS",
-            "<nulltype>", "nulltype", "<unknown>", "unknown"
-        );
+        if (INVALID_NAMES.contains(className)) return true;
         
-        if (invalidNames.contains(className)) return true;
+        if (className.contains("_") && CONSTANT_NAME.matcher(className).matches()) return true;
         
-        if (className.matches("^[A-Z][A-Z0-9_]*$") && className.contains("_")) return true;
-        
-        if (className.matches("^<.*>$")) return true;
+        if (className.startsWith("<") && PLACEHOLDER_NAME.matcher(className).matches()) return true;
         
         return false;
     }
@@ -52,13 +71,8 @@ public class ClassNameValidator {
     public boolean isValidSimpleClassName(String className) {
         if (className == null || className.isEmpty()) return false;
         
-        if (!className.matches("^[A-Z][a-zA-Z0-9]*$")) return false;
-        
-        Set<String> validSimpleNames = Set.of(
-            "String", "Object", "Integer", "Boolean", "Long", "Double", 
-            "List", "Set", "Map", "Collection", "Optional"
-        );
+        if (!SIMPLE_CLASS_NAME.matcher(className).matches()) return false;
         
-        return validSimpleNames.contains(className);
+        return VALID_SIMPLE_NAMES.contains(className);
     }
 }
@@ -18,7 +18,7 @@ public class ComponentRegistry {
     private static final Logger logger = LoggerFactory.getLogger(ComponentRegistry.class);
     private final Map<String, Component> components = new HashMap<>();
     private final LayerClassifier layerClassifier = new LayerClassifier();
-    private final DependencyGraph.ApiContracts apiContracts = new DependencyGraph.ApiContracts();
+    private DependencyGraph.ApiContracts apiContracts = new DependencyGraph.ApiContracts();
 
     public DependencyGraph.ApiContracts getApiContracts() {
         return apiContracts;
@@ -50,6 +50,8 @@ public class ComponentRegistry {
 
     public void clear() {
         components.clear();
+        // A new instance, since the graph of the previous analysis keeps the old one
+        apiContracts = new DependencyGraph.ApiContracts();
     }
 
     public void normalizeAll() {
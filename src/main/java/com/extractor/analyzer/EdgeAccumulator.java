@@ -1,27 +1,58 @@
 package com.extractor.analyzer;
 
+import com.extractor.model.Component;
 import com.extractor.model.Edge;
 import com.extractor.model.EdgeData;
+import com.extractor.model.EdgeType;
 import com.extractor.constants.AnalysisConstants;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Aggregates the dependencies between classes into weighted edges.
+ * Class names are interned to ints and each (from, to) pair is packed into a long key
+ * of an open-addressing table, so adding a dependency allocates nothing once both names
+ * have been seen. Weights and type masks live in int arrays indexed by edge, in the
+ * order the edges were first seen; {@link Edge} objects are only built by
+ * {@link #finalizeEdges()}.
+ */
 public class EdgeAccumulator {
     
-    private final Map<String, EdgeData> edgeDataMap = new HashMap<>();
+    private static final int INITIAL_CAPACITY = 1024;
+    
     private final ComponentRegistry componentRegistry;
     
+    // Interned class names
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    
+    // Edges by insertion index
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] weights = new int[INITIAL_CAPACITY];
+    private int[] typeMasks = new int[INITIAL_CAPACITY];
+    private int edgeCount;
+    
+    // Open-addressing table: edge index + 1 per slot, 0 for an empty slot
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    
     public EdgeAccumulator(ComponentRegistry componentRegistry) {
         this.componentRegistry = componentRegistry;
     }
     
     public void addDependency(String fromClass, String toClass, String edgeType, int weight) {
-        String key = fromClass + "->" + toClass;
-        
-        EdgeData data = edgeDataMap.computeIfAbsent(key, k -> new EdgeData(fromClass, toClass));
+        addDependency(fromClass, toClass, EdgeType.fromLabel(edgeType), weight);
+    }
+    
+    public void addDependency(String fromClass, String toClass, EdgeType edgeType, int weight) {
+        long key = pack(intern(fromClass), intern(toClass));
         
-        data.addDependency(edgeType, weight);
+        int slot = findSlot(key);
+        int edge = slots[slot] - 1;
+        if (edge < 0) {
+            edge = addEdge(key);
+        }
+        typeMasks[edge] |= edgeType.bit();
+        weights[edge] += weight;
     }
     
     public void addDependency(String fromClass, String toClass, String edgeType) {
@@ -29,37 +60,59 @@ public class EdgeAccumulator {
     }
     
     public EdgeData getEdgeData(String fromClass, String toClass) {
-        String key = fromClass + "->" + toClass;
-        return edgeDataMap.get(key);
+        int edge = indexOf(fromClass, toClass);
+        if (edge < 0) {
+            return null;
+        }
+        // Only the total weight is kept, not its split by type: it is added with the first type
+        EdgeData data = new EdgeData(fromClass, toClass);
+        int weight = weights[edge];
+        for (EdgeType type : EdgeType.values()) {
+            if ((typeMasks[edge] & type.bit()) != 0) {
+                data.addDependency(type.getLabel(), weight);
+                weight = 0;
+            }
+        }
+        return data;
     }
     
     public boolean hasEdge(String fromClass, String toClass) {
-        String key = fromClass + "->" + toClass;
-        return edgeDataMap.containsKey(key);
+        return indexOf(fromClass, toClass) >= 0;
     }
     
     public int size() {
-        return edgeDataMap.size();
+        return edgeCount;
     }
     
     public void clear() {
-        edgeDataMap.clear();
+        ids.clear();
+        names.clear();
+        Arrays.fill(slots, 0);
+        Arrays.fill(typeMasks, 0, edgeCount, 0);
+        Arrays.fill(weights, 0, edgeCount, 0);
+        edgeCount = 0;
     }
     
     public List<Edge> finalizeEdges() {
         List<Edge> edges = new ArrayList<>();
+        // Edges share a handful of type combinations; join each one once
+        String[] typeStrings = new String[EdgeType.maskCount()];
         
-        for (EdgeData data : edgeDataMap.values()) {
-            String from = data.getFrom();
-            String to = data.getTo();
+        for (int edge = 0; edge < edgeCount; edge++) {
+            String from = names.get(fromId(keys[edge]));
+            String to = names.get(toId(keys[edge]));
             
-            if (componentRegistry.hasComponent(from) && componentRegistry.hasComponent(to)) {
-                String typeString = String.join(",", data.getTypes());
-                Edge edge = new Edge(from, to, data.getWeight(), typeString);
-                edges.add(edge);
+            Component fromComponent = componentRegistry.getComponent(from);
+            Component toComponent = componentRegistry.getComponent(to);
+            if (fromComponent != null && toComponent != null) {
+                int mask = typeMasks[edge];
+                if (typeStrings[mask] == null) {
+                    typeStrings[mask] = EdgeType.join(mask);
+                }
+                edges.add(new Edge(from, to, weights[edge], typeStrings[mask]));
                 
-                componentRegistry.getComponent(from).addCallOut(to);
-                componentRegistry.getComponent(to).addCallIn(from);
+                fromComponent.addCallOut(to);
+                toComponent.addCallIn(from);
             }
         }
         
@@ -67,4 +120,81 @@ public class EdgeAccumulator {
         
         return edges;
     }
+    
+    private int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+    
+    private int indexOf(String fromClass, String toClass) {
+        Integer from = ids.get(fromClass);
+        Integer to = ids.get(toClass);
+        if (from == null || to == null) {
+            return -1;
+        }
+        return slots[findSlot(pack(from, to))] - 1;
+    }
+    
+    private static long pack(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+    
+    private static int fromId(long key) {
+        return (int) (key >>> 32);
+    }
+    
+    private static int toId(long key) {
+        return (int) key;
+    }
+    
+    /**
+     * Slot holding the key, or the empty slot where it would be inserted (linear probing).
+     */
+    private int findSlot(long key) {
+        int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        while (slots[slot] != 0 && keys[slots[slot] - 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private int addEdge(long key) {
+        if (edgeCount == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            typeMasks = Arrays.copyOf(typeMasks, capacity);
+            rehash(capacity * 2);
+        }
+        int edge = edgeCount++;
+        keys[edge] = key;
+        slots[findSlot(key)] = edge + 1;
+        return edge;
+    }
+    
+    /**
+     * Keeps the table at most half full: it is resized together with the edge arrays.
+     */
+    private void rehash(int slotCount) {
+        slots = new int[slotCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            slots[findSlot(keys[edge])] = edge + 1;
+        }
+    }
+    
+    private static int hash(long key) {
+        // Murmur3 finalizer: spreads the packed ids over the low bits
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb93e77f53d9bL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
 }
@@ -4,7 +4,8 @@ import spoon.reflect.declaration.*;
 import spoon.reflect.reference.*;
 import spoon.reflect.code.*;
 import spoon.support.reflect.code.*;
-import spoon.reflect.visitor.filter.TypeFilter;
+import com.extractor.utils.TypeIndex;
+import com.extractor.utils.TypeScanner;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -12,6 +13,7 @@ import java.util.stream.Collectors;
  * Calculates code quality metrics for Java classes.
  * - CBO (Coupling Between Objects): Number of classes this class is coupled to
  * - LCOM (Lack of Cohesion in Methods): Using LCOM-HS formula (Henderson-Sellers)
+ * - LCOM4, TCC and LCC: cohesion variants derived from the same method x field usage matrix
  */
 public class MetricsCalculator {
     
@@ -29,176 +31,442 @@ public class MetricsCalculator {
      * @return The CBO metric (higher = more coupling)
      */
     public static int calculateCBO(CtType<?> type) {
-        Set<String> coupledClasses = new HashSet<>();
+        TypeScanner scanner = new TypeScanner();
+        MetricsScan scan = register(type, TypeIndex.describe(type), scanner);
+        scanner.scan(type);
+        return scan.getCbo();
+    }
+    
+    /**
+     * Calculate LCOM-HS (Lack of Cohesion in Methods - Henderson-Sellers version).
+     * LCOM-HS measures how related the methods of a class are based on field usage.
+     * 
+     * Formula: LCOM-HS = (M - sum(MF)/F) / (M - 1)
+     * Where:
+     * - M = number of methods
+     * - F = number of fields (instance variables)
+     * - MF = number of methods that access each field
+     * 
+     * @param type The type to analyze
+     * @return LCOM-HS value (0 = high cohesion, 1 = low cohesion, null if not applicable)
+     */
+    public static Double calculateLCOM(CtType<?> type) {
+        TypeScanner scanner = new TypeScanner();
+        MetricsScan scan = register(type, TypeIndex.describe(type), scanner);
+        scanner.scan(type);
+        return scan.getLcom();
+    }
+    
+    /**
+     * Register the call coupling and field access handlers on a shared scanner.
+     * The metrics are available from the returned scan once the type has been scanned.
+     * 
+     * @param indexedType the resolved supertypes of the type, from the project type index
+     */
+    public static MetricsScan register(CtType<?> type, TypeIndex.IndexedType indexedType, TypeScanner scanner) {
+        MetricsScan scan = new MetricsScan(type, indexedType);
+        scanner.onEnter(CtInvocation.class, scan::addInvocationCoupling);
+        scanner.onEnter(CtConstructorCall.class, scan::addConstructorCallCoupling);
         
-        // 1. Superclass coupling
-        if (type instanceof CtClass<?>) {
-            CtClass<?> ctClass = (CtClass<?>) type;
-            CtTypeReference<?> superClass = ctClass.getSuperclass();
-            if (superClass != null && !isJdkClass(superClass.getQualifiedName())) {
-                coupledClasses.add(superClass.getQualifiedName());
-            }
+        try {
+            scan.prepareLcom();
+        } catch (RuntimeException e) {
+            scan.lcomFailure = e;
+        }
+        if (scan.fieldUsage != null) {
+            scanner.onEnter(CtBlock.class, scan::enterBlock);
+            scanner.onExit(CtBlock.class, scan::exitBlock);
+            scanner.onEnter(CtFieldRead.class, read -> scan.addFieldAccess(read.getVariable()));
+            scanner.onEnter(CtFieldWrite.class, write -> scan.addFieldAccess(write.getVariable()));
+            scanner.onEnter(CtInvocation.class, scan::addMethodCall);
         }
+        return scan;
+    }
+    
+    /**
+     * CBO and LCOM inputs of one type, filled while its AST is scanned.
+     */
+    public static class MetricsScan {
+        private final CtType<?> type;
+        private final TypeIndex.IndexedType indexedType;
+        private final Set<String> calledClasses = new HashSet<>();
+        private RuntimeException cboFailure;
         
-        // 2. Interface coupling
-        Set<CtTypeReference<?>> interfaces = type.getSuperInterfaces();
-        if (interfaces != null) {
-            for (CtTypeReference<?> interfaceRef : interfaces) {
-                if (!isJdkClass(interfaceRef.getQualifiedName())) {
-                    coupledClasses.add(interfaceRef.getQualifiedName());
-                }
-            }
+        private List<CtField<?>> instanceFields;
+        private List<CtMethod<?>> instanceMethods;
+        // Method x field usage matrix: one row per instance method, one bit per instance
+        // field (by simple name) read or written in its body
+        private BitSet[] fieldUsage;
+        // Instance methods of this object called by each instance method
+        private BitSet[] calledMethods;
+        private Map<String, Integer> fieldIndex;
+        private Map<CtBlock<?>, Integer> methodRows;
+        private Map<String, Integer> methodsBySignature;
+        private CtBlock<?> currentBody;
+        private int currentRow = -1;
+        private RuntimeException lcomFailure;
+        private RuntimeException callFailure;
+        
+        private MetricsScan(CtType<?> type, TypeIndex.IndexedType indexedType) {
+            this.type = type;
+            this.indexedType = indexedType;
         }
         
-        // 3. Field type coupling
-        for (CtField<?> field : type.getFields()) {
-            CtTypeReference<?> fieldType = field.getType();
-            if (fieldType != null && !isJdkClass(fieldType.getQualifiedName()) 
-                && !isPrimitive(fieldType)) {
-                coupledClasses.add(fieldType.getQualifiedName());
+        /**
+         * @return The CBO metric (higher = more coupling), see {@link #calculateCBO}
+         */
+        public int getCbo() {
+            if (cboFailure != null) {
+                throw cboFailure;
             }
+            Set<String> coupledClasses = new HashSet<>();
+            
+            // 1. Superclass coupling
+            String superClass = indexedType.getSuperclass();
+            if (superClass != null && !isJdkClass(superClass)) {
+                coupledClasses.add(superClass);
+            }
+            
+            // 2. Interface coupling
+            for (String interfaceName : indexedType.getInterfaces()) {
+                if (!isJdkClass(interfaceName)) {
+                    coupledClasses.add(interfaceName);
+                }
+            }
+            
+            // 3. Field type coupling
+            for (CtField<?> field : type.getFields()) {
+                CtTypeReference<?> fieldType = field.getType();
+                if (fieldType != null && !isJdkClass(fieldType.getQualifiedName()) 
+                    && !isPrimitive(fieldType)) {
+                    coupledClasses.add(fieldType.getQualifiedName());
+                }
+            }
+            
+            // 4. Method parameter and return type coupling
+            Collection<CtMethod<?>> methods = type.getMethods();
+            for (CtMethod<?> method : methods) {
+                // Return type
+                CtTypeReference<?> returnType = method.getType();
+                if (returnType != null && !isJdkClass(returnType.getQualifiedName()) 
+                    && !isPrimitive(returnType)) {
+                    coupledClasses.add(returnType.getQualifiedName());
+                }
+                
+                // Parameters
+                for (CtParameter<?> param : method.getParameters()) {
+                    CtTypeReference<?> paramType = param.getType();
+                    if (paramType != null && !isJdkClass(paramType.getQualifiedName()) 
+                        && !isPrimitive(paramType)) {
+                        coupledClasses.add(paramType.getQualifiedName());
+                    }
+                }
+            }
+            
+            // 5-6. Method invocation and constructor call coupling, collected during the scan
+            coupledClasses.addAll(calledClasses);
+            
+            // Remove self-reference (in case of internal calls)
+            coupledClasses.remove(type.getQualifiedName());
+            
+            return coupledClasses.size();
         }
         
-        // 4. Method parameter and return type coupling
-        Collection<CtMethod<?>> methods = type.getMethods();
-        for (CtMethod<?> method : methods) {
-            // Return type
-            CtTypeReference<?> returnType = method.getType();
-            if (returnType != null && !isJdkClass(returnType.getQualifiedName()) 
-                && !isPrimitive(returnType)) {
-                coupledClasses.add(returnType.getQualifiedName());
+        /**
+         * @return LCOM-HS value (0 = high cohesion, 1 = low cohesion, null if not applicable)
+         */
+        public Double getLcom() {
+            if (lcomFailure != null) {
+                throw lcomFailure;
+            }
+            if (fieldUsage == null) {
+                return null;
             }
             
-            // Parameters
-            for (CtParameter<?> param : method.getParameters()) {
-                CtTypeReference<?> paramType = param.getType();
-                if (paramType != null && !isJdkClass(paramType.getQualifiedName()) 
-                    && !isPrimitive(paramType)) {
-                    coupledClasses.add(paramType.getQualifiedName());
-                }
+            int F = instanceFields.size();
+            int M = instanceMethods.size();
+            
+            // Sum over fields of the methods accessing each one, i.e. the set cells of the matrix
+            int sumMF = 0;
+            for (BitSet fields : fieldUsage) {
+                sumMF += fields.cardinality();
             }
+            
+            // Calculate LCOM-HS
+            double lcom = (M - (double) sumMF / F) / (M - 1);
+            
+            // Clamp to [0, 1] range
+            return Math.max(0.0, Math.min(1.0, lcom));
         }
         
-        // 5. Method invocation coupling (CRITICAL: calls to other classes)
-        List<CtInvocation<?>> invocations = type.getElements(new TypeFilter<>(CtInvocation.class));
-        for (CtInvocation<?> invocation : invocations) {
-            CtExecutableReference<?> executable = invocation.getExecutable();
-            if (executable != null && executable.getDeclaringType() != null) {
-                // Guard against null qualified name (anonymous/local classes)
-                String targetClass = executable.getDeclaringType().getQualifiedName();
-                if (targetClass != null && !isJdkClass(targetClass) && !targetClass.equals(type.getQualifiedName())) {
-                    coupledClasses.add(targetClass);
+        /**
+         * LCOM4 (Hitz-Montazeri): connected components of the graph whose nodes are the
+         * instance methods, linked when they access a common field or one calls the other.
+         * 
+         * @return Number of components (1 = cohesive, more = the class could be split, null if not applicable)
+         */
+        public Integer getLcom4() {
+            if (lcomFailure != null) {
+                throw lcomFailure;
+            }
+            if (callFailure != null) {
+                throw callFailure;
+            }
+            if (fieldUsage == null) {
+                return null;
+            }
+            int[] components = connectedMethods(true);
+            int count = 0;
+            for (int i = 0; i < components.length; i++) {
+                if (components[i] == i) {
+                    count++;
                 }
             }
+            return count;
         }
         
-        // 6. Constructor call coupling
-        List<CtConstructorCall<?>> constructorCalls = type.getElements(new TypeFilter<>(CtConstructorCall.class));
-        for (CtConstructorCall<?> call : constructorCalls) {
-            CtTypeReference<?> targetType = call.getType();
-            if (targetType != null) {
-                // Guard against null qualified name (anonymous/local classes)
-                String targetClass = targetType.getQualifiedName();
-                if (targetClass != null && !isJdkClass(targetClass) && !targetClass.equals(type.getQualifiedName())) {
-                    coupledClasses.add(targetClass);
+        /**
+         * TCC (Tight Class Cohesion, Bieman-Kang): share of method pairs that access a
+         * common field.
+         * 
+         * @return TCC value (0 = low cohesion, 1 = high cohesion, null if not applicable)
+         */
+        public Double getTcc() {
+            if (lcomFailure != null) {
+                throw lcomFailure;
+            }
+            if (fieldUsage == null) {
+                return null;
+            }
+            int M = instanceMethods.size();
+            long connectedPairs = 0;
+            for (int i = 0; i < M; i++) {
+                for (int j = i + 1; j < M; j++) {
+                    if (fieldUsage[i].intersects(fieldUsage[j])) {
+                        connectedPairs++;
+                    }
                 }
             }
+            return (double) connectedPairs / pairs(M);
         }
         
-        // Remove self-reference (in case of internal calls)
-        coupledClasses.remove(type.getQualifiedName());
-        
-        return coupledClasses.size();
-    }
-    
-    /**
-     * Calculate LCOM-HS (Lack of Cohesion in Methods - Henderson-Sellers version).
-     * LCOM-HS measures how related the methods of a class are based on field usage.
-     * 
-     * Formula: LCOM-HS = (M - sum(MF)/F) / (M - 1)
-     * Where:
-     * - M = number of methods
-     * - F = number of fields (instance variables)
-     * - MF = number of methods that access each field
-     * 
-     * @param type The type to analyze
-     * @return LCOM-HS value (0 = high cohesion, 1 = low cohesion, null if not applicable)
-     */
-    public static Double calculateLCOM(CtType<?> type) {
-        // Only calculate LCOM for classes (not interfaces or enums without methods)
-        if (!(type instanceof CtClass<?>)) {
-            return null;
+        /**
+         * LCC (Loose Class Cohesion, Bieman-Kang): share of method pairs connected directly
+         * or through other methods by accessed fields.
+         * 
+         * @return LCC value (0 = low cohesion, 1 = high cohesion, null if not applicable)
+         */
+        public Double getLcc() {
+            if (lcomFailure != null) {
+                throw lcomFailure;
+            }
+            if (fieldUsage == null) {
+                return null;
+            }
+            int[] components = connectedMethods(false);
+            int[] sizes = new int[components.length];
+            for (int component : components) {
+                sizes[component]++;
+            }
+            long connectedPairs = 0;
+            for (int size : sizes) {
+                connectedPairs += pairs(size);
+            }
+            return (double) connectedPairs / pairs(components.length);
         }
         
-        CtClass<?> ctClass = (CtClass<?>) type;
-        
-        // Get all instance fields (exclude static fields)
-        List<CtField<?>> instanceFields = ctClass.getFields().stream()
-            .filter(f -> !f.isStatic())
-            .collect(Collectors.toList());
-        
-        int F = instanceFields.size();
+        /**
+         * Component of each method, as the index of its representative method, linking the
+         * methods that access a common field and, optionally, those that call each other.
+         */
+        private int[] connectedMethods(boolean includeCalls) {
+            int M = instanceMethods.size();
+            int[] parent = new int[M];
+            for (int i = 0; i < M; i++) {
+                parent[i] = i;
+            }
+            // First method accessing each field; later ones are linked to it
+            int[] firstAccess = new int[instanceFields.size()];
+            Arrays.fill(firstAccess, -1);
+            for (int i = 0; i < M; i++) {
+                BitSet fields = fieldUsage[i];
+                for (int f = fields.nextSetBit(0); f >= 0; f = fields.nextSetBit(f + 1)) {
+                    if (firstAccess[f] < 0) {
+                        firstAccess[f] = i;
+                    } else {
+                        union(parent, firstAccess[f], i);
+                    }
+                }
+                if (includeCalls) {
+                    BitSet callees = calledMethods[i];
+                    for (int j = callees.nextSetBit(0); j >= 0; j = callees.nextSetBit(j + 1)) {
+                        union(parent, i, j);
+                    }
+                }
+            }
+            for (int i = 0; i < M; i++) {
+                parent[i] = find(parent, i);
+            }
+            return parent;
+        }
         
-        // Get all instance methods (exclude static methods, constructors, getters/setters)
-        List<CtMethod<?>> instanceMethods = ctClass.getMethods().stream()
-            .filter(m -> !m.isStatic())
-            .filter(m -> !isGetterOrSetter(m))
-            .collect(Collectors.toList());
+        private static int find(int[] parent, int i) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]];
+                i = parent[i];
+            }
+            return i;
+        }
         
-        int M = instanceMethods.size();
+        private static void union(int[] parent, int a, int b) {
+            int rootA = find(parent, a);
+            int rootB = find(parent, b);
+            // Lowest index as representative, so roots are stable
+            if (rootA < rootB) {
+                parent[rootB] = rootA;
+            } else if (rootB < rootA) {
+                parent[rootA] = rootB;
+            }
+        }
         
-        // Need at least 2 methods and 1 field to calculate LCOM
-        if (M < 2 || F < 1) {
-            return null;
+        private static long pairs(int n) {
+            return (long) n * (n - 1) / 2;
         }
         
-        // For each field, count how many methods access it
-        int sumMF = 0;
-        for (CtField<?> field : instanceFields) {
-            int methodsAccessingField = 0;
-            for (CtMethod<?> method : instanceMethods) {
-                if (methodAccessesField(method, field)) {
-                    methodsAccessingField++;
+        /**
+         * Select the instance fields and methods and allocate the method x field usage
+         * matrix; leaves it null when LCOM does not apply.
+         */
+        private void prepareLcom() {
+            // Only calculate LCOM for classes (not interfaces or enums without methods)
+            if (!(type instanceof CtClass<?>)) {
+                return;
+            }
+            
+            CtClass<?> ctClass = (CtClass<?>) type;
+            
+            // Get all instance fields (exclude static fields)
+            instanceFields = ctClass.getFields().stream()
+                .filter(f -> !f.isStatic())
+                .collect(Collectors.toList());
+            
+            // Get all instance methods (exclude static methods, constructors, getters/setters)
+            instanceMethods = ctClass.getMethods().stream()
+                .filter(m -> !m.isStatic())
+                .filter(m -> !isGetterOrSetter(m))
+                .collect(Collectors.toList());
+            
+            // Need at least 2 methods and 1 field to calculate LCOM
+            if (instanceMethods.size() < 2 || instanceFields.size() < 1) {
+                return;
+            }
+            
+            fieldIndex = new HashMap<>();
+            for (CtField<?> field : instanceFields) {
+                fieldIndex.putIfAbsent(field.getSimpleName(), fieldIndex.size());
+            }
+            
+            int M = instanceMethods.size();
+            fieldUsage = new BitSet[M];
+            calledMethods = new BitSet[M];
+            methodRows = new IdentityHashMap<>();
+            methodsBySignature = new HashMap<>();
+            for (int i = 0; i < M; i++) {
+                CtMethod<?> method = instanceMethods.get(i);
+                fieldUsage[i] = new BitSet(fieldIndex.size());
+                calledMethods[i] = new BitSet(M);
+                if (method.getBody() != null) {
+                    methodRows.put(method.getBody(), i);
                 }
+                methodsBySignature.putIfAbsent(method.getSignature(), i);
             }
-            sumMF += methodsAccessingField;
         }
         
-        // Calculate LCOM-HS
-        double lcom = (M - (double) sumMF / F) / (M - 1);
+        private void addInvocationCoupling(CtInvocation<?> invocation) {
+            if (cboFailure != null) {
+                return;
+            }
+            try {
+                CtExecutableReference<?> executable = invocation.getExecutable();
+                if (executable != null && executable.getDeclaringType() != null) {
+                    // Guard against null qualified name (anonymous/local classes)
+                    String targetClass = executable.getDeclaringType().getQualifiedName();
+                    if (targetClass != null && !isJdkClass(targetClass) && !targetClass.equals(type.getQualifiedName())) {
+                        calledClasses.add(targetClass);
+                    }
+                }
+            } catch (RuntimeException e) {
+                cboFailure = e;
+            }
+        }
         
-        // Clamp to [0, 1] range
-        return Math.max(0.0, Math.min(1.0, lcom));
-    }
-    
-    /**
-     * Check if a method accesses a field using AST analysis (not string matching).
-     * Detects both field reads and writes.
-     */
-    private static boolean methodAccessesField(CtMethod<?> method, CtField<?> field) {
-        if (method.getBody() == null) {
-            return false;
+        private void addConstructorCallCoupling(CtConstructorCall<?> call) {
+            if (cboFailure != null) {
+                return;
+            }
+            try {
+                CtTypeReference<?> targetType = call.getType();
+                if (targetType != null) {
+                    // Guard against null qualified name (anonymous/local classes)
+                    String targetClass = targetType.getQualifiedName();
+                    if (targetClass != null && !isJdkClass(targetClass) && !targetClass.equals(type.getQualifiedName())) {
+                        calledClasses.add(targetClass);
+                    }
+                }
+            } catch (RuntimeException e) {
+                cboFailure = e;
+            }
         }
         
-        String fieldName = field.getSimpleName();
+        private void enterBlock(CtBlock<?> block) {
+            if (currentBody == null) {
+                Integer row = methodRows.get(block);
+                if (row != null) {
+                    currentBody = block;
+                    currentRow = row;
+                }
+            }
+        }
         
-        // Look for field reads (CtFieldRead)
-        List<CtFieldRead<?>> fieldReads = method.getBody().getElements(new TypeFilter<>(CtFieldRead.class));
-        for (CtFieldRead<?> read : fieldReads) {
-            if (read.getVariable() != null && fieldName.equals(read.getVariable().getSimpleName())) {
-                return true;
+        private void exitBlock(CtBlock<?> block) {
+            if (block == currentBody) {
+                currentBody = null;
+                currentRow = -1;
             }
         }
         
-        // Look for field writes (CtFieldWrite)
-        List<CtFieldWrite<?>> fieldWrites = method.getBody().getElements(new TypeFilter<>(CtFieldWrite.class));
-        for (CtFieldWrite<?> write : fieldWrites) {
-            if (write.getVariable() != null && fieldName.equals(write.getVariable().getSimpleName())) {
-                return true;
+        private void addFieldAccess(CtFieldReference<?> variable) {
+            if (currentRow >= 0 && variable != null) {
+                Integer field = fieldIndex.get(variable.getSimpleName());
+                if (field != null) {
+                    fieldUsage[currentRow].set(field);
+                }
             }
         }
         
-        return false;
+        /**
+         * Record a call to another instance method of this object, for LCOM4.
+         */
+        private void addMethodCall(CtInvocation<?> invocation) {
+            if (currentRow < 0 || callFailure != null) {
+                return;
+            }
+            try {
+                CtExpression<?> target = invocation.getTarget();
+                if (target != null && !(target instanceof CtThisAccess)) {
+                    return;
+                }
+                CtExecutableReference<?> executable = invocation.getExecutable();
+                if (executable != null) {
+                    Integer callee = methodsBySignature.get(executable.getSignature());
+                    if (callee != null && callee != currentRow) {
+                        calledMethods[currentRow].set(callee);
+                    }
+                }
+            } catch (RuntimeException e) {
+                callFailure = e;
+            }
+        }
     }
     
     /**
@@ -0,0 +1,83 @@
+package com.extractor.analyzer;
+
+import spoon.reflect.CtModel;
+import spoon.reflect.declaration.CtType;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Collects the top-level types of one or more Spoon models.
+ * When several per-root models are merged, types are returned in the same order a single
+ * model over all roots would report them: compilation units sorted by file path, packages
+ * in first-seen order, and a pre-order walk of the package tree. Keeping that order makes
+ * order-sensitive outputs (endpoint lists, first-wins schemas) independent of the build mode.
+ */
+public class ModelTypeCollector {
+
+    public List<CtType<?>> collect(CtModel model) {
+        return new ArrayList<>(model.getAllTypes());
+    }
+
+    public List<CtType<?>> collect(List<CtModel> models) {
+        if (models.size() == 1) {
+            return collect(models.get(0));
+        }
+
+        List<CtType<?>> candidates = new ArrayList<>();
+        for (CtModel model : models) {
+            candidates.addAll(model.getAllTypes());
+        }
+        // Stable sort: types declared in the same file keep their declaration order
+        candidates.sort(Comparator.comparing(ModelTypeCollector::filePath));
+
+        PackageNode root = new PackageNode();
+        Set<String> seenTypes = new HashSet<>();
+        for (CtType<?> type : candidates) {
+            // Mirror ignoreDuplicateDeclarations: the first declaration wins
+            if (!seenTypes.add(type.getQualifiedName())) {
+                continue;
+            }
+            root.child(packageName(type)).types.add(type);
+        }
+
+        List<CtType<?>> types = new ArrayList<>();
+        root.collect(types);
+        return types;
+    }
+
+    private static String packageName(CtType<?> type) {
+        if (type.getPackage() == null || type.getPackage().isUnnamedPackage()) {
+            return "";
+        }
+        return type.getPackage().getQualifiedName();
+    }
+
+    private static String filePath(CtType<?> type) {
+        File file = type.getPosition() != null ? type.getPosition().getFile() : null;
+        return file != null ? file.getPath() : "";
+    }
+
+    private static class PackageNode {
+        private final Map<String, PackageNode> children = new LinkedHashMap<>();
+        private final List<CtType<?>> types = new ArrayList<>();
+
+        PackageNode child(String qualifiedName) {
+            PackageNode node = this;
+            if (qualifiedName.isEmpty()) {
+                return node;
+            }
+            for (String segment : qualifiedName.split("\\.")) {
+                node = node.children.computeIfAbsent(segment, k -> new PackageNode());
+            }
+            return node;
+        }
+
+        void collect(List<CtType<?>> out) {
+            out.addAll(types);
+            for (PackageNode child : children.values()) {
+                child.collect(out);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.extractor.analyzer;
 import com.extractor.model.ApiEndpoint;
 import com.extractor.model.ApiSchema;
 import com.extractor.model.DependencyGraph;
+import com.extractor.utils.TypeIndex;
 import spoon.reflect.declaration.*;
 import spoon.reflect.reference.CtTypeReference;
 
@@ -13,25 +14,44 @@ import spoon.reflect.reference.CtTypeReference;
 public class OpenApiExtractor {
 
     private final DependencyGraph.ApiContracts apiContracts;
+    private final TypeIndex typeIndex;
 
     public OpenApiExtractor(DependencyGraph.ApiContracts apiContracts) {
+        this(apiContracts, new TypeIndex());
+    }
+
+    /**
+     * @param typeIndex project types, used to resolve schemas without Spoon lookups, including
+     *                  those declared in another source root when models are built per root
+     */
+    public OpenApiExtractor(DependencyGraph.ApiContracts apiContracts, TypeIndex typeIndex) {
         this.apiContracts = apiContracts;
+        this.typeIndex = typeIndex;
     }
 
     public void extractFromType(CtType<?> type) {
+        extractFromType(type, apiContracts);
+    }
+
+    /**
+     * Extract the contracts of one type into the given container instead of the shared one.
+     * Schemas are resolved against that container only, so the result does not depend on
+     * the types extracted before; merging keeps the first schema registered under a name.
+     */
+    public void extractFromType(CtType<?> type, DependencyGraph.ApiContracts contracts) {
         // Spring REST Controllers
         if (hasAnnotation(type, "RestController") || hasAnnotation(type, "Controller")) {
-            extractRestEndpoints(type);
+            extractRestEndpoints(type, contracts);
         }
         // JAX-RS Resources
         else if (hasAnnotation(type, "Path")) {
-            extractJaxRsEndpoints(type);
+            extractJaxRsEndpoints(type, contracts);
         }
         // Message Listeners
-        extractListeners(type);
+        extractListeners(type, contracts);
     }
 
-    private void extractRestEndpoints(CtType<?> type) {
+    private void extractRestEndpoints(CtType<?> type, DependencyGraph.ApiContracts contracts) {
         String basePath = getRequestMappingValue(type);
 
         for (CtMethod<?> method : type.getMethods()) {
@@ -46,14 +66,14 @@ public class OpenApiExtractor {
                 endpoint.setMethod(getHttpMethod(mapping));
 
                 extractParameters(method, endpoint);
-                extractBodyAndResponse(method, endpoint);
+                extractBodyAndResponse(method, endpoint, contracts);
 
-                apiContracts.getEndpoints().add(endpoint);
+                contracts.getEndpoints().add(endpoint);
             }
         }
     }
 
-    private void extractJaxRsEndpoints(CtType<?> type) {
+    private void extractJaxRsEndpoints(CtType<?> type, DependencyGraph.ApiContracts contracts) {
         String basePath = getJaxRsPathValue(type);
 
         for (CtMethod<?> method : type.getMethods()) {
@@ -68,14 +88,14 @@ public class OpenApiExtractor {
                 endpoint.setMethod(httpMethod);
 
                 extractJaxRsParameters(method, endpoint);
-                extractBodyAndResponse(method, endpoint);
+                extractBodyAndResponse(method, endpoint, contracts);
 
-                apiContracts.getEndpoints().add(endpoint);
+                contracts.getEndpoints().add(endpoint);
             }
         }
     }
 
-    private void extractListeners(CtType<?> type) {
+    private void extractListeners(CtType<?> type, DependencyGraph.ApiContracts contracts) {
         for (CtMethod<?> method : type.getMethods()) {
             CtAnnotation<?> kafka = getAnnotation(method, "KafkaListener");
             CtAnnotation<?> rabbit = getAnnotation(method, "RabbitListener");
@@ -97,8 +117,8 @@ public class OpenApiExtractor {
                     endpoint.setPath(getAnnotationValue(jms, "destination"));
                 }
 
-                extractBodyAndResponse(method, endpoint);
-                apiContracts.getEndpoints().add(endpoint);
+                extractBodyAndResponse(method, endpoint, contracts);
+                contracts.getEndpoints().add(endpoint);
             }
         }
     }
@@ -119,12 +139,13 @@ public class OpenApiExtractor {
         }
     }
 
-    private void extractBodyAndResponse(CtMethod<?> method, ApiEndpoint endpoint) {
+    private void extractBodyAndResponse(CtMethod<?> method, ApiEndpoint endpoint,
+            DependencyGraph.ApiContracts contracts) {
         // Request Body
         for (CtParameter<?> param : method.getParameters()) {
             if (hasAnnotation(param, "RequestBody") || endpoint.getMethod().endsWith("_LISTEN")) {
                 endpoint.setRequestBodySchema(param.getType().getSimpleName());
-                registerSchema(param.getType());
+                registerSchema(param.getType(), contracts);
                 break;
             }
         }
@@ -136,26 +157,29 @@ public class OpenApiExtractor {
                 returnType = returnType.getActualTypeArguments().get(0);
             }
             endpoint.setResponseSchema(returnType.getSimpleName());
-            registerSchema(returnType);
+            registerSchema(returnType, contracts);
         }
     }
 
-    private void registerSchema(CtTypeReference<?> typeRef) {
+    private void registerSchema(CtTypeReference<?> typeRef, DependencyGraph.ApiContracts contracts) {
         if (typeRef == null || typeRef.isPrimitive() || typeRef.getQualifiedName().startsWith("java.lang"))
             return;
 
         String name = typeRef.getSimpleName();
-        if (apiContracts.getSchemas().containsKey(name))
+        if (contracts.getSchemas().containsKey(name))
             return;
 
         try {
-            CtType<?> type = typeRef.getTypeDeclaration();
+            CtType<?> type = typeIndex.getType(typeRef.getQualifiedName());
+            if (type == null) {
+                type = typeRef.getTypeDeclaration();
+            }
             if (type != null) {
                 ApiSchema schema = new ApiSchema(name);
                 for (CtField<?> field : type.getFields()) {
                     schema.addProperty(field.getSimpleName(), field.getType().getSimpleName());
                 }
-                apiContracts.getSchemas().put(name, schema);
+                contracts.getSchemas().put(name, schema);
             }
         } catch (Exception e) {
             // Ignore resolution errors in no-classpath mode
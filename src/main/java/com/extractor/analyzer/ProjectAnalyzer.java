@@ -2,26 +2,33 @@ package com.extractor.analyzer;
 
 import com.extractor.model.*;
 import com.extractor.constants.AnalysisConstants;
+import com.extractor.jfr.TypeAnalysisEvent;
 import com.extractor.utils.DependencyResolver;
 import com.extractor.utils.DatabaseDetector;
 import com.extractor.utils.SensitiveDataDetector;
 import com.extractor.utils.EJBDetector;
 import com.extractor.utils.SecretsDetector;
 import com.extractor.utils.MessagingDetector;
+import com.extractor.utils.ProjectInventory;
+import com.extractor.utils.TypeIndex;
+import com.extractor.utils.TypeScanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import spoon.Launcher;
 import spoon.reflect.CtModel;
 import spoon.reflect.declaration.*;
 import spoon.reflect.reference.CtExecutableReference;
 import spoon.reflect.reference.CtTypeReference;
-import spoon.reflect.visitor.filter.TypeFilter;
 import spoon.reflect.code.CtInvocation;
 import spoon.reflect.code.CtConstructorCall;
 
+import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * Main analyzer class that uses Spoon to analyze Java projects and extract
@@ -31,38 +38,61 @@ public class ProjectAnalyzer {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectAnalyzer.class);
 
+    // Methods whose call marks an edge as reflection-based
+    private static final Set<String> REFLECTION_METHODS = Set.of(
+            "getClass", "forName", "newInstance", "getMethod", "invoke");
+
     private DependencyResolver dependencyResolver;
     private DatabaseDetector databaseDetector;
+    private MessagingDetector messagingDetector;
     private SensitiveDataDetector sensitiveDataDetector;
     private SecretsDetector secretsDetector;
-    private boolean enableLombok;
+    private AnalyzerOptions options;
 
     // Refactored: Use specialized classes for state management
     private ComponentRegistry componentRegistry;
     private EdgeAccumulator edgeAccumulator;
     private SpoonLauncherFactory launcherFactory;
     private TableNameExtractor tableNameExtractor;
-    private ClassNameValidator classNameValidator;
+    private ClassNameClassifier classNameClassifier;
     private StaticCodeAnalyzer staticCodeAnalyzer;
     private OpenApiExtractor openApiExtractor;
+    private ModelTypeCollector modelTypeCollector;
+    // Kept between runs, so an in-memory cache survives until the next analysis
+    private AnalysisCache analysisCache;
+    // Measurements of the current run, disabled unless the options enable them
+    private AnalysisMetrics metrics = AnalysisMetrics.disabled();
+    // Parsed project types and their resolved supertypes and annotations
+    private final TypeIndex typeIndex = new TypeIndex();
+    // Qualified names of all project types, nested ones included, whether parsed in this run or not
+    private Set<String> declaredTypeNames = Collections.emptySet();
+    // Source roots and build files of the current run, from a single walk of the project tree
+    private ProjectInventory inventory;
 
     public ProjectAnalyzer() {
         this(false);
     }
 
     public ProjectAnalyzer(boolean enableLombok) {
-        this.enableLombok = enableLombok;
+        this(AnalyzerOptions.builder().enableLombok(enableLombok).build());
+    }
+
+    public ProjectAnalyzer(AnalyzerOptions options) {
+        this.options = options;
         this.dependencyResolver = new DependencyResolver();
         this.databaseDetector = new DatabaseDetector();
+        this.messagingDetector = new MessagingDetector();
         this.sensitiveDataDetector = new SensitiveDataDetector();
         this.secretsDetector = new SecretsDetector();
         this.componentRegistry = new ComponentRegistry();
         this.edgeAccumulator = new EdgeAccumulator(componentRegistry);
-        this.launcherFactory = new SpoonLauncherFactory(enableLombok);
+        this.launcherFactory = new SpoonLauncherFactory(options.isEnableLombok());
         this.tableNameExtractor = new TableNameExtractor();
-        this.classNameValidator = new ClassNameValidator(componentRegistry);
+        this.classNameClassifier = new ClassNameClassifier(componentRegistry);
         this.staticCodeAnalyzer = new StaticCodeAnalyzer();
-        this.openApiExtractor = new OpenApiExtractor(componentRegistry.getApiContracts());
+        this.openApiExtractor = new OpenApiExtractor(componentRegistry.getApiContracts(), typeIndex);
+        this.modelTypeCollector = new ModelTypeCollector();
+        this.analysisCache = options.isCacheEnabled() ? new AnalysisCache(options.getCacheDirectory()) : null;
     }
 
     /**
@@ -72,6 +102,13 @@ public class ProjectAnalyzer {
         return dependencyResolver;
     }
 
+    /**
+     * Source roots and build files found by the last analysis, or null before the first one.
+     */
+    public ProjectInventory getInventory() {
+        return inventory;
+    }
+
     /**
      * Analyzes a Java project and returns a dependency graph.
      */
@@ -80,46 +117,54 @@ public class ProjectAnalyzer {
 
         // Initialize components and edge data
         componentRegistry.clear();
+        classNameClassifier.clear();
+        databaseDetector.clear();
+        messagingDetector.clear();
         edgeAccumulator.clear();
+        metrics = options.isCollectMetrics() ? new AnalysisMetrics() : AnalysisMetrics.disabled();
 
-        // Load external dependencies from build files
-        dependencyResolver.loadDependencies(projectRoot);
+        // Find the source roots and build files in one walk of the project tree
+        AnalysisMetrics.Timer timer = metrics.start("scan_project");
+        inventory = ProjectInventory.scan(projectRoot, options.getExcludedDirectories());
+        timer.stop();
 
-        // Set up Spoon launcher using factory
-        Launcher launcher = launcherFactory.createLauncher(projectRoot);
-
-        // Build the model
-        CtModel model = launcher.buildModel();
-
-        // PASS 1: Analyze all types (classes, interfaces, enums)
-        analyzeTypes(model);
-        logger.info("Pass 1 completed: {} components found", componentRegistry.size());
-
-        // PASS 2: Analyze method invocations and build call graph
-        analyzeInvocations(model);
-        logger.info("Pass 2 completed: Call dependencies analyzed");
+        // Load external dependencies from build files
+        timer = metrics.start("load_build_files");
+        dependencyResolver.loadDependencies(inventory);
+        timer.stop();
 
-        // PASS 3: Analyze structural dependencies (repositories, injection, relations)
-        analyzeStructuralDependencies(model);
-        logger.info("Pass 3 completed: Structural dependencies analyzed");
+        // PASS 1 and 2: Register and analyze the project types, reusing cached results if enabled
+        List<TypeAnalysis> analyses = options.isCacheEnabled()
+                ? analyzeWithCache(inventory)
+                : analyzeAllTypes(inventory);
 
-        // PASS 3.5: Analyze interface implementations and Spring events
-        analyzeAdvancedDependencies(model);
-        logger.info("Pass 3.5 completed: Interface implementations and events analyzed");
+        // PASS 3: Link call, structural, interface implementation and Spring event dependencies
+        timer = metrics.start("pass_3_link_dependencies");
+        linkDependencies(analyses);
+        timer.stop();
+        logger.info("Pass 3 completed: Dependencies linked");
 
         // PASS 4: Convert EdgeData to final edges and update calls_in/out
+        timer = metrics.start("pass_4_finalize_edges");
         List<Edge> edges = edgeAccumulator.finalizeEdges();
+        timer.stop();
         logger.info("Pass 4 completed: {} edges finalized", edges.size());
 
         // Normalize all components
+        timer = metrics.start("normalize_components");
         componentRegistry.normalizeAll();
+        timer.stop();
 
         // Classify components into architectural layers
+        timer = metrics.start("layer_classification");
         componentRegistry.classifyAllLayers();
+        timer.stop();
 
         // PASS 5: Analyze and group package dependencies
+        timer = metrics.start("pass_5_package_grouping");
         PackageGroupAnalyzer packageAnalyzer = new PackageGroupAnalyzer(componentRegistry);
         packageAnalyzer.analyzePackageGroups();
+        timer.stop();
         logger.info("Pass 5 completed: Package dependencies grouped by domain");
 
         logger.info("Analysis completed. Found {} components and {} edges", componentRegistry.size(), edges.size());
@@ -129,144 +174,468 @@ public class ProjectAnalyzer {
 
         DependencyGraph graph = new DependencyGraph(sortedComponents, edges);
         graph.setApiContracts(componentRegistry.getApiContracts());
+        if (metrics.isEnabled()) {
+            metrics.count("components", sortedComponents.size());
+            metrics.count("edges", edges.size());
+            graph.getMeta().setMetrics(metrics);
+        }
         return graph;
     }
 
     /**
-     * Analyze all types in the model and create components.
+     * Parse the whole project, then register and analyze every type.
      */
-    private void analyzeTypes(CtModel model) {
-        logger.info("Analyzing types...");
+    private List<TypeAnalysis> analyzeAllTypes(ProjectInventory inventory) {
+        // Build the Spoon model(s) and collect the types to analyze
+        List<CtType<?>> allTypes = buildTypes(inventory);
+        declaredTypeNames = typeIndex.getQualifiedNames();
+
+        // PASS 1: Register a component for every project type (classes, interfaces, enums)
+        AnalysisMetrics.Timer timer = metrics.start("pass_1_register_components");
+        List<CtType<?>> componentTypes = registerComponents(allTypes);
+        timer.stop();
+        // Verdicts cached while registering may not account for every component
+        classNameClassifier.clear();
+        logger.info("Pass 1 completed: {} components found", componentRegistry.size());
 
-        // Get all types (classes, interfaces, enums)
-        List<CtType<?>> allTypes = model.getAllTypes().stream()
-                .filter(type -> !type.isAnonymous()) // Skip anonymous classes
-                .collect(Collectors.toList());
+        // PASS 2: Analyze each type in a single AST traversal (detectors, metrics, calls, structure)
+        timer = metrics.start("pass_2_analyze_types");
+        List<TypeAnalysis> analyses = analyzeTypes(componentTypes);
+        timer.stop();
+        metrics.count("types_analyzed", analyses.size());
+        logger.info("Pass 2 completed: {} types analyzed", analyses.size());
+        return analyses;
+    }
 
-        for (CtType<?> type : allTypes) {
-            String fullyQualifiedName = type.getQualifiedName();
+    /**
+     * Analyze the project reusing the results cached by the previous run for every type whose
+     * source, and whose dependencies' sources, did not change. The cache is rewritten before
+     * linking, so it never holds calls or layers computed from other types.
+     */
+    private List<TypeAnalysis> analyzeWithCache(ProjectInventory inventory) throws IOException {
+        AnalysisMetrics.Timer timer = metrics.start("cache_lookup");
+        List<String> sourcePaths = launcherFactory.findSourcePaths(inventory);
+        Map<String, String> fileHashes = analysisCache.hashSourceFiles(sourcePaths);
+        String environment = AnalysisCache.environmentKey(options, sourcePaths,
+                dependencyResolver.getAllDependencies());
+
+        AnalysisCache.Snapshot snapshot = analysisCache.load(environment);
+        AnalysisCache.Plan plan = snapshot != null ? snapshot.plan(fileHashes) : null;
+        timer.stop();
+
+        List<TypeAnalysis> analyses = null;
+        Map<String, List<String>> declaredTypesByFile = null;
+        if (plan != null) {
+            declaredTypesByFile = snapshot.getDeclaredTypesByFile();
+            analyses = analyzeChangedTypes(inventory, sourcePaths, snapshot, plan, fileHashes.size());
+        }
+        if (analyses == null) {
+            analyses = analyzeAllTypes(inventory);
+            declaredTypesByFile = declaredTypesByFile(typeIndex.getTypes());
+        }
 
-            // Skip if it's not part of the analyzed project (external library)
-            if (isExternalLibrary(fullyQualifiedName)) {
-                continue;
-            }
+        if (plan == null || !plan.isUpToDate()) {
+            timer = metrics.start("cache_save");
+            analysisCache.save(new AnalysisCache.Snapshot(environment, fileHashes, declaredTypesByFile, analyses));
+            timer.stop();
+        }
+        return analyses;
+    }
 
-            // Skip test classes - we only want production code
-            if (isTestType(type)) {
-                continue;
+    /**
+     * Analyze again the types affected by the changed files and reuse the cached analysis of
+     * every other type, in the cached analysis order. Returns null when a changed file no
+     * longer declares the same types, which requires analyzing the whole project.
+     */
+    private List<TypeAnalysis> analyzeChangedTypes(ProjectInventory inventory, List<String> sourcePaths,
+            AnalysisCache.Snapshot snapshot, AnalysisCache.Plan plan, int fileCount) {
+        Map<String, List<String>> cachedDeclaredTypes = snapshot.getDeclaredTypesByFile();
+        Set<String> affectedTypes = plan.getAffectedTypes();
+
+        if (plan.isUpToDate()) {
+            logger.info("No source file changed, reusing the cached analysis of {} types",
+                    snapshot.getAnalyses().size());
+        } else {
+            logger.info("{} of {} source files changed: analyzing {} types again, parsing {} files",
+                    plan.getChangedFiles().size(), fileCount, affectedTypes.size(), plan.getParseFiles().size());
+            List<CtType<?>> parsedTypes = plan.getParseFiles().size() == fileCount
+                    ? buildTypes(inventory)
+                    : buildTypes(new ArrayList<>(plan.getParseFiles()), sourcePaths);
+
+            // The set of types and components must be the one the cache was built with
+            Map<String, List<String>> parsedDeclaredTypes = declaredTypesByFile(typeIndex.getTypes());
+            for (String file : plan.getChangedFiles()) {
+                if (!new HashSet<>(parsedDeclaredTypes.getOrDefault(file, Collections.emptyList()))
+                        .equals(new HashSet<>(cachedDeclaredTypes.get(file)))) {
+                    logger.info("Declared types of {} changed, analyzing the whole project", file);
+                    return null;
+                }
             }
-
-            Component component = new Component(fullyQualifiedName);
-
-            // Set file path
-            if (type.getPosition().getFile() != null) {
-                component.addFile(type.getPosition().getFile().getPath());
+            Set<String> cachedComponents = new HashSet<>();
+            snapshot.getAnalyses().forEach(analysis -> cachedComponents.add(analysis.getClassName()));
+            for (CtType<?> type : parsedTypes) {
+                if (plan.getChangedFiles().contains(fileKey(type))
+                        && isComponentType(type) != cachedComponents.contains(type.getQualifiedName())) {
+                    logger.info("Component types of {} changed, analyzing the whole project", fileKey(type));
+                    return null;
+                }
             }
+        }
 
-            // Mark if this is an interface
-            component.setInterface(type instanceof spoon.reflect.declaration.CtInterface);
+        Set<String> allDeclaredTypes = new HashSet<>();
+        cachedDeclaredTypes.values().forEach(allDeclaredTypes::addAll);
+        declaredTypeNames = allDeclaredTypes;
+
+        // PASS 1: Register the cached components, and new ones for the types analyzed again
+        AnalysisMetrics.Timer timer = metrics.start("pass_1_register_components");
+        for (TypeAnalysis analysis : snapshot.getAnalyses()) {
+            String className = analysis.getClassName();
+            componentRegistry.registerComponent(affectedTypes.contains(className)
+                    ? new Component(className)
+                    : analysis.getComponent());
+        }
+        timer.stop();
+        // Verdicts cached while registering may not account for every component
+        classNameClassifier.clear();
+        logger.info("Pass 1 completed: {} components found", componentRegistry.size());
 
-            // Extract inheritance and interfaces
-            extractInheritance(type, component);
+        // PASS 2: Analyze the affected types in a single AST traversal
+        timer = metrics.start("pass_2_analyze_types");
+        List<CtType<?>> typesToAnalyze = new ArrayList<>();
+        for (TypeAnalysis cached : snapshot.getAnalyses()) {
+            if (affectedTypes.contains(cached.getClassName())) {
+                typesToAnalyze.add(typeIndex.getType(cached.getClassName()));
+            }
+        }
+        Iterator<TypeAnalysis> freshAnalyses = analyzeInOrder(typesToAnalyze).iterator();
+        List<TypeAnalysis> analyses = new ArrayList<>();
+        int totalInvocations = 0;
+        for (TypeAnalysis cached : snapshot.getAnalyses()) {
+            if (affectedTypes.contains(cached.getClassName())) {
+                TypeAnalysis analysis = freshAnalyses.next();
+                totalInvocations += analysis.getInvocationCount();
+                analyses.add(analysis);
+            } else {
+                analyses.add(cached);
+            }
+        }
+        timer.stop();
+        metrics.count("types_analyzed", affectedTypes.size());
+        metrics.count("types_reused", analyses.size() - affectedTypes.size());
+        metrics.count("method_invocations", totalInvocations);
+        logger.info("Analyzed {} types, {} method invocations", affectedTypes.size(), totalInvocations);
+        logger.info("Pass 2 completed: {} types analyzed, {} reused from cache", affectedTypes.size(),
+                analyses.size() - affectedTypes.size());
+        return analyses;
+    }
 
-            // Extract annotations (class-level and method-level)
-            extractAnnotations(type, component);
+    /**
+     * Build the Spoon model for the project and return its top-level types.
+     * In parallel mode each source root gets its own model; the per-root types are
+     * merged in single-model order and later passes link them by qualified name.
+     */
+    private List<CtType<?>> buildTypes(ProjectInventory inventory) {
+        AnalysisMetrics.Timer timer = metrics.start("model_build");
+        List<CtType<?>> allTypes;
+        if (options.isParallelModelBuild()) {
+            List<CtModel> models = launcherFactory.buildModels(inventory, options.getModelBuildParallelism());
+            allTypes = modelTypeCollector.collect(models);
+            logger.info("Merged {} models into {} types", models.size(), allTypes.size());
+        } else {
+            allTypes = modelTypeCollector.collect(
+                    launcherFactory.buildModel(launcherFactory.findSourcePaths(inventory)));
+        }
 
-            // Domain assignment removed - clustering algorithm will handle grouping
+        typeIndex.rebuild(allTypes);
+        timer.stop();
+        return allTypes;
+    }
 
-            // Count lines of code
-            component.setLoc(countLinesOfCode(type));
+    /**
+     * Build the Spoon model over some source files only. In parallel mode the files are
+     * grouped by source root, one model per root, as a full build would parse them.
+     */
+    private List<CtType<?>> buildTypes(List<String> sourceFiles, List<String> sourcePaths) {
+        AnalysisMetrics.Timer timer = metrics.start("model_build");
+        List<CtType<?>> allTypes;
+        if (options.isParallelModelBuild()) {
+            Map<String, List<String>> filesByRoot = new LinkedHashMap<>();
+            for (String sourcePath : sourcePaths) {
+                filesByRoot.put(AnalysisCache.fileKey(new File(sourcePath)) + File.separator, new ArrayList<>());
+            }
+            for (String sourceFile : sourceFiles) {
+                String root = filesByRoot.keySet().stream()
+                        .filter(sourceFile::startsWith)
+                        .findFirst()
+                        .orElse("");
+                filesByRoot.computeIfAbsent(root, k -> new ArrayList<>()).add(sourceFile);
+            }
+            filesByRoot.values().removeIf(List::isEmpty);
 
-            // Detect sensitive data
-            component.setSensitiveData(sensitiveDataDetector.hasSensitiveData(type));
+            List<CtModel> models = launcherFactory.buildModels(new ArrayList<>(filesByRoot.values()),
+                    options.getModelBuildParallelism());
+            allTypes = modelTypeCollector.collect(models);
+        } else {
+            allTypes = modelTypeCollector.collect(launcherFactory.buildModel(sourceFiles));
+        }
 
-            // Detect database usage
-            List<String> tables = databaseDetector.findTablesUsed(type);
-            component.getTablesUsed().addAll(tables);
+        typeIndex.rebuild(allTypes);
+        timer.stop();
+        return allTypes;
+    }
 
-            // Detect EJB components
-            EJBDetector.EJBInfo ejbInfo = EJBDetector.detectEJB(type);
-            if (ejbInfo != null) {
-                component.setEjbType(ejbInfo.getType());
-                component.setUsesJNDI(ejbInfo.usesJNDI());
-                logger.debug("Detected EJB: {} of type {}", fullyQualifiedName, ejbInfo.getType());
+    /**
+     * Group the given types by the cache key of their source file.
+     */
+    private Map<String, List<String>> declaredTypesByFile(Collection<CtType<?>> types) {
+        Map<String, List<String>> declaredTypes = new HashMap<>();
+        for (CtType<?> type : types) {
+            String file = fileKey(type);
+            if (file != null) {
+                declaredTypes.computeIfAbsent(file, k -> new ArrayList<>()).add(type.getQualifiedName());
             }
+        }
+        return declaredTypes;
+    }
+
+    private String fileKey(CtType<?> type) {
+        if (type.getPosition() == null || type.getPosition().getFile() == null) {
+            return null;
+        }
+        return AnalysisCache.fileKey(type.getPosition().getFile());
+    }
 
-            // Detect secrets/properties references (patterns only, no values)
-            List<String> secretsRefs = secretsDetector.detectSecretReferences(type);
-            component.setSecretsReferences(secretsRefs);
+    /**
+     * Register a component for every type that belongs to the analyzed project.
+     * All components exist before any type is analyzed, so every check against the
+     * registry sees the complete project regardless of type order.
+     */
+    private List<CtType<?>> registerComponents(List<CtType<?>> modelTypes) {
+        List<CtType<?>> componentTypes = new ArrayList<>();
 
-            // Detect messaging systems (JMS, Kafka, RabbitMQ, etc.)
-            MessagingDetector.MessagingInfo messagingInfo = MessagingDetector.detectMessaging(type);
-            if (messagingInfo.getMessagingType() != null) {
-                component.setMessagingType(messagingInfo.getMessagingType());
-                component.setMessagingRole(messagingInfo.getMessagingRole());
-                logger.debug("Detected messaging: {} uses {} as {}",
-                        fullyQualifiedName, messagingInfo.getMessagingType(), messagingInfo.getMessagingRole());
+        for (CtType<?> type : modelTypes) {
+            if (isComponentType(type)) {
+                componentRegistry.registerComponent(new Component(type.getQualifiedName()));
+                componentTypes.add(type);
             }
+        }
 
-            // Find external dependencies
-            findExternalDependencies(type, component);
+        return componentTypes;
+    }
 
-            // Calculate code quality metrics (CBO and LCOM)
-            calculateMetrics(type, component);
+    private boolean isComponentType(CtType<?> type) {
+        // Skip anonymous classes
+        if (type.isAnonymous()) {
+            return false;
+        }
 
-            // Perform static code analysis for patterns
-            staticCodeAnalyzer.analyzeType(type, component);
-            // Extract API contracts
-            openApiExtractor.extractFromType(type);
+        // Skip if it's not part of the analyzed project (external library)
+        if (classNameClassifier.isExternalLibrary(type.getQualifiedName())) {
+            return false;
+        }
 
-            componentRegistry.registerComponent(component);
+        // Skip test classes - we only want production code
+        return !isTestType(type);
+    }
 
-            logger.debug("Analyzed type: {} (LOC: {}, Tables: {}, Sensitive: {})",
-                    fullyQualifiedName, component.getLoc(), tables.size(), component.isSensitiveData());
+    /**
+     * Analyze every registered type and fill its component.
+     */
+    private List<TypeAnalysis> analyzeTypes(List<CtType<?>> componentTypes) {
+        logger.info("Analyzing types...");
+
+        List<TypeAnalysis> analyses = analyzeInOrder(componentTypes);
+        int totalInvocations = 0;
+        for (TypeAnalysis analysis : analyses) {
+            totalInvocations += analysis.getInvocationCount();
         }
 
-        logger.info("Analyzed {} types", allTypes.size());
+        metrics.count("method_invocations", totalInvocations);
+        logger.info("Analyzed {} types, {} method invocations", analyses.size(), totalInvocations);
+        return analyses;
     }
 
     /**
-     * Analyze method invocations to build the call graph.
+     * Analyze the given types, one after the other or on a ForkJoin pool. A type's analysis
+     * only writes to its own component and {@link TypeAnalysis}; shared state (edges, API
+     * contracts) is filled afterwards by linking the results in the order returned here,
+     * which is the order of the given types in both modes.
      */
-    private void analyzeInvocations(CtModel model) {
-        logger.info("Analyzing method invocations...");
+    private List<TypeAnalysis> analyzeInOrder(List<CtType<?>> types) {
+        List<TypeAnalysis> analyses = new ArrayList<>();
+        if (!options.isParallelAnalysis() || types.size() < 2) {
+            for (CtType<?> type : types) {
+                analyses.add(measureType(type));
+            }
+            return analyses;
+        }
 
-        int totalInvocations = 0;
+        List<Callable<TypeAnalysis>> tasks = new ArrayList<>();
+        for (CtType<?> type : types) {
+            tasks.add(() -> measureType(type));
+        }
 
-        for (CtType<?> type : model.getAllTypes()) {
-            if (type.isAnonymous() || isExternalLibrary(type.getQualifiedName()) || isTestType(type)) {
-                continue;
+        int parallelism = Math.min(options.getAnalysisParallelism(), types.size());
+        logger.info("Analyzing {} types with {} worker(s)", types.size(), parallelism);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<TypeAnalysis> future : pool.invokeAll(tasks)) {
+                analyses.add(future.get());
+            }
+            return analyses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while analyzing types", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
             }
+            throw new IllegalStateException("Failed to analyze type", cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
 
-            String fromClass = type.getQualifiedName();
-            Component fromComponent = componentRegistry.getComponent(fromClass);
-            if (fromComponent == null)
-                continue;
+    /**
+     * Analyze one type into its registered component, recording its time when metrics are
+     * enabled and as a JFR event when it takes longer than the event threshold.
+     */
+    private TypeAnalysis measureType(CtType<?> type) {
+        Component component = componentRegistry.getComponent(type.getQualifiedName());
+        long allocatedBytes = metrics.isEnabled() ? AnalysisMetrics.threadAllocatedBytes() : -1;
+        long start = System.nanoTime();
+        TypeAnalysisEvent event = new TypeAnalysisEvent();
+        event.begin();
+
+        TypeAnalysis analysis = analyzeType(type, component);
+
+        event.end();
+        if (metrics.isEnabled()) {
+            metrics.recordType(analysis.getClassName(), System.nanoTime() - start,
+                    allocatedBytes < 0 ? -1 : AnalysisMetrics.threadAllocatedBytes() - allocatedBytes);
+        }
+        if (event.shouldCommit()) {
+            event.qualifiedName = analysis.getClassName();
+            event.invocationCount = analysis.getInvocationCount();
+            event.commit();
+        }
+        return analysis;
+    }
+
+    /**
+     * Analyze one type. Every detector that needs the type's AST registers on a shared
+     * {@link TypeScanner}, so the AST is traversed once; the remaining checks only read
+     * declarations.
+     */
+    private TypeAnalysis analyzeType(CtType<?> type, Component component) {
+        String fullyQualifiedName = type.getQualifiedName();
+        TypeAnalysis analysis = new TypeAnalysis(fullyQualifiedName, component);
+
+        TypeScanner scanner = new TypeScanner();
+        scanner.collectReferencedTypes();
+        TypeIndex.IndexedType indexedType = typeIndex.get(type);
+        DatabaseDetector.TableScan tableScan = databaseDetector.register(type, indexedType, scanner);
+        SensitiveDataDetector.SensitiveScan sensitiveScan = sensitiveDataDetector.register(type, indexedType, scanner);
+        EJBDetector.EJBScan ejbScan = EJBDetector.register(type, indexedType, scanner);
+        SecretsDetector.SecretsScan secretsScan = secretsDetector.register(type, scanner);
+        MetricsCalculator.MetricsScan metricsScan = MetricsCalculator.register(type, indexedType, scanner);
+        staticCodeAnalyzer.register(type, component, scanner);
+
+        // Call graph: constructor calls are kept after method invocations, as before
+        List<TypeAnalysis.Dependency> constructorCallDependencies = new ArrayList<>();
+        List<CtConstructor<?>> constructors = new ArrayList<>();
+        scanner.onEnter(CtInvocation.class, invocation -> {
+            processInvocation(fullyQualifiedName, invocation, analysis);
+            collectPublishedEvent(invocation, analysis);
+        });
+        scanner.onEnter(CtConstructorCall.class, constructorCall -> {
+            processConstructorCall(fullyQualifiedName, constructorCall, constructorCallDependencies);
+            analysis.countInvocation();
+        });
+        scanner.onEnter(CtConstructor.class, constructors::add);
 
-            // Find all method invocations in this type
-            List<CtInvocation<?>> invocations = type.getElements(new TypeFilter<>(CtInvocation.class));
+        scanner.scan(type);
+        analysis.getDependencies().addAll(constructorCallDependencies);
 
-            for (CtInvocation<?> invocation : invocations) {
-                processInvocation(fromClass, fromComponent, invocation);
-                totalInvocations++;
-            }
+        // Set file path
+        if (type.getPosition().getFile() != null) {
+            component.addFile(type.getPosition().getFile().getPath());
+        }
 
-            // Find constructor invocations
-            List<CtConstructorCall<?>> constructorCalls = type.getElements(new TypeFilter<>(CtConstructorCall.class));
+        // Mark if this is an interface
+        component.setInterface(type instanceof spoon.reflect.declaration.CtInterface);
+
+        // Extract inheritance and interfaces
+        extractInheritance(indexedType, component);
+
+        // Extract annotations (class-level and method-level)
+        extractAnnotations(type, indexedType, component);
+
+        // Count lines of code
+        component.setLoc(countLinesOfCode(type));
+
+        // Detect sensitive data
+        component.setSensitiveData(sensitiveScan.hasSensitiveData());
+
+        // Detect database usage
+        List<String> tables = tableScan.getTables();
+        component.getTablesUsed().addAll(tables);
+
+        // Detect EJB components
+        EJBDetector.EJBInfo ejbInfo = ejbScan.getInfo();
+        if (ejbInfo != null) {
+            component.setEjbType(ejbInfo.getType());
+            component.setUsesJNDI(ejbInfo.usesJNDI());
+            logger.debug("Detected EJB: {} of type {}", fullyQualifiedName, ejbInfo.getType());
+        }
 
-            for (CtConstructorCall<?> constructorCall : constructorCalls) {
-                processConstructorCall(fromClass, fromComponent, constructorCall);
-                totalInvocations++;
+        // Detect secrets/properties references (patterns only, no values)
+        component.setSecretsReferences(secretsScan.getReferences());
+
+        // Detect messaging systems (JMS, Kafka, RabbitMQ, etc.)
+        MessagingDetector.MessagingInfo messagingInfo = messagingDetector.detectMessaging(type,
+                indexedType, scanner.getReferencedTypes());
+        if (messagingInfo.getMessagingType() != null) {
+            component.setMessagingType(messagingInfo.getMessagingType());
+            component.setMessagingRole(messagingInfo.getMessagingRole());
+            logger.debug("Detected messaging: {} uses {} as {}",
+                    fullyQualifiedName, messagingInfo.getMessagingType(), messagingInfo.getMessagingRole());
+        }
+
+        // Find external dependencies
+        findExternalDependencies(scanner.getReferencedTypes(), component);
+
+        // Referenced project types, to find the dependents of a changed file
+        for (CtTypeReference<?> typeRef : scanner.getReferencedTypes()) {
+            if (declaredTypeNames.contains(typeRef.getQualifiedName())) {
+                analysis.getReferencedTypes().add(typeRef.getQualifiedName());
             }
         }
 
-        logger.info("Processed {} method invocations", totalInvocations);
+        // Calculate code quality metrics (CBO and LCOM)
+        calculateMetrics(type, component, metricsScan);
+
+        // Extract API contracts
+        openApiExtractor.extractFromType(type, analysis.getApiContracts());
+
+        // Structural dependencies (repositories, injection, relations)
+        analyzeStructuralDependencies(type, indexedType, constructors, analysis);
+
+        // Inputs for interface implementation and Spring event linking
+        collectLinkingFacts(type, indexedType, constructors, analysis);
+
+        logger.debug("Analyzed type: {} (LOC: {}, Tables: {}, Sensitive: {})",
+                fullyQualifiedName, component.getLoc(), tables.size(), component.isSensitiveData());
+        return analysis;
     }
 
     /**
-     * Process a method invocation and create appropriate edges.
+     * Process a method invocation and record the call dependency.
      */
-    private void processInvocation(String fromClass, Component fromComponent, CtInvocation<?> invocation) {
+    private void processInvocation(String fromClass, CtInvocation<?> invocation, TypeAnalysis analysis) {
+        analysis.countInvocation();
+
         CtExecutableReference<?> executable = invocation.getExecutable();
         if (executable == null)
             return;
@@ -277,56 +646,56 @@ public class ProjectAnalyzer {
 
         String toClass = declaringType.getQualifiedName();
 
-        if (!classNameValidator.isValidTargetClass(toClass, fromClass))
+        if (!classNameClassifier.isValidTargetClass(toClass, fromClass))
             return;
 
-        String edgeType = determineEdgeType(invocation, toClass);
+        String edgeType = determineEdgeType(toClass, executable.getSimpleName());
 
-        // Add to edge accumulator
-        edgeAccumulator.addDependency(fromClass, toClass, edgeType, AnalysisConstants.CALL_DEPENDENCY_WEIGHT);
+        analysis.addDependency(toClass, edgeType, AnalysisConstants.CALL_DEPENDENCY_WEIGHT);
     }
 
     /**
-     * Process a constructor call and create appropriate edges.
+     * Process a constructor call and record the call dependency.
      */
-    private void processConstructorCall(String fromClass, Component fromComponent,
-            CtConstructorCall<?> constructorCall) {
+    private void processConstructorCall(String fromClass, CtConstructorCall<?> constructorCall,
+            List<TypeAnalysis.Dependency> dependencies) {
         CtTypeReference<?> type = constructorCall.getType();
         if (type == null)
             return;
 
         String toClass = type.getQualifiedName();
-        if (!classNameValidator.isValidTargetClass(toClass, fromClass))
+        if (!classNameClassifier.isValidTargetClass(toClass, fromClass))
             return;
 
-        String edgeType = determineEdgeType(constructorCall, toClass);
+        CtExecutableReference<?> constructor = constructorCall.getExecutable();
+        String edgeType = determineEdgeType(toClass, constructor != null ? constructor.getSimpleName() : null);
 
-        // Add to edge accumulator
-        edgeAccumulator.addDependency(fromClass, toClass, edgeType, AnalysisConstants.CALL_DEPENDENCY_WEIGHT);
+        dependencies.add(new TypeAnalysis.Dependency(toClass, edgeType, AnalysisConstants.CALL_DEPENDENCY_WEIGHT));
     }
 
     /**
-     * Determine the type of edge based on the invocation and target class.
+     * Determine the type of edge from the target class and the simple name of the
+     * called executable, without printing the call.
      */
-    private String determineEdgeType(Object invocation, String toClass) {
+    private String determineEdgeType(String toClass, String methodName) {
         // Check if it's a database-related call
-        if (databaseDetector.isDatabaseCall(toClass, invocation.toString())) {
+        if (databaseDetector.isDatabaseCall(toClass, methodName)) {
             return "db";
         }
 
         // Check for reflection-based calls
-        if (isReflectionCall(invocation.toString())) {
+        if (isReflectionCall(toClass, methodName)) {
             return "reflection";
         }
 
         // Check if it's an external library call (prioritize external over internal
         // calls)
-        if (isRealExternalLibrary(toClass)) {
+        if (classNameClassifier.isRealExternalLibrary(toClass)) {
             return "external";
         }
 
         // Check if it's a JDK class call (also external but not third-party library)
-        if (isJdkClass(toClass)) {
+        if (classNameClassifier.isJdkClass(toClass)) {
             return "external";
         }
 
@@ -334,40 +703,35 @@ public class ProjectAnalyzer {
     }
 
     /**
-     * PASS 3: Analyze structural dependencies (repositories, injection, relations).
+     * Analyze structural dependencies (repositories, injection, relations).
      */
-    private void analyzeStructuralDependencies(CtModel model) {
-        logger.info("Analyzing structural dependencies...");
+    private void analyzeStructuralDependencies(CtType<?> type, TypeIndex.IndexedType indexedType,
+            List<CtConstructor<?>> constructors, TypeAnalysis analysis) {
+        String fromClass = analysis.getClassName();
 
-        for (CtType<?> type : model.getAllTypes()) {
-            if (type.isAnonymous() || isExternalLibrary(type.getQualifiedName()) || isTestType(type)) {
-                continue;
-            }
+        // (A) Analyze Spring Data Repositories (Repo -> Entity)
+        analyzeRepositoryDependencies(type, indexedType, analysis);
 
-            String fromClass = type.getQualifiedName();
-            if (!componentRegistry.hasComponent(fromClass))
-                continue;
+        // (B) Analyze Field Dependencies (Injection & JPA Relations)
+        analyzeFieldDependencies(type, fromClass, analysis);
 
-            // (A) Analyze Spring Data Repositories (Repo -> Entity)
-            analyzeRepositoryDependencies(type, fromClass);
+        // (C) Analyze Constructor Dependencies (Injection)
+        analyzeConstructorDependencies(constructors, fromClass, analysis);
 
-            // (B) Analyze Field Dependencies (Injection & JPA Relations)
-            analyzeFieldDependencies(type, fromClass);
-
-            // (C) Analyze Constructor Dependencies (Injection)
-            analyzeConstructorDependencies(type, fromClass);
-
-            // (D) Analyze Method Signature Dependencies (Parameters and Return Types)
-            analyzeMethodSignatureDependencies(type, fromClass);
-        }
+        // (D) Analyze Method Signature Dependencies (Parameters and Return Types)
+        analyzeMethodSignatureDependencies(type, fromClass, analysis);
     }
 
     /**
      * Analyze Spring Data Repository dependencies.
      */
-    private void analyzeRepositoryDependencies(CtType<?> type, String fromClass) {
+    private void analyzeRepositoryDependencies(CtType<?> type, TypeIndex.IndexedType indexedType,
+            TypeAnalysis analysis) {
         if (!(type instanceof CtInterface))
             return;
+        // Only repositories need their super-interface references, for the entity type argument
+        if (indexedType.getInterfaces().stream().noneMatch(AnalysisConstants.SPRING_REPO_INTERFACES::contains))
+            return;
 
         CtInterface<?> interfaceType = (CtInterface<?>) type;
         for (CtTypeReference<?> superInterface : interfaceType.getSuperInterfaces()) {
@@ -379,7 +743,7 @@ public class ProjectAnalyzer {
                     String toClass = entityType.getQualifiedName();
 
                     if (toClass != null && componentRegistry.hasComponent(toClass)) {
-                        edgeAccumulator.addDependency(fromClass, toClass, AnalysisConstants.REPOSITORY_TYPE,
+                        analysis.addDependency(toClass, AnalysisConstants.REPOSITORY_TYPE,
                                 AnalysisConstants.REPOSITORY_DEPENDENCY_WEIGHT);
                     }
                 }
@@ -390,7 +754,7 @@ public class ProjectAnalyzer {
     /**
      * Analyze field dependencies (injection and JPA relations).
      */
-    private void analyzeFieldDependencies(CtType<?> type, String fromClass) {
+    private void analyzeFieldDependencies(CtType<?> type, String fromClass, TypeAnalysis analysis) {
         for (CtField<?> field : type.getFields()) {
             CtTypeReference<?> fieldType = field.getType();
             if (fieldType == null)
@@ -417,8 +781,7 @@ public class ProjectAnalyzer {
             if (hasInjectionAnnotation || hasJpaRelationAnnotation) {
                 String dependencyType = hasInjectionAnnotation ? AnalysisConstants.INJECTION_FIELD_TYPE
                         : AnalysisConstants.RELATION_TYPE;
-                edgeAccumulator.addDependency(fromClass, toClass, dependencyType,
-                        AnalysisConstants.INJECTION_DEPENDENCY_WEIGHT);
+                analysis.addDependency(toClass, dependencyType, AnalysisConstants.INJECTION_DEPENDENCY_WEIGHT);
             }
         }
     }
@@ -426,8 +789,9 @@ public class ProjectAnalyzer {
     /**
      * Analyze constructor dependencies (injection).
      */
-    private void analyzeConstructorDependencies(CtType<?> type, String fromClass) {
-        for (CtConstructor<?> constructor : type.getElements(new TypeFilter<>(CtConstructor.class))) {
+    private void analyzeConstructorDependencies(List<CtConstructor<?>> constructors, String fromClass,
+            TypeAnalysis analysis) {
+        for (CtConstructor<?> constructor : constructors) {
             for (CtParameter<?> param : constructor.getParameters()) {
                 CtTypeReference<?> paramType = param.getType();
                 if (paramType == null)
@@ -438,7 +802,7 @@ public class ProjectAnalyzer {
                 if (toClass == null || !componentRegistry.hasComponent(toClass) || fromClass.equals(toClass))
                     continue;
 
-                edgeAccumulator.addDependency(fromClass, toClass, AnalysisConstants.INJECTION_CONSTRUCTOR_TYPE,
+                analysis.addDependency(toClass, AnalysisConstants.INJECTION_CONSTRUCTOR_TYPE,
                         AnalysisConstants.INJECTION_DEPENDENCY_WEIGHT);
             }
         }
@@ -450,16 +814,16 @@ public class ProjectAnalyzer {
      * important
      * for clustering related components together.
      */
-    private void analyzeMethodSignatureDependencies(CtType<?> type, String fromClass) {
+    private void analyzeMethodSignatureDependencies(CtType<?> type, String fromClass, TypeAnalysis analysis) {
         Set<String> processedTypes = new HashSet<>();
 
         for (CtMethod<?> method : type.getMethods()) {
             if (method.getType() != null) {
                 String returnType = method.getType().getQualifiedName();
                 if (returnType != null && componentRegistry.hasComponent(returnType) &&
-                        !fromClass.equals(returnType) && !isJdkClass(returnType) &&
+                        !fromClass.equals(returnType) && !classNameClassifier.isJdkClass(returnType) &&
                         processedTypes.add(returnType)) {
-                    edgeAccumulator.addDependency(fromClass, returnType, "uses", 1);
+                    analysis.addDependency(returnType, "uses", 1);
                 }
             }
 
@@ -470,9 +834,9 @@ public class ProjectAnalyzer {
 
                 String toClass = paramType.getQualifiedName();
                 if (toClass != null && componentRegistry.hasComponent(toClass) &&
-                        !fromClass.equals(toClass) && !isJdkClass(toClass) &&
+                        !fromClass.equals(toClass) && !classNameClassifier.isJdkClass(toClass) &&
                         processedTypes.add(toClass)) {
-                    edgeAccumulator.addDependency(fromClass, toClass, "uses", 1);
+                    analysis.addDependency(toClass, "uses", 1);
                 }
             }
         }
@@ -484,99 +848,131 @@ public class ProjectAnalyzer {
 
             String toClass = fieldType.getQualifiedName();
             if (toClass != null && componentRegistry.hasComponent(toClass) &&
-                    !fromClass.equals(toClass) && !isJdkClass(toClass) &&
+                    !fromClass.equals(toClass) && !classNameClassifier.isJdkClass(toClass) &&
                     processedTypes.add(toClass)) {
-                edgeAccumulator.addDependency(fromClass, toClass, "uses", 1);
+                analysis.addDependency(toClass, "uses", 1);
             }
         }
     }
 
     /**
-     * PASS 3.5: Analyze advanced dependencies - interface implementations and
-     * Spring events.
+     * Collect the declarations that interface implementation and Spring event linking need.
      */
-    private void analyzeAdvancedDependencies(CtModel model) {
-        logger.info("Analyzing interface implementations and Spring events...");
+    private void collectLinkingFacts(CtType<?> type, TypeIndex.IndexedType indexedType,
+            List<CtConstructor<?>> constructors, TypeAnalysis analysis) {
+        // Implemented interfaces
+        if (type instanceof CtClass) {
+            analysis.getImplementedInterfaces().addAll(indexedType.getInterfaces());
+        }
 
-        // Analyze interface implementations
-        analyzeInterfaceImplementations(model);
+        // Field types
+        for (CtField<?> field : type.getFields()) {
+            CtTypeReference<?> fieldType = field.getType();
+            if (fieldType != null && fieldType.getQualifiedName() != null) {
+                analysis.getFieldTypes().add(fieldType.getQualifiedName());
+            }
+        }
 
-        // Analyze Spring events
-        analyzeSpringEvents(model);
+        // Constructor parameter types
+        for (CtConstructor<?> constructor : constructors) {
+            for (CtParameter<?> param : constructor.getParameters()) {
+                CtTypeReference<?> paramType = param.getType();
+                if (paramType != null && paramType.getQualifiedName() != null) {
+                    analysis.getConstructorParameterTypes().add(paramType.getQualifiedName());
+                }
+            }
+        }
+
+        // Find @EventListener methods
+        for (CtMethod<?> method : type.getMethods()) {
+            boolean hasEventListener = method.getAnnotations().stream()
+                    .anyMatch(ann -> {
+                        String annType = ann.getAnnotationType().getQualifiedName();
+                        return "org.springframework.context.event.EventListener".equals(annType);
+                    });
+
+            if (hasEventListener && !method.getParameters().isEmpty()) {
+                CtParameter<?> param = method.getParameters().get(0);
+                String eventType = param.getType().getQualifiedName();
+                if (eventType != null) {
+                    analysis.getListenedEvents().add(eventType);
+                }
+            }
+        }
     }
 
     /**
-     * Analyze interface implementations to connect interfaces with their concrete
-     * classes.
+     * Record the event type of an ApplicationEventPublisher.publishEvent call.
      */
-    private void analyzeInterfaceImplementations(CtModel model) {
-        Map<String, List<String>> interfaceToImplementations = new HashMap<>();
-
-        // First pass: collect all implementations
-        for (CtType<?> type : model.getAllTypes()) {
-            if (type.isAnonymous() || isExternalLibrary(type.getQualifiedName()) || isTestType(type)) {
-                continue;
+    private void collectPublishedEvent(CtInvocation<?> invocation, TypeAnalysis analysis) {
+        if (invocation.getExecutable() != null &&
+                "publishEvent".equals(invocation.getExecutable().getSimpleName()) &&
+                !invocation.getArguments().isEmpty()) {
+            // Try to extract event type from the method call
+            String eventType = extractEventType(invocation);
+            if (eventType != null) {
+                analysis.getPublishedEvents().add(eventType);
             }
+        }
+    }
 
-            if (type instanceof CtClass) {
-                CtClass<?> clazz = (CtClass<?>) type;
-                String className = clazz.getQualifiedName();
-
-                // Check implemented interfaces
-                for (CtTypeReference<?> interfaceRef : clazz.getSuperInterfaces()) {
-                    String interfaceName = interfaceRef.getQualifiedName();
-                    if (interfaceName != null && componentRegistry.hasComponent(interfaceName)) {
-                        interfaceToImplementations.computeIfAbsent(interfaceName, k -> new ArrayList<>())
-                                .add(className);
-                    }
-                }
+    /**
+     * Add the dependencies found while analyzing each type to the edge accumulator,
+     * then connect interface usages and Spring events across types.
+     */
+    private void linkDependencies(List<TypeAnalysis> analyses) {
+        logger.info("Linking dependencies...");
+
+        DependencyGraph.ApiContracts apiContracts = componentRegistry.getApiContracts();
+        for (TypeAnalysis analysis : analyses) {
+            for (TypeAnalysis.Dependency dependency : analysis.getDependencies()) {
+                edgeAccumulator.addDependency(analysis.getClassName(), dependency.getToClass(),
+                        dependency.getEdgeType(), dependency.getWeight());
             }
+
+            // API contracts, keeping the first schema registered under each name
+            apiContracts.getEndpoints().addAll(analysis.getApiContracts().getEndpoints());
+            analysis.getApiContracts().getSchemas().forEach(apiContracts.getSchemas()::putIfAbsent);
         }
 
-        // Second pass: create edges between interface usages and implementations
-        for (CtType<?> type : model.getAllTypes()) {
-            if (type.isAnonymous() || isExternalLibrary(type.getQualifiedName()) || isTestType(type)) {
-                continue;
-            }
+        // Analyze interface implementations
+        linkInterfaceImplementations(analyses);
 
-            String fromClass = type.getQualifiedName();
-            if (!componentRegistry.hasComponent(fromClass))
-                continue;
+        // Analyze Spring events
+        linkSpringEvents(analyses);
+    }
 
-            // Check field types that are interfaces
-            for (CtField<?> field : type.getFields()) {
-                CtTypeReference<?> fieldType = field.getType();
-                if (fieldType == null)
-                    continue;
+    /**
+     * Connect interface usages (fields and constructor parameters) with the concrete
+     * classes implementing the interface.
+     */
+    private void linkInterfaceImplementations(List<TypeAnalysis> analyses) {
+        Map<String, List<String>> interfaceToImplementations = new HashMap<>();
 
-                String interfaceName = fieldType.getQualifiedName();
-                if (interfaceName != null && interfaceToImplementations.containsKey(interfaceName)) {
-                    // Connect to all implementations of this interface
-                    for (String implementation : interfaceToImplementations.get(interfaceName)) {
-                        if (!fromClass.equals(implementation)) {
-                            edgeAccumulator.addDependency(fromClass, implementation, "interface_impl",
-                                    AnalysisConstants.INJECTION_DEPENDENCY_WEIGHT);
-                        }
-                    }
+        // First pass: collect all implementations
+        for (TypeAnalysis analysis : analyses) {
+            for (String interfaceName : analysis.getImplementedInterfaces()) {
+                if (componentRegistry.hasComponent(interfaceName)) {
+                    interfaceToImplementations.computeIfAbsent(interfaceName, k -> new ArrayList<>())
+                            .add(analysis.getClassName());
                 }
             }
+        }
 
-            // Check constructor parameters that are interfaces
-            for (CtConstructor<?> constructor : type.getElements(new TypeFilter<>(CtConstructor.class))) {
-                for (CtParameter<?> param : constructor.getParameters()) {
-                    CtTypeReference<?> paramType = param.getType();
-                    if (paramType == null)
-                        continue;
-
-                    String interfaceName = paramType.getQualifiedName();
-                    if (interfaceName != null && interfaceToImplementations.containsKey(interfaceName)) {
-                        // Connect to all implementations of this interface
-                        for (String implementation : interfaceToImplementations.get(interfaceName)) {
-                            if (!fromClass.equals(implementation)) {
-                                edgeAccumulator.addDependency(fromClass, implementation, "interface_impl",
-                                        AnalysisConstants.INJECTION_DEPENDENCY_WEIGHT);
-                            }
-                        }
+        // Second pass: create edges between interface usages and implementations
+        for (TypeAnalysis analysis : analyses) {
+            String fromClass = analysis.getClassName();
+
+            // Check field types, then constructor parameters, that are interfaces
+            List<String> usedTypes = new ArrayList<>(analysis.getFieldTypes());
+            usedTypes.addAll(analysis.getConstructorParameterTypes());
+            for (String interfaceName : usedTypes) {
+                // Connect to all implementations of this interface
+                for (String implementation : interfaceToImplementations.getOrDefault(interfaceName,
+                        Collections.emptyList())) {
+                    if (!fromClass.equals(implementation)) {
+                        edgeAccumulator.addDependency(fromClass, implementation, "interface_impl",
+                                AnalysisConstants.INJECTION_DEPENDENCY_WEIGHT);
                     }
                 }
             }
@@ -584,70 +980,29 @@ public class ProjectAnalyzer {
     }
 
     /**
-     * Analyze Spring events - @EventListener methods and
-     * ApplicationEventPublisher.publishEvent calls.
+     * Connect ApplicationEventPublisher.publishEvent calls with the @EventListener
+     * methods of the published event type.
      */
-    private void analyzeSpringEvents(CtModel model) {
+    private void linkSpringEvents(List<TypeAnalysis> analyses) {
         Map<String, List<String>> eventToListeners = new HashMap<>();
-        Map<String, List<String>> publisherToEvents = new HashMap<>();
 
         // First pass: collect all event listeners
-        for (CtType<?> type : model.getAllTypes()) {
-            if (type.isAnonymous() || isExternalLibrary(type.getQualifiedName()) || isTestType(type)) {
-                continue;
-            }
-
-            String className = type.getQualifiedName();
-            if (!componentRegistry.hasComponent(className))
-                continue;
-
-            // Find @EventListener methods
-            for (CtMethod<?> method : type.getMethods()) {
-                boolean hasEventListener = method.getAnnotations().stream()
-                        .anyMatch(ann -> {
-                            String annType = ann.getAnnotationType().getQualifiedName();
-                            return "org.springframework.context.event.EventListener".equals(annType);
-                        });
-
-                if (hasEventListener && !method.getParameters().isEmpty()) {
-                    CtParameter<?> param = method.getParameters().get(0);
-                    String eventType = param.getType().getQualifiedName();
-                    if (eventType != null) {
-                        eventToListeners.computeIfAbsent(eventType, k -> new ArrayList<>()).add(className);
-                    }
-                }
+        for (TypeAnalysis analysis : analyses) {
+            for (String eventType : analysis.getListenedEvents()) {
+                eventToListeners.computeIfAbsent(eventType, k -> new ArrayList<>()).add(analysis.getClassName());
             }
         }
 
-        // Second pass: find publishEvent calls and connect to listeners
-        for (CtType<?> type : model.getAllTypes()) {
-            if (type.isAnonymous() || isExternalLibrary(type.getQualifiedName()) || isTestType(type)) {
-                continue;
-            }
-
-            String fromClass = type.getQualifiedName();
-            if (!componentRegistry.hasComponent(fromClass))
-                continue;
+        // Second pass: connect publishEvent calls to listeners
+        for (TypeAnalysis analysis : analyses) {
+            String fromClass = analysis.getClassName();
 
-            // Find ApplicationEventPublisher.publishEvent calls
-            List<CtInvocation<?>> invocations = type.getElements(new TypeFilter<>(CtInvocation.class));
-
-            for (CtInvocation<?> invocation : invocations) {
-                if (invocation.getExecutable() != null &&
-                        "publishEvent".equals(invocation.getExecutable().getSimpleName())) {
-
-                    // Try to extract event type from the method call
-                    if (!invocation.getArguments().isEmpty()) {
-                        String eventType = extractEventType(invocation);
-                        if (eventType != null && eventToListeners.containsKey(eventType)) {
-                            // Connect to all listeners of this event
-                            for (String listener : eventToListeners.get(eventType)) {
-                                if (!fromClass.equals(listener)) {
-                                    edgeAccumulator.addDependency(fromClass, listener, "spring_event",
-                                            AnalysisConstants.CALL_DEPENDENCY_WEIGHT);
-                                }
-                            }
-                        }
+            for (String eventType : analysis.getPublishedEvents()) {
+                // Connect to all listeners of this event
+                for (String listener : eventToListeners.getOrDefault(eventType, Collections.emptyList())) {
+                    if (!fromClass.equals(listener)) {
+                        edgeAccumulator.addDependency(fromClass, listener, "spring_event",
+                                AnalysisConstants.CALL_DEPENDENCY_WEIGHT);
                     }
                 }
             }
@@ -693,15 +1048,15 @@ public class ProjectAnalyzer {
     }
 
     /**
-     * Find external dependencies used by a type.
+     * Find external dependencies used by a type, from its referenced types.
      */
-    private void findExternalDependencies(CtType<?> type, Component component) {
+    private void findExternalDependencies(Set<CtTypeReference<?>> referencedTypes, Component component) {
         Set<String> externalDeps = new HashSet<>();
 
         // Check imports and used types
-        type.getReferencedTypes().forEach(typeRef -> {
+        referencedTypes.forEach(typeRef -> {
             String className = typeRef.getQualifiedName();
-            if (isRealExternalLibrary(className)) {
+            if (classNameClassifier.isRealExternalLibrary(className)) {
                 // Resolve class to Maven/Gradle dependency with version
                 String dependency = dependencyResolver.resolveDependency(className);
                 if (dependency != null) {
@@ -716,113 +1071,6 @@ public class ProjectAnalyzer {
         }
     }
 
-    /**
-     * Check if a class belongs to the internal project (not external library).
-     */
-    private boolean isInternalProjectClass(String className) {
-        if (className == null || className.isEmpty())
-            return false;
-
-        // Exclude truncated or malformed class names
-        if (className.length() < 10 || className.endsWith(".i") ||
-                className.contains("<>") || className.contains("nulltype") ||
-                !className.contains(".")) {
-            return false;
-        }
-
-        // Check if it's an external library first
-        if (className.startsWith("java.") ||
-                className.startsWith("javax.") ||
-                className.startsWith("org.springframework") ||
-                className.startsWith("org.modelmapper") ||
-                className.startsWith("spoon.")) {
-            return false;
-        }
-
-        // Check if this class is in our components map (which means it's internal to
-        // this project)
-        return componentRegistry.hasComponent(className);
-    }
-
-    /**
-     * More strict check for real external libraries, excluding primitives, JDK
-     * classes,
-     * Spoon classes, and project internal classes.
-     */
-    private boolean isRealExternalLibrary(String className) {
-        if (className == null || className.isEmpty())
-            return false;
-
-        // Exclude primitives and built-in types
-        if (className.equals("int") || className.equals("boolean") || className.equals("void") ||
-                className.equals("long") || className.equals("double") || className.equals("float") ||
-                className.equals("char") || className.equals("byte") || className.equals("short") ||
-                className.equals("<nulltype>") || className.equals("annotation") ||
-                className.startsWith("TypeFilter") || className.contains("<>")) {
-            return false;
-        }
-
-        // Include JavaEE/Jakarta EE specifications as external dependencies
-        if (className.startsWith("javax.persistence.") || // JPA
-                className.startsWith("javax.ejb.") || // EJB
-                className.startsWith("javax.ws.rs.") || // JAX-RS
-                className.startsWith("javax.servlet.") || // Servlets
-                className.startsWith("javax.faces.") || // JSF
-                className.startsWith("javax.inject.") || // CDI
-                className.startsWith("javax.validation.") || // Bean Validation
-                className.startsWith("javax.jms.") || // JMS
-                className.startsWith("javax.mail.") || // JavaMail
-                className.startsWith("javax.transaction.") || // JTA
-                className.startsWith("javax.annotation.") || // Common Annotations
-                className.startsWith("jakarta.")) { // Jakarta EE
-            return true;
-        }
-
-        // Exclude other JDK classes
-        if (className.startsWith("java.") || className.startsWith("javax.") ||
-                className.startsWith("sun.") || className.startsWith("com.sun.")) {
-            return false;
-        }
-
-        // Exclude Spoon framework classes
-        if (className.startsWith("spoon.")) {
-            return false;
-        }
-
-        // Exclude project internal classes
-        if (componentRegistry.hasComponent(className)) {
-            return false;
-        }
-
-        // Must be a real external library class
-        return className.startsWith("org.") || className.startsWith("com.") ||
-                className.startsWith("io.") || className.startsWith("net.") ||
-                className.startsWith("edu.") || className.startsWith("gov.");
-    }
-
-    /**
-     * Check if a class is a JDK class.
-     */
-    private boolean isJdkClass(String className) {
-        return className != null &&
-                (className.startsWith("java.") || className.startsWith("javax."));
-    }
-
-    /**
-     * Check if a class is from an external library (not part of the analyzed
-     * project).
-     */
-    private boolean isExternalLibrary(String className) {
-        return className != null &&
-                (className.startsWith("java.") ||
-                        className.startsWith("javax.") ||
-                        className.startsWith("org.springframework.") ||
-                        className.startsWith("org.hibernate.") ||
-                        className.startsWith("org.apache.") ||
-                        className.startsWith("com.fasterxml.") ||
-                        !isProjectClass(className));
-    }
-
     /**
      * Check if a type is a test class that should be excluded from analysis.
      */
@@ -857,50 +1105,21 @@ public class ProjectAnalyzer {
         }
 
         // Check for test annotations
-        return type.getAnnotations().stream()
-                .anyMatch(annotation -> {
-                    String annotationType = annotation.getType().getQualifiedName();
-                    return annotationType.contains("junit") ||
-                            annotationType.contains("SpringBootTest") ||
-                            annotationType.contains("RunWith") ||
-                            annotationType.contains("ExtendWith") ||
-                            annotationType.contains("Test");
-                });
-    }
-
-    /**
-     * Check if a class belongs to the project being analyzed.
-     */
-    private boolean isProjectClass(String className) {
-        // Check if class is already in components or if it comes from known project
-        // packages
-        if (componentRegistry.hasComponent(className)) {
-            return true;
-        }
-
-        // Check if it's a typical project package (not well-known external library
-        // packages)
-        return !className.startsWith("java.") &&
-                !className.startsWith("javax.") &&
-                !className.startsWith("org.springframework.") &&
-                !className.startsWith("org.hibernate.") &&
-                !className.startsWith("org.apache.") &&
-                !className.startsWith("com.fasterxml.") &&
-                !className.startsWith("org.modelmapper.") &&
-                !className.startsWith("org.slf4j.") &&
-                !className.startsWith("lombok.");
+        return typeIndex.get(type).getAnnotations().stream()
+                .anyMatch(annotationType -> annotationType.contains("junit") ||
+                        annotationType.contains("SpringBootTest") ||
+                        annotationType.contains("RunWith") ||
+                        annotationType.contains("ExtendWith") ||
+                        annotationType.contains("Test"));
     }
 
     /**
-     * Check if an invocation is reflection-based.
+     * Check if a call is reflection-based: it targets java.lang.reflect or calls one of
+     * the reflective entry points.
      */
-    private boolean isReflectionCall(String invocationString) {
-        return invocationString.contains("java.lang.reflect.") ||
-                invocationString.contains(".getClass()") ||
-                invocationString.contains(".forName(") ||
-                invocationString.contains(".newInstance(") ||
-                invocationString.contains(".getMethod(") ||
-                invocationString.contains(".invoke(");
+    private boolean isReflectionCall(String toClass, String methodName) {
+        return toClass.startsWith("java.lang.reflect.") ||
+                (methodName != null && REFLECTION_METHODS.contains(methodName));
     }
 
     /**
@@ -921,40 +1140,24 @@ public class ProjectAnalyzer {
     /**
      * Extract inheritance information (extends and implements).
      */
-    private void extractInheritance(CtType<?> type, Component component) {
+    private void extractInheritance(TypeIndex.IndexedType indexedType, Component component) {
         // Extract superclass (extends)
-        if (type instanceof spoon.reflect.declaration.CtClass<?>) {
-            spoon.reflect.declaration.CtClass<?> ctClass = (spoon.reflect.declaration.CtClass<?>) type;
-            spoon.reflect.reference.CtTypeReference<?> superClass = ctClass.getSuperclass();
-
-            if (superClass != null) {
-                String superClassName = superClass.getQualifiedName();
-                // Only include if it's not java.lang.Object (default superclass)
-                if (superClassName != null && !superClassName.equals("java.lang.Object")) {
-                    component.setExtendsClass(superClassName);
-                }
-            }
+        String superClassName = indexedType.getSuperclass();
+        // Only include if it's not java.lang.Object (default superclass)
+        if (superClassName != null && !superClassName.equals("java.lang.Object")) {
+            component.setExtendsClass(superClassName);
         }
 
         // Extract interfaces (implements)
-        java.util.Set<spoon.reflect.reference.CtTypeReference<?>> interfaces = type.getSuperInterfaces();
-        if (interfaces != null && !interfaces.isEmpty()) {
-            for (spoon.reflect.reference.CtTypeReference<?> interfaceRef : interfaces) {
-                String interfaceName = interfaceRef.getQualifiedName();
-                if (interfaceName != null) {
-                    component.addImplementsInterface(interfaceName);
-                }
-            }
+        for (String interfaceName : indexedType.getInterfaces()) {
+            component.addImplementsInterface(interfaceName);
         }
     }
 
-    private void extractAnnotations(CtType<?> type, Component component) {
+    private void extractAnnotations(CtType<?> type, TypeIndex.IndexedType indexedType, Component component) {
         // Extract class-level annotations
-        if (type.getAnnotations() != null) {
-            for (CtAnnotation<?> annotation : type.getAnnotations()) {
-                String annotationName = annotation.getAnnotationType().getSimpleName();
-                component.addAnnotation(annotationName);
-            }
+        for (String annotationName : indexedType.getAnnotationSimpleNames()) {
+            component.addAnnotation(annotationName);
         }
 
         // Extract method-level annotations (HTTP methods, etc.)
@@ -987,20 +1190,26 @@ public class ProjectAnalyzer {
     }
 
     /**
-     * Calculate code quality metrics (CBO and LCOM) for a type.
+     * Calculate code quality metrics (CBO, LCOM and its variants) for a type.
      */
-    private void calculateMetrics(CtType<?> type, Component component) {
+    private void calculateMetrics(CtType<?> type, Component component, MetricsCalculator.MetricsScan metricsScan) {
         try {
             // Calculate CBO (Coupling Between Objects)
-            int cbo = MetricsCalculator.calculateCBO(type);
+            int cbo = metricsScan.getCbo();
             component.setCbo(cbo);
 
             // Calculate LCOM (Lack of Cohesion in Methods)
-            Double lcom = MetricsCalculator.calculateLCOM(type);
+            Double lcom = metricsScan.getLcom();
             component.setLcom(lcom);
 
-            logger.debug("Metrics for {}: CBO={}, LCOM={}",
-                    type.getQualifiedName(), cbo, lcom != null ? String.format("%.2f", lcom) : "N/A");
+            // Cohesion variants derived from the same method x field usage matrix
+            component.setTcc(metricsScan.getTcc());
+            component.setLcc(metricsScan.getLcc());
+            component.setLcom4(metricsScan.getLcom4());
+
+            logger.debug("Metrics for {}: CBO={}, LCOM={}, LCOM4={}",
+                    type.getQualifiedName(), cbo, lcom != null ? String.format("%.2f", lcom) : "N/A",
+                    component.getLcom4());
         } catch (Exception e) {
             logger.warn("Failed to calculate metrics for {}: {}", type.getQualifiedName(), e.getMessage());
         }
@@ -1,10 +1,10 @@
 package com.extractor.analyzer;
 
+import com.extractor.utils.ProjectInventory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,22 +14,27 @@ public class SourcePathDiscoverer {
     private static final Logger logger = LoggerFactory.getLogger(SourcePathDiscoverer.class);
     
     public List<String> findSourcePaths(Path projectRoot) {
-        List<String> sourcePaths = new ArrayList<>();
-        
         try {
-            Files.walk(projectRoot)
-                .filter(Files::isDirectory)
-                .filter(path -> path.toString().endsWith("src/main/java"))
-                .map(Path::toString)
-                .forEach(sourcePaths::add);
-            
-            if (sourcePaths.isEmpty()) {
-                sourcePaths.add(projectRoot.toString());
-            }
-            
+            return findSourcePaths(ProjectInventory.scan(projectRoot, ProjectInventory.DEFAULT_EXCLUDES));
         } catch (IOException e) {
             logger.warn("Error walking project tree: {}", e.getMessage());
+            List<String> sourcePaths = new ArrayList<>();
             sourcePaths.add(projectRoot.toString());
+            return sourcePaths;
+        }
+    }
+    
+    /**
+     * Source roots of the inventory, or the project root when it has none.
+     */
+    public List<String> findSourcePaths(ProjectInventory inventory) {
+        List<String> sourcePaths = new ArrayList<>();
+        for (Path sourceRoot : inventory.getSourceRoots()) {
+            sourcePaths.add(sourceRoot.toString());
+        }
+        
+        if (sourcePaths.isEmpty()) {
+            sourcePaths.add(inventory.getProjectRoot().toString());
         }
         
         return sourcePaths;
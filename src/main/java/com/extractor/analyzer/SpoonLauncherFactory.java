@@ -1,13 +1,21 @@
 package com.extractor.analyzer;
 
+import com.extractor.jfr.ModelBuildEvent;
+import com.extractor.utils.ProjectInventory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import spoon.Launcher;
+import spoon.reflect.CtModel;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SpoonLauncherFactory {
     
@@ -22,9 +30,90 @@ public class SpoonLauncherFactory {
     }
     
     public Launcher createLauncher(Path projectRoot) {
-        Launcher launcher = new Launcher();
-        
         List<String> sourcePaths = sourcePathDiscoverer.findSourcePaths(projectRoot);
+        return createLauncher(sourcePaths);
+    }
+    
+    public List<String> findSourcePaths(ProjectInventory inventory) {
+        return sourcePathDiscoverer.findSourcePaths(inventory);
+    }
+    
+    /**
+     * Builds one Spoon model per discovered source root on a bounded worker pool.
+     * Models are returned in discovery order so that downstream passes stay deterministic;
+     * references between roots are left unresolved by Spoon and are matched later through
+     * their qualified names.
+     */
+    public List<CtModel> buildModels(ProjectInventory inventory, int parallelism) {
+        List<List<String>> inputGroups = new ArrayList<>();
+        for (String sourcePath : sourcePathDiscoverer.findSourcePaths(inventory)) {
+            inputGroups.add(Collections.singletonList(sourcePath));
+        }
+        return buildModels(inputGroups, parallelism);
+    }
+    
+    /**
+     * Builds one Spoon model per group of inputs (source roots or single files) on a
+     * bounded worker pool, returned in group order.
+     */
+    public List<CtModel> buildModels(List<List<String>> inputGroups, int parallelism) {
+        int threads = Math.max(1, Math.min(parallelism, inputGroups.size()));
+        logger.info("Building {} Spoon models with {} worker(s)", inputGroups.size(), threads);
+        
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "spoon-model-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        try {
+            List<Future<CtModel>> futures = new ArrayList<>();
+            for (List<String> inputs : inputGroups) {
+                futures.add(executor.submit(() -> buildModel(inputs)));
+            }
+            
+            List<CtModel> models = new ArrayList<>();
+            for (Future<CtModel> future : futures) {
+                models.add(future.get());
+            }
+            return models;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building Spoon models", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Failed to build Spoon model", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * Builds a model over the given inputs only. Used by incremental runs to re-parse a
+     * subset of the project files.
+     */
+    public CtModel buildModel(List<String> inputs) {
+        ModelBuildEvent event = new ModelBuildEvent();
+        event.begin();
+        long start = System.currentTimeMillis();
+        CtModel model = createLauncher(inputs).buildModel();
+        event.end();
+        String label = inputs.size() == 1 ? inputs.get(0) : inputs.size() + " inputs";
+        logger.info("Built model for {} in {} ms", label, System.currentTimeMillis() - start);
+        if (event.shouldCommit()) {
+            event.inputs = label;
+            event.typeCount = model.getAllTypes().size();
+            event.commit();
+        }
+        return model;
+    }
+    
+    private Launcher createLauncher(List<String> sourcePaths) {
+        Launcher launcher = new Launcher();
         
         for (String sourcePath : sourcePaths) {
             launcher.addInputResource(sourcePath);
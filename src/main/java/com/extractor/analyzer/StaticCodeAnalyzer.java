@@ -2,10 +2,10 @@ package com.extractor.analyzer;
 
 import com.extractor.model.CodeIssue;
 import com.extractor.model.Component;
+import com.extractor.utils.TypeScanner;
 import spoon.reflect.code.*;
 import spoon.reflect.declaration.*;
 import spoon.reflect.reference.CtTypeReference;
-import spoon.reflect.visitor.CtScanner;
 
 import java.util.Arrays;
 import java.util.List;
@@ -26,154 +26,155 @@ public class StaticCodeAnalyzer {
     }
 
     public void analyzeType(CtType<?> type, Component component) {
+        TypeScanner scanner = new TypeScanner();
+        register(type, component, scanner);
+        scanner.scan(type);
+    }
+
+    /**
+     * Register the pattern checks on a shared scanner. Checks run when a node is exited,
+     * so issues are reported in post-order as with a dedicated CtScanner.
+     */
+    public void register(CtType<?> type, Component component, TypeScanner scanner) {
         // Check Package Naming Convention
         checkPackageNaming(type, component);
 
-        type.accept(new CtScanner() {
-
-            // REGLA 1: Comparación de Referencias (String y Wrappers)
-            // Error Prone: ReferenceEquality / StringEquality
-            @Override
-            public <T> void visitCtBinaryOperator(CtBinaryOperator<T> operator) {
-                super.visitCtBinaryOperator(operator);
-
-                if (operator.getKind() == BinaryOperatorKind.EQ || operator.getKind() == BinaryOperatorKind.NE) {
-                    CtExpression<?> left = operator.getLeftHandOperand();
-                    CtExpression<?> right = operator.getRightHandOperand();
-
-                    // String == String
-                    if (isType(left, "java.lang.String") || isType(right, "java.lang.String")) {
-                        addIssue(component, operator,
-                                "Potential String comparison using ==/!=. Use .equals() instead.",
-                                "string_comparison_operator", CodeIssue.Severity.WARNING);
-                    }
-
-                    // Integer == Integer (Boxed Primitive Equality)
-                    if (isBoxedPrimitive(left) && isBoxedPrimitive(right)) {
-                        addIssue(component, operator,
-                                "Reference equality used on Boxed Primitives (e.g., Integer, Long). Values > 127 may compare false.",
-                                "boxed_primitive_equality", CodeIssue.Severity.CRITICAL);
-                    }
-                }
+        scanner.onExit(CtBinaryOperator.class, operator -> checkBinaryOperator(operator, component));
+        scanner.onExit(CtConstructorCall.class, ctConstructorCall -> {
+            // Anonymous classes are visited as CtNewClass, not as constructor calls
+            if (!(ctConstructorCall instanceof CtNewClass)) {
+                checkConstructorCall(ctConstructorCall, component);
             }
+        });
+        scanner.onExit(CtReturn.class, returnStatement -> checkReturn(returnStatement, component));
+        scanner.onExit(CtSwitch.class, switchStatement -> checkSwitch(switchStatement, component));
+        scanner.onExit(CtCatch.class, catchBlock -> checkCatch(catchBlock, component));
+        scanner.onExit(CtInvocation.class, invocation -> checkInvocation(invocation, component));
+    }
 
-            // REGLA 2: BigDecimal(double)
-            // Error Prone: BigDecimalDoubleConstructor
-            @Override
-            public <T> void visitCtConstructorCall(CtConstructorCall<T> ctConstructorCall) {
-                super.visitCtConstructorCall(ctConstructorCall);
-
-                if (isType(ctConstructorCall, "java.math.BigDecimal")) {
-                    List<CtExpression<?>> args = ctConstructorCall.getArguments();
-                    if (args.size() == 1 && isType(args.get(0), "double")) {
-                        addIssue(component, ctConstructorCall,
-                                "Avoid new BigDecimal(double). It creates unpredictable precision. Use new BigDecimal(String) or BigDecimal.valueOf(double).",
-                                "big_decimal_double_constructor", CodeIssue.Severity.WARNING);
-                    }
-                }
+    // REGLA 1: Comparación de Referencias (String y Wrappers)
+    // Error Prone: ReferenceEquality / StringEquality
+    private void checkBinaryOperator(CtBinaryOperator<?> operator, Component component) {
+        if (operator.getKind() == BinaryOperatorKind.EQ || operator.getKind() == BinaryOperatorKind.NE) {
+            CtExpression<?> left = operator.getLeftHandOperand();
+            CtExpression<?> right = operator.getRightHandOperand();
+
+            // String == String
+            if (isType(left, "java.lang.String") || isType(right, "java.lang.String")) {
+                addIssue(component, operator,
+                        "Potential String comparison using ==/!=. Use .equals() instead.",
+                        "string_comparison_operator", CodeIssue.Severity.WARNING);
             }
 
-            // REGLA 3: Optional retornando null
-            // Error Prone: ReturnNullFromOptional
-            @Override
-            public <T> void visitCtReturn(CtReturn<T> returnStatement) {
-                super.visitCtReturn(returnStatement);
-
-                CtExpression<?> returnedExpr = returnStatement.getReturnedExpression();
-                if (returnedExpr instanceof CtLiteral && ((CtLiteral<?>) returnedExpr).getValue() == null) {
-                    // Buscar el método padre para ver si retorna Optional
-                    CtMethod<?> parentMethod = returnStatement.getParent(CtMethod.class);
-                    if (parentMethod != null && isType(parentMethod.getType(), "java.util.Optional")) {
-                        addIssue(component, returnStatement,
-                                "Methods returning Optional should never return null. Return Optional.empty() instead.",
-                                "optional_return_null", CodeIssue.Severity.WARNING);
-                    }
-                }
+            // Integer == Integer (Boxed Primitive Equality)
+            if (isBoxedPrimitive(left) && isBoxedPrimitive(right)) {
+                addIssue(component, operator,
+                        "Reference equality used on Boxed Primitives (e.g., Integer, Long). Values > 127 may compare false.",
+                        "boxed_primitive_equality", CodeIssue.Severity.CRITICAL);
             }
+        }
+    }
 
-            // REGLA 4: Switch sin default
-            // Error Prone: MissingDefault
-            @Override
-            public <E> void visitCtSwitch(CtSwitch<E> switchStatement) {
-                super.visitCtSwitch(switchStatement);
-
-                boolean hasDefault = false;
-                for (CtCase<? super E> caseStatement : switchStatement.getCases()) {
-                    if (caseStatement.getCaseExpressions().isEmpty()) { // Spoon define default como un case sin expresión
-                        hasDefault = true;
-                        break;
-                    }
-                }
-
-                if (!hasDefault) {
-                    // Excepción: Si es un switch sobre un Enum, a veces se perdona, pero es buena práctica tenerlo
-                    addIssue(component, switchStatement,
-                            "Switch statement is missing a 'default' case.",
-                            "missing_switch_default", CodeIssue.Severity.INFO);
-                }
+    // REGLA 2: BigDecimal(double)
+    // Error Prone: BigDecimalDoubleConstructor
+    private void checkConstructorCall(CtConstructorCall<?> ctConstructorCall, Component component) {
+        if (isType(ctConstructorCall, "java.math.BigDecimal")) {
+            List<CtExpression<?>> args = ctConstructorCall.getArguments();
+            if (args.size() == 1 && isType(args.get(0), "double")) {
+                addIssue(component, ctConstructorCall,
+                        "Avoid new BigDecimal(double). It creates unpredictable precision. Use new BigDecimal(String) or BigDecimal.valueOf(double).",
+                        "big_decimal_double_constructor", CodeIssue.Severity.WARNING);
             }
+        }
+    }
 
-            @Override
-            public void visitCtCatch(CtCatch catchBlock) {
-                super.visitCtCatch(catchBlock);
-
-                CtBlock<?> body = catchBlock.getBody();
-                // REGLA 5: Empty Catch
-                if (body != null && body.getStatements().isEmpty()) {
-                    addIssue(component, catchBlock,
-                            "Empty catch block detected. Exceptions should not be swallowed.",
-                            "empty_catch_block", CodeIssue.Severity.WARNING);
-                }
-
-                // REGLA 6: Catch genérico
-                if (catchBlock.getParameter() != null && catchBlock.getParameter().getType() != null) {
-                    String exceptionType = catchBlock.getParameter().getType().getQualifiedName();
-                    if ("java.lang.Exception".equals(exceptionType) || "java.lang.Throwable".equals(exceptionType)) {
-                        addIssue(component, catchBlock,
-                                "Catching generic Exception or Throwable is generally discouraged.",
-                                "generic_exception_catch", CodeIssue.Severity.INFO);
-                    }
-                }
+    // REGLA 3: Optional retornando null
+    // Error Prone: ReturnNullFromOptional
+    private void checkReturn(CtReturn<?> returnStatement, Component component) {
+        CtExpression<?> returnedExpr = returnStatement.getReturnedExpression();
+        if (returnedExpr instanceof CtLiteral && ((CtLiteral<?>) returnedExpr).getValue() == null) {
+            // Buscar el método padre para ver si retorna Optional
+            CtMethod<?> parentMethod = returnStatement.getParent(CtMethod.class);
+            if (parentMethod != null && isType(parentMethod.getType(), "java.util.Optional")) {
+                addIssue(component, returnStatement,
+                        "Methods returning Optional should never return null. Return Optional.empty() instead.",
+                        "optional_return_null", CodeIssue.Severity.WARNING);
             }
+        }
+    }
 
-            @Override
-            public <T> void visitCtInvocation(CtInvocation<T> invocation) {
-                super.visitCtInvocation(invocation);
-
-                if (invocation.getExecutable() == null) return;
-
-                String method = invocation.getExecutable().getSimpleName();
-
-                // REGLA 7: System.out/err
-                if (invocation.getTarget() != null) {
-                    String target = invocation.getTarget().toString();
-                    if (("System.out".equals(target) || "System.err".equals(target)) && method.startsWith("print")) {
-                        addIssue(component, invocation,
-                                "Direct use of System.out/err. Use a logger instead.",
-                                "system_out_println", CodeIssue.Severity.INFO);
-                    }
-                }
-
-                // REGLA 8: Hardcoded strings en comparaciones
-                if (("equals".equals(method) || "contains".equals(method) || "equalsIgnoreCase".equals(method)) &&
-                        !invocation.getArguments().isEmpty()) {
-                    CtExpression<?> arg = invocation.getArguments().get(0);
-                    if (arg instanceof CtLiteral && ((CtLiteral<?>) arg).getValue() instanceof String) {
-                        addIssue(component, invocation,
-                                "Comparison with hardcoded String literal: \"" + ((CtLiteral<?>) arg).getValue() + "\". Consider using a constant.",
-                                "hardcoded_string_comparison", CodeIssue.Severity.INFO);
-                    }
-                }
-
-                // REGLA 9: Thread.stop() / Thread.suspend() (Deprecados y peligrosos)
-                if (("stop".equals(method) || "suspend".equals(method) || "resume".equals(method)) &&
-                        isType(invocation.getTarget(), "java.lang.Thread")) {
-                    addIssue(component, invocation,
-                            "Usage of deprecated Thread method (" + method + "). These methods are unsafe.",
-                            "thread_unsafe_method", CodeIssue.Severity.CRITICAL);
-                }
+    // REGLA 4: Switch sin default
+    // Error Prone: MissingDefault
+    private void checkSwitch(CtSwitch<?> switchStatement, Component component) {
+        boolean hasDefault = false;
+        for (CtCase<?> caseStatement : switchStatement.getCases()) {
+            if (caseStatement.getCaseExpressions().isEmpty()) { // Spoon define default como un case sin expresión
+                hasDefault = true;
+                break;
             }
-        });
+        }
+
+        if (!hasDefault) {
+            // Excepción: Si es un switch sobre un Enum, a veces se perdona, pero es buena práctica tenerlo
+            addIssue(component, switchStatement,
+                    "Switch statement is missing a 'default' case.",
+                    "missing_switch_default", CodeIssue.Severity.INFO);
+        }
+    }
+
+    private void checkCatch(CtCatch catchBlock, Component component) {
+        CtBlock<?> body = catchBlock.getBody();
+        // REGLA 5: Empty Catch
+        if (body != null && body.getStatements().isEmpty()) {
+            addIssue(component, catchBlock,
+                    "Empty catch block detected. Exceptions should not be swallowed.",
+                    "empty_catch_block", CodeIssue.Severity.WARNING);
+        }
+
+        // REGLA 6: Catch genérico
+        if (catchBlock.getParameter() != null && catchBlock.getParameter().getType() != null) {
+            String exceptionType = catchBlock.getParameter().getType().getQualifiedName();
+            if ("java.lang.Exception".equals(exceptionType) || "java.lang.Throwable".equals(exceptionType)) {
+                addIssue(component, catchBlock,
+                        "Catching generic Exception or Throwable is generally discouraged.",
+                        "generic_exception_catch", CodeIssue.Severity.INFO);
+            }
+        }
+    }
+
+    private void checkInvocation(CtInvocation<?> invocation, Component component) {
+        if (invocation.getExecutable() == null) return;
+
+        String method = invocation.getExecutable().getSimpleName();
+
+        // REGLA 7: System.out/err
+        if (invocation.getTarget() != null) {
+            String target = invocation.getTarget().toString();
+            if (("System.out".equals(target) || "System.err".equals(target)) && method.startsWith("print")) {
+                addIssue(component, invocation,
+                        "Direct use of System.out/err. Use a logger instead.",
+                        "system_out_println", CodeIssue.Severity.INFO);
+            }
+        }
+
+        // REGLA 8: Hardcoded strings en comparaciones
+        if (("equals".equals(method) || "contains".equals(method) || "equalsIgnoreCase".equals(method)) &&
+                !invocation.getArguments().isEmpty()) {
+            CtExpression<?> arg = invocation.getArguments().get(0);
+            if (arg instanceof CtLiteral && ((CtLiteral<?>) arg).getValue() instanceof String) {
+                addIssue(component, invocation,
+                        "Comparison with hardcoded String literal: \"" + ((CtLiteral<?>) arg).getValue() + "\". Consider using a constant.",
+                        "hardcoded_string_comparison", CodeIssue.Severity.INFO);
+            }
+        }
+
+        // REGLA 9: Thread.stop() / Thread.suspend() (Deprecados y peligrosos)
+        if (("stop".equals(method) || "suspend".equals(method) || "resume".equals(method)) &&
+                isType(invocation.getTarget(), "java.lang.Thread")) {
+            addIssue(component, invocation,
+                    "Usage of deprecated Thread method (" + method + "). These methods are unsafe.",
+                    "thread_unsafe_method", CodeIssue.Severity.CRITICAL);
+        }
     }
 
     // --- Helper Methods ---
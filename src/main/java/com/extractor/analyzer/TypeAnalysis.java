@@ -0,0 +1,112 @@
+package com.extractor.analyzer;
+
+import com.extractor.model.Component;
+import com.extractor.model.DependencyGraph;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Facts extracted from one project type by its single AST traversal.
+ * Linking reads only these facts, so dependencies between types are resolved
+ * without walking any AST a second time. The facts hold no Spoon elements, which
+ * lets {@link AnalysisCache} store them between runs.
+ */
+public class TypeAnalysis {
+
+    @JsonProperty("class_name")
+    private String className;
+
+    // Component as filled by the analysis, before linking adds calls and layers
+    @JsonProperty("component")
+    private Component component;
+
+    // Call and structural dependencies, in the order they were found
+    @JsonProperty("dependencies")
+    private List<Dependency> dependencies = new ArrayList<>();
+
+    // Inputs for interface implementation and Spring event linking
+    @JsonProperty("implemented_interfaces")
+    private List<String> implementedInterfaces = new ArrayList<>();
+    @JsonProperty("field_types")
+    private List<String> fieldTypes = new ArrayList<>();
+    @JsonProperty("constructor_parameter_types")
+    private List<String> constructorParameterTypes = new ArrayList<>();
+    @JsonProperty("listened_events")
+    private List<String> listenedEvents = new ArrayList<>();
+    @JsonProperty("published_events")
+    private List<String> publishedEvents = new ArrayList<>();
+
+    // Endpoints and schemas found in this type only
+    @JsonProperty("api_contracts")
+    private DependencyGraph.ApiContracts apiContracts = new DependencyGraph.ApiContracts();
+
+    // Project types referenced from the AST, used to find dependents of a changed file
+    @JsonProperty("referenced_types")
+    private Set<String> referencedTypes = new TreeSet<>();
+
+    @JsonProperty("invocation_count")
+    private int invocationCount;
+
+    public TypeAnalysis(String className, Component component) {
+        this.className = className;
+        this.component = component;
+    }
+
+    // Used by Jackson when reading cached analyses
+    private TypeAnalysis() {
+    }
+
+    public void addDependency(String toClass, String edgeType, int weight) {
+        dependencies.add(new Dependency(toClass, edgeType, weight));
+    }
+
+    public void countInvocation() {
+        invocationCount++;
+    }
+
+    public String getClassName() { return className; }
+    public Component getComponent() { return component; }
+    public List<Dependency> getDependencies() { return dependencies; }
+    /** Interfaces implemented by a class; empty for interfaces, enums and annotations. */
+    public List<String> getImplementedInterfaces() { return implementedInterfaces; }
+    public List<String> getFieldTypes() { return fieldTypes; }
+    /** Parameter types of every constructor in the type, nested ones included. */
+    public List<String> getConstructorParameterTypes() { return constructorParameterTypes; }
+    /** Event types handled by @EventListener methods. */
+    public List<String> getListenedEvents() { return listenedEvents; }
+    /** Event types passed to publishEvent, once per call. */
+    public List<String> getPublishedEvents() { return publishedEvents; }
+    public DependencyGraph.ApiContracts getApiContracts() { return apiContracts; }
+    /** Qualified names of the project types (nested ones included) this type references. */
+    public Set<String> getReferencedTypes() { return referencedTypes; }
+    public int getInvocationCount() { return invocationCount; }
+
+    /**
+     * A dependency from the analyzed type to another class.
+     */
+    public static class Dependency {
+        @JsonProperty("to")
+        private final String toClass;
+        @JsonProperty("type")
+        private final String edgeType;
+        @JsonProperty("weight")
+        private final int weight;
+
+        @JsonCreator
+        public Dependency(@JsonProperty("to") String toClass, @JsonProperty("type") String edgeType,
+                @JsonProperty("weight") int weight) {
+            this.toClass = toClass;
+            this.edgeType = edgeType;
+            this.weight = weight;
+        }
+
+        public String getToClass() { return toClass; }
+        public String getEdgeType() { return edgeType; }
+        public int getWeight() { return weight; }
+    }
+}
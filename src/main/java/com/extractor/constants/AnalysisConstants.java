@@ -12,6 +12,11 @@ public final class AnalysisConstants {
         // Utility class
     }
     
+    // --- Analysis Cache ---
+    // Version of the per-type analysis results. Bump it whenever a detector or rule changes
+    // what it reports, so results cached by older versions are discarded.
+    public static final String ANALYZER_VERSION = "1.0.0-8";
+    
     // --- Sensitive Data Detection ---
     public static final Set<String> SENSITIVE_KEYWORDS = Set.of(
         "password", "ssn", "creditcard", "apikey", "secretkey", "token", "auth"
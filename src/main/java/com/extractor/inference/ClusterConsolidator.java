@@ -1,9 +1,16 @@
 package com.extractor.inference;
 
-import com.extractor.model.Component;
+import com.extractor.jfr.ConsolidationEvent;
+
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Merges related clusters into groups. Groups are tracked by a disjoint-set structure
+ * (union by rank, path compression) whose representatives carry the group's size,
+ * infrastructure member count and strong-candidate flag, so merge checks read them
+ * directly instead of rescanning member lists.
+ */
 public class ClusterConsolidator {
     private static final Set<String> INFRASTRUCTURE_KEYWORDS = Set.of(
         "config", "configuration", "security", "application", "exception", 
@@ -14,18 +21,69 @@ public class ClusterConsolidator {
     private final InterClusterGraph graph;
     private final Map<Integer, Set<Integer>> mergedGroups;
 
-    public ClusterConsolidator(List<Cluster> clusters, List<Component> allComponents) {
+    // Position in the cluster list of each cluster ID
+    private final Map<Integer, Integer> positions;
+    private final boolean[] support;
+
+    // Disjoint sets over cluster positions; group fields are valid at representatives
+    private final int[] parent;
+    private final int[] rank;
+    private final int[] groupKey;
+    private final int[] groupSize;
+    private final int[] groupInfraCount;
+    private final boolean[] groupStrong;
+
+    public ClusterConsolidator(List<Cluster> clusters, ComponentGraph componentGraph) {
         this.clusters = clusters;
-        this.graph = new InterClusterGraph(clusters, allComponents);
+        this.graph = new InterClusterGraph(clusters, componentGraph);
         this.mergedGroups = new HashMap<>();
         for (Cluster c : clusters) {
             Set<Integer> group = new HashSet<>();
             group.add(c.getClusterId());
             mergedGroups.put(c.getClusterId(), group);
         }
+        
+        int count = clusters.size();
+        this.positions = new HashMap<>();
+        this.support = new boolean[count];
+        this.parent = new int[count];
+        this.rank = new int[count];
+        this.groupKey = new int[count];
+        this.groupSize = new int[count];
+        this.groupInfraCount = new int[count];
+        this.groupStrong = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            Cluster cluster = clusters.get(i);
+            positions.putIfAbsent(cluster.getClusterId(), i);
+            
+            int size = cluster.getMembers().size();
+            int infraCount = (int) cluster.getMembers().stream()
+                .filter(ClusterConsolidator::isInfrastructureMember)
+                .count();
+            support[i] = size > 0 && ((double) infraCount / size) >= 0.8;
+            
+            parent[i] = i;
+            groupKey[i] = cluster.getClusterId();
+            groupSize[i] = size;
+            groupInfraCount[i] = infraCount;
+            groupStrong[i] = isStrongCandidate(cluster);
+        }
     }
 
     public List<Set<Integer>> consolidate() {
+        ConsolidationEvent event = new ConsolidationEvent();
+        event.begin();
+        List<Set<Integer>> groups = mergeClusters();
+        event.end();
+        if (event.shouldCommit()) {
+            event.clusterCount = clusters.size();
+            event.groupCount = groups.size();
+            event.commit();
+        }
+        return groups;
+    }
+    
+    private List<Set<Integer>> mergeClusters() {
         consolidateByDomainName();
         
         List<EdgeCandidate> candidates = findMergeCandidates();
@@ -84,9 +142,7 @@ public class ClusterConsolidator {
         boolean isInfraB = hasSignificantInfrastructure(rootB);
         if (isInfraA != isInfraB) return false;
         
-        Set<Integer> groupA = mergedGroups.get(rootA);
-        Set<Integer> groupB = mergedGroups.get(rootB);
-        int totalSize = getTotalSize(groupA) + getTotalSize(groupB);
+        int totalSize = getTotalSize(rootA) + getTotalSize(rootB);
         
         if (totalSize > 50) return false;
         
@@ -94,48 +150,24 @@ public class ClusterConsolidator {
     }
     
     private boolean hasSignificantInfrastructure(int clusterId) {
-        Set<Integer> group = mergedGroups.get(clusterId);
-        if (group == null) return false;
-        
-        long totalCount = 0;
-        long infraCount = 0;
+        Integer position = positions.get(clusterId);
+        if (position == null) return false;
         
-        for (int id : group) {
-            Cluster cluster = clusters.stream()
-                .filter(c -> c.getClusterId() == id)
-                .findFirst()
-                .orElse(null);
-            
-            if (cluster != null) {
-                totalCount += cluster.getMembers().size();
-                infraCount += cluster.getMembers().stream()
-                    .filter(member -> {
-                        String simpleClassName = member.contains(".") 
-                            ? member.substring(member.lastIndexOf('.') + 1).toLowerCase()
-                            : member.toLowerCase();
-                        return INFRASTRUCTURE_KEYWORDS.stream().anyMatch(simpleClassName::contains);
-                    })
-                    .count();
-            }
-        }
-        
-        return totalCount > 0 && ((double) infraCount / totalCount) >= 0.3;
+        int root = find(position);
+        return groupSize[root] > 0 && ((double) groupInfraCount[root] / groupSize[root]) >= 0.3;
     }
 
     private List<EdgeCandidate> findMergeCandidates() {
         List<EdgeCandidate> candidates = new ArrayList<>();
         
-        for (int i = 0; i < clusters.size(); i++) {
-            for (int j = i + 1; j < clusters.size(); j++) {
-                InterClusterGraph.EdgeSignals signals = graph.getEdge(clusters.get(i).getClusterId(), 
-                                                                       clusters.get(j).getClusterId());
-                if (signals != null && signals.hasStrongEvidence()) {
-                    candidates.add(new EdgeCandidate(clusters.get(i).getClusterId(), 
-                                                    clusters.get(j).getClusterId(), 
-                                                    signals));
-                }
+        // Only connected pairs are visited, in the (i, j) order of the cluster list
+        graph.forEachEdge((i, j, signals) -> {
+            if (signals.hasStrongEvidence()) {
+                candidates.add(new EdgeCandidate(clusters.get(i).getClusterId(), 
+                                                clusters.get(j).getClusterId(), 
+                                                signals));
             }
-        }
+        });
         
         candidates.sort((a, b) -> Double.compare(b.signals.getEvidenceScore(), 
                                                 a.signals.getEvidenceScore()));
@@ -143,16 +175,13 @@ public class ClusterConsolidator {
     }
 
     private boolean canMerge(int rootA, int rootB, InterClusterGraph.EdgeSignals signals) {
-        Set<Integer> groupA = mergedGroups.get(rootA);
-        Set<Integer> groupB = mergedGroups.get(rootB);
-        
         if (isSupport(rootA) && !isSupport(rootB)) return false;
         if (isSupport(rootB) && !isSupport(rootA)) return false;
         
-        int totalSize = getTotalSize(groupA) + getTotalSize(groupB);
+        int totalSize = getTotalSize(rootA) + getTotalSize(rootB);
         if (totalSize > 40 && signals.getTokenSimilarity() < 0.75) return false;
         
-        if (bothStrongCandidates(groupA, groupB) && 
+        if (bothStrongCandidates(rootA, rootB) && 
             signals.getCallDensity() < 0.15 && 
             signals.getTableJaccard() < 0.2) {
             return false;
@@ -161,72 +190,91 @@ public class ClusterConsolidator {
         return true;
     }
 
+    /**
+     * Whether the cluster itself, not its group, is made of infrastructure classes.
+     */
     private boolean isSupport(int clusterId) {
-        Cluster cluster = clusters.stream()
-            .filter(c -> c.getClusterId() == clusterId)
-            .findFirst()
-            .orElse(null);
-        
-        if (cluster == null) return false;
-        
-        long infraCount = cluster.getMembers().stream()
-            .filter(member -> {
-                String simpleClassName = member.contains(".") 
-                    ? member.substring(member.lastIndexOf('.') + 1).toLowerCase()
-                    : member.toLowerCase();
-                return INFRASTRUCTURE_KEYWORDS.stream().anyMatch(simpleClassName::contains);
-            })
-            .count();
-        
-        return cluster.getMembers().size() > 0 && 
-               ((double) infraCount / cluster.getMembers().size()) >= 0.8;
+        Integer position = positions.get(clusterId);
+        return position != null && support[position];
     }
 
-    private int getTotalSize(Set<Integer> group) {
-        return group.stream()
-            .map(id -> clusters.stream()
-                .filter(c -> c.getClusterId() == id)
-                .findFirst()
-                .map(c -> c.getMembers().size())
-                .orElse(0))
-            .reduce(0, Integer::sum);
+    private static boolean isInfrastructureMember(String member) {
+        String simpleClassName = member.contains(".") 
+            ? member.substring(member.lastIndexOf('.') + 1).toLowerCase()
+            : member.toLowerCase();
+        return INFRASTRUCTURE_KEYWORDS.stream().anyMatch(simpleClassName::contains);
     }
 
-    private boolean bothStrongCandidates(Set<Integer> groupA, Set<Integer> groupB) {
-        boolean strongA = groupA.stream().anyMatch(this::isStrongCandidate);
-        boolean strongB = groupB.stream().anyMatch(this::isStrongCandidate);
-        return strongA && strongB;
+    /**
+     * Number of members of the group stored under a root.
+     */
+    private int getTotalSize(int rootId) {
+        Integer position = positions.get(rootId);
+        return position != null ? groupSize[find(position)] : 0;
     }
 
-    private boolean isStrongCandidate(int clusterId) {
-        Cluster cluster = clusters.stream()
-            .filter(c -> c.getClusterId() == clusterId)
-            .findFirst()
-            .orElse(null);
-        
-        if (cluster == null) return false;
-        
+    private boolean bothStrongCandidates(int rootA, int rootB) {
+        return isStrongGroup(rootA) && isStrongGroup(rootB);
+    }
+
+    private boolean isStrongGroup(int rootId) {
+        Integer position = positions.get(rootId);
+        return position != null && groupStrong[find(position)];
+    }
+
+    private static boolean isStrongCandidate(Cluster cluster) {
         ClusterMetrics metrics = cluster.getMetrics();
         return metrics.getCohesion() >= 0.7 && 
                metrics.getCoupling() < 0.3 && 
                cluster.getMembers().size() >= 3;
     }
 
+    /**
+     * ID of the cluster under which the group holding this cluster is stored.
+     */
     private int findRoot(int clusterId) {
-        for (Map.Entry<Integer, Set<Integer>> entry : mergedGroups.entrySet()) {
-            if (entry.getValue().contains(clusterId)) {
-                return entry.getKey();
-            }
+        Integer position = positions.get(clusterId);
+        return position != null ? groupKey[find(position)] : clusterId;
+    }
+
+    private int find(int position) {
+        int root = position;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[position] != root) {
+            int next = parent[position];
+            parent[position] = root;
+            position = next;
         }
-        return clusterId;
+        return root;
     }
 
+    /**
+     * Moves the group of rootB into the group of rootA, which keeps rootA as its ID.
+     */
     private void merge(int rootA, int rootB) {
         Set<Integer> groupA = mergedGroups.get(rootA);
         Set<Integer> groupB = mergedGroups.get(rootB);
         
         groupA.addAll(groupB);
         mergedGroups.put(rootB, Collections.emptySet());
+        
+        int a = find(positions.get(rootA));
+        int b = find(positions.get(rootB));
+        int root = a;
+        int child = b;
+        if (rank[a] < rank[b]) {
+            root = b;
+            child = a;
+        } else if (rank[a] == rank[b]) {
+            rank[a]++;
+        }
+        parent[child] = root;
+        groupKey[root] = rootA;
+        groupSize[root] = groupSize[a] + groupSize[b];
+        groupInfraCount[root] = groupInfraCount[a] + groupInfraCount[b];
+        groupStrong[root] = groupStrong[a] || groupStrong[b];
     }
 
     private static class EdgeCandidate {
@@ -0,0 +1,61 @@
+package com.extractor.inference;
+
+import java.util.*;
+
+/**
+ * Member-to-cluster index: the positions, in the cluster list, of the clusters holding
+ * each component, stored as compressed rows indexed by {@link ComponentGraph} ID.
+ * A member listed twice in a cluster belongs to it once.
+ */
+class ClusterIndex {
+    private final int[] offsets;
+    private final int[] clusterIndexes;
+    private final int[] sizes;
+
+    ClusterIndex(List<Cluster> clusters, ComponentGraph graph) {
+        int nodeCount = graph.nodeCount();
+        int[][] members = new int[clusters.size()][];
+        int[] lastCluster = new int[nodeCount];
+        Arrays.fill(lastCluster, -1);
+
+        sizes = new int[clusters.size()];
+        offsets = new int[nodeCount + 1];
+        for (int k = 0; k < clusters.size(); k++) {
+            int[] ids = graph.idsOf(clusters.get(k).getMembers());
+            int distinct = 0;
+            for (int id : ids) {
+                if (lastCluster[id] != k) {
+                    lastCluster[id] = k;
+                    ids[distinct++] = id;
+                    offsets[id + 1]++;
+                }
+            }
+            members[k] = Arrays.copyOf(ids, distinct);
+            sizes[k] = distinct;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        // Clusters are filled in ascending order, so each row stays sorted
+        clusterIndexes = new int[offsets[nodeCount]];
+        int[] fill = Arrays.copyOf(offsets, nodeCount);
+        for (int k = 0; k < members.length; k++) {
+            for (int id : members[k]) {
+                clusterIndexes[fill[id]++] = k;
+            }
+        }
+    }
+
+    int start(int id) { return offsets[id]; }
+    int end(int id) { return offsets[id + 1]; }
+    int cluster(int index) { return clusterIndexes[index]; }
+    int size(int k) { return sizes[k]; }
+
+    boolean contains(int id, int k) {
+        for (int m = offsets[id]; m < offsets[id + 1]; m++) {
+            if (clusterIndexes[m] == k) return true;
+        }
+        return false;
+    }
+}
@@ -1,8 +1,10 @@
 package com.extractor.inference;
 
+import com.extractor.jfr.ClusteringStrategyEvent;
 import com.extractor.model.Component;
 import com.extractor.model.DependencyGraph;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -24,10 +26,12 @@ public class ClusteringAlgorithm {
 
         if (isSingleDomain) {
             // For single-domain projects, use entity-based clustering directly
-            clusters = createEntityBasedClusters(dependencyGraph, componentsByDomain);
+            clusters = runStrategy("entity-based", dependencyGraph,
+                    () -> createEntityBasedClusters(dependencyGraph, componentsByDomain));
         } else {
             // For multi-domain projects, try business responsibility clustering first
-            clusters = createBusinessResponsibilityClusters(dependencyGraph, componentsByDomain);
+            clusters = runStrategy("business-responsibility", dependencyGraph,
+                    () -> createBusinessResponsibilityClusters(dependencyGraph, componentsByDomain));
 
             // VALIDATE: Check for domain purity (no cluster should mix multiple domains)
             boolean hasMultiDomainClusters = hasCrossDomainMixing(clusters, dependencyGraph.getComponents());
@@ -36,19 +40,39 @@ public class ClusteringAlgorithm {
             // domain-based
             if (hasMultiDomainClusters || clusters.size() < 2
                     || hasLargeSingleCluster(clusters, dependencyGraph.getComponents().size())) {
-                clusters = createDomainBasedClusters(dependencyGraph, componentsByDomain);
+                clusters = runStrategy("domain-based", dependencyGraph,
+                        () -> createDomainBasedClusters(dependencyGraph, componentsByDomain));
             }
 
             // If we still get too few clusters, try to split based on JPA entities and
             // dependencies
             if (clusters.size() < 2) {
-                clusters = createEntityBasedClusters(dependencyGraph, componentsByDomain);
+                clusters = runStrategy("entity-based", dependencyGraph,
+                        () -> createEntityBasedClusters(dependencyGraph, componentsByDomain));
             }
         }
 
         return clusters;
     }
 
+    /**
+     * Runs one clustering strategy, recorded as a JFR event.
+     */
+    private List<Cluster> runStrategy(String strategy, DependencyGraph dependencyGraph,
+            Supplier<List<Cluster>> clustering) {
+        ClusteringStrategyEvent event = new ClusteringStrategyEvent();
+        event.begin();
+        List<Cluster> clusters = clustering.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategy = strategy;
+            event.componentCount = dependencyGraph.getComponents().size();
+            event.clusterCount = clusters.size();
+            event.commit();
+        }
+        return clusters;
+    }
+
     /**
      * Detects if this is a single-domain project (layered architecture).
      * Returns true if >75% of components are in the same domain.
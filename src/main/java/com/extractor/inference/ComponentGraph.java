@@ -0,0 +1,210 @@
+package com.extractor.inference;
+
+import com.extractor.model.AnalysisMetrics;
+import com.extractor.model.Component;
+import com.extractor.model.DependencyGraph;
+import com.extractor.model.Edge;
+import java.util.*;
+
+/**
+ * Compact view of a dependency graph shared by the inference steps.
+ * Component IDs are interned to dense ints: components take 0..componentCount-1 in
+ * list order (the first one wins if an ID repeats), and names only seen as edge or call targets follow them. Dependency
+ * edges (in and out, with weights) and component calls are stored as compressed
+ * sparse rows, so a scan over a member's edges walks contiguous int arrays.
+ */
+public class ComponentGraph {
+    private final List<Component> components;
+    private final Component[] componentsById;
+    private final Map<String, Integer> ids;
+    private final String[] names;
+
+    // Dependency edges, from DependencyGraph.getEdges()
+    private final int[] outOffsets;
+    private final int[] outTargets;
+    private final int[] outWeights;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final int[] inWeights;
+
+    // Calls, from Component.getCallsOut()
+    private final int[] callOffsets;
+    private final int[] callTargets;
+
+    private ComponentGraph(List<Component> components, Component[] componentsById, Map<String, Integer> ids,
+                           String[] names, int[][] out, int[][] in, int[][] calls) {
+        this.components = components;
+        this.componentsById = componentsById;
+        this.ids = ids;
+        this.names = names;
+        this.outOffsets = out[0];
+        this.outTargets = out[1];
+        this.outWeights = out[2];
+        this.inOffsets = in[0];
+        this.inSources = in[1];
+        this.inWeights = in[2];
+        this.callOffsets = calls[0];
+        this.callTargets = calls[1];
+    }
+
+    /**
+     * Builds the graph once from the components and edges of a dependency graph.
+     */
+    public static ComponentGraph build(DependencyGraph graph) {
+        AnalysisMetrics.Timer timer = AnalysisMetrics.orDisabled(graph.getMeta().getMetrics()).start("component_graph");
+        ComponentGraph componentGraph = buildGraph(graph);
+        timer.stop();
+        return componentGraph;
+    }
+
+    private static ComponentGraph buildGraph(DependencyGraph graph) {
+        List<Component> components = graph.getComponents();
+        List<Edge> edges = graph.getEdges();
+
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<Component> byId = new ArrayList<>();
+        for (Component component : components) {
+            if (intern(component.getId(), ids, names) == byId.size()) {
+                byId.add(component);
+            }
+        }
+
+        int callCount = 0;
+        for (Component component : components) {
+            if (component.getCallsOut() != null) {
+                callCount += component.getCallsOut().size();
+            }
+        }
+
+        int[] edgeFrom = new int[edges.size()];
+        int[] edgeTo = new int[edges.size()];
+        int[] edgeWeight = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            Edge edge = edges.get(i);
+            edgeFrom[i] = intern(edge.getFrom(), ids, names);
+            edgeTo[i] = intern(edge.getTo(), ids, names);
+            edgeWeight[i] = edge.getWeight();
+        }
+
+        int[] callFrom = new int[callCount];
+        int[] callTo = new int[callCount];
+        int next = 0;
+        for (Component component : components) {
+            if (component.getCallsOut() == null) continue;
+            int from = ids.get(component.getId());
+            for (String called : component.getCallsOut()) {
+                callFrom[next] = from;
+                callTo[next] = intern(called, ids, names);
+                next++;
+            }
+        }
+
+        int nodeCount = names.size();
+        return new ComponentGraph(components, byId.toArray(new Component[0]), ids, names.toArray(new String[0]),
+                toRows(nodeCount, edgeFrom, edgeTo, edgeWeight),
+                toRows(nodeCount, edgeTo, edgeFrom, edgeWeight),
+                toRows(nodeCount, callFrom, callTo, null));
+    }
+
+    private static int intern(String name, Map<String, Integer> ids, List<String> names) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * Groups (row, column, value) triples by row. Entries of a row keep their input order.
+     * Returns the row offsets, the columns and, when values are given, the values.
+     */
+    private static int[][] toRows(int rowCount, int[] rows, int[] columns, int[] values) {
+        int[] offsets = new int[rowCount + 1];
+        for (int row : rows) {
+            offsets[row + 1]++;
+        }
+        for (int i = 0; i < rowCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        int[] fill = Arrays.copyOf(offsets, rowCount);
+        int[] sortedColumns = new int[rows.length];
+        int[] sortedValues = values != null ? new int[rows.length] : null;
+        for (int i = 0; i < rows.length; i++) {
+            int slot = fill[rows[i]]++;
+            sortedColumns[slot] = columns[i];
+            if (values != null) {
+                sortedValues[slot] = values[i];
+            }
+        }
+        return new int[][] { offsets, sortedColumns, sortedValues };
+    }
+
+    public List<Component> getComponents() { return components; }
+
+    /** Number of components; their IDs are 0..componentCount-1. */
+    public int componentCount() { return componentsById.length; }
+
+    /** Number of interned names, components and bare edge or call targets. */
+    public int nodeCount() { return names.length; }
+
+    /** Dense ID of a name, or -1 when the graph has never seen it. */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    public String nameOf(int id) { return names[id]; }
+
+    /** The component with this ID, or null when the ID is a bare edge or call target. */
+    public Component component(int id) {
+        return id < componentsById.length ? componentsById[id] : null;
+    }
+
+    /**
+     * IDs of the given names in their order, duplicates kept and unknown names dropped.
+     */
+    public int[] idsOf(Collection<String> memberNames) {
+        int[] result = new int[memberNames.size()];
+        int count = 0;
+        for (String name : memberNames) {
+            int id = idOf(name);
+            if (id >= 0) {
+                result[count++] = id;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /** Set of the IDs of the given names, unknown names dropped. */
+    public BitSet memberSet(Collection<String> memberNames) {
+        BitSet set = new BitSet(names.length);
+        for (String name : memberNames) {
+            int id = idOf(name);
+            if (id >= 0) {
+                set.set(id);
+            }
+        }
+        return set;
+    }
+
+    // Dependency edges leaving a node: outTarget(i) and outWeight(i) for i in outStart..outEnd-1
+    public int outStart(int id) { return outOffsets[id]; }
+    public int outEnd(int id) { return outOffsets[id + 1]; }
+    public int outTarget(int index) { return outTargets[index]; }
+    public int outWeight(int index) { return outWeights[index]; }
+
+    // Dependency edges entering a node: inSource(i) and inWeight(i) for i in inStart..inEnd-1
+    public int inStart(int id) { return inOffsets[id]; }
+    public int inEnd(int id) { return inOffsets[id + 1]; }
+    public int inSource(int index) { return inSources[index]; }
+    public int inWeight(int index) { return inWeights[index]; }
+
+    // Calls made by a component: callTarget(i) for i in callStart..callEnd-1, in callsOut order
+    public int callStart(int id) { return callOffsets[id]; }
+    public int callEnd(int id) { return callOffsets[id + 1]; }
+    public int callTarget(int index) { return callTargets[index]; }
+}
@@ -1,6 +1,7 @@
 package com.extractor.inference;
 
 import com.extractor.inference.rules.*;
+import com.extractor.model.AnalysisMetrics;
 import com.extractor.model.DependencyGraph;
 import com.extractor.model.Component;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -29,21 +30,38 @@ public class InferenceEngine {
      * Analyzes a dependency graph and generates microservice candidates.
      */
     public MicroserviceCandidates analyze(DependencyGraph dependencyGraph) {
+        return analyze(dependencyGraph, ComponentGraph.build(dependencyGraph));
+    }
+    
+    /**
+     * Analyzes a dependency graph whose compact form has already been built.
+     * When the graph carries metrics, each step is measured into them.
+     */
+    public MicroserviceCandidates analyze(DependencyGraph dependencyGraph, ComponentGraph componentGraph) {
+        AnalysisMetrics analysisMetrics = AnalysisMetrics.orDisabled(dependencyGraph.getMeta().getMetrics());
+        
         // Step 1: Create initial clusters
+        AnalysisMetrics.Timer timer = analysisMetrics.start("clustering");
         List<Cluster> clusters = clusteringAlgorithm.createClusters(dependencyGraph);
+        timer.stop();
         
         // Step 2: Calculate metrics for each cluster
-        for (Cluster cluster : clusters) {
-            ClusterMetrics metrics = metricsCalculator.calculateMetrics(cluster, dependencyGraph);
-            cluster.setMetrics(metrics);
+        timer = analysisMetrics.start("cluster_metrics");
+        List<ClusterMetrics> metrics = metricsCalculator.calculateMetrics(clusters, componentGraph);
+        for (int i = 0; i < clusters.size(); i++) {
+            clusters.get(i).setMetrics(metrics.get(i));
         }
+        timer.stop();
         
         // Step 3: Apply inference rules and calculate scores
+        timer = analysisMetrics.start("inference_rules");
         for (Cluster cluster : clusters) {
             applyRules(cluster, dependencyGraph.getComponents());
         }
+        timer.stop();
         
         // Step 4: Generate explanations
+        timer = analysisMetrics.start("explanations");
         MicroserviceCandidates result = new MicroserviceCandidates();
         result.setCandidates(clusters);
         
@@ -51,6 +69,8 @@ public class InferenceEngine {
             ClusterExplanation explanation = explanationGenerator.generateExplanation(cluster, dependencyGraph.getComponents());
             result.addExplanation(explanation);
         }
+        timer.stop();
+        analysisMetrics.count("clusters", clusters.size());
         
         return result;
     }
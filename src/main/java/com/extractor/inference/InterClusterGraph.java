@@ -1,41 +1,129 @@
 package com.extractor.inference;
 
-import com.extractor.model.Component;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Evidence that pairs of clusters belong together.
+ * Features of each cluster are computed once. Inverted indexes over tables, domain tokens,
+ * events and cross-cluster calls yield the only pairs with non-zero evidence, and those
+ * pairs are scored in parallel.
+ */
 public class InterClusterGraph {
     private final List<Cluster> clusters;
-    private final Map<String, Component> componentMap;
+    private final ComponentGraph componentGraph;
+    private final ClusterIndex clusterIndex;
+    private final List<ClusterFeatures> features;
     private final Map<ClusterPair, EdgeSignals> edges;
+    // The same edges as position pairs (packed as in findCandidatePairs), in (i, j) order
+    private long[] edgePairs;
+    private EdgeSignals[] edgeSignals;
 
-    public InterClusterGraph(List<Cluster> clusters, List<Component> allComponents) {
+    public InterClusterGraph(List<Cluster> clusters, ComponentGraph componentGraph) {
         this.clusters = clusters;
-        this.componentMap = allComponents.stream()
-            .collect(Collectors.toMap(Component::getId, c -> c));
+        this.componentGraph = componentGraph;
+        this.clusterIndex = new ClusterIndex(clusters, componentGraph);
+        this.features = new ArrayList<>(clusters.size());
+        for (int i = 0; i < clusters.size(); i++) {
+            features.add(new ClusterFeatures(i));
+        }
         this.edges = new HashMap<>();
         buildGraph();
     }
 
     private void buildGraph() {
+        long[] pairs = findCandidatePairs();
+        EdgeSignals[] signals = IntStream.range(0, pairs.length).parallel()
+            .mapToObj(p -> calculateSignals(features.get(first(pairs[p])), features.get(second(pairs[p]))))
+            .toArray(EdgeSignals[]::new);
+
+        // Pairs are in (i, j) order, the order of the exhaustive scan this replaces
+        edgePairs = new long[pairs.length];
+        edgeSignals = new EdgeSignals[pairs.length];
+        int count = 0;
+        for (int p = 0; p < pairs.length; p++) {
+            if (signals[p].getEvidenceScore() > 0.1) {
+                ClusterPair pair = new ClusterPair(clusters.get(first(pairs[p])).getClusterId(),
+                                                   clusters.get(second(pairs[p])).getClusterId());
+                edges.put(pair, signals[p]);
+                edgePairs[count] = pairs[p];
+                edgeSignals[count++] = signals[p];
+            }
+        }
+        edgePairs = Arrays.copyOf(edgePairs, count);
+        edgeSignals = Arrays.copyOf(edgeSignals, count);
+    }
+
+    /**
+     * Pairs of cluster positions (i < j) that share a table, a domain token or an event,
+     * or that call each other; every other pair has zero evidence.
+     * Each pair is packed as i << 32 | j, and the result is sorted.
+     */
+    private long[] findCandidatePairs() {
+        Map<String, List<Integer>> byTable = new HashMap<>();
+        Map<String, List<Integer>> byToken = new HashMap<>();
+        Map<String, List<Integer>> byPublishedEvent = new HashMap<>();
+        Map<String, List<Integer>> byConsumedEvent = new HashMap<>();
+        for (ClusterFeatures f : features) {
+            f.tables.forEach(table -> byTable.computeIfAbsent(table, k -> new ArrayList<>()).add(f.position));
+            f.tokens.forEach(token -> byToken.computeIfAbsent(token, k -> new ArrayList<>()).add(f.position));
+            f.publishedEvents.forEach(event -> byPublishedEvent.computeIfAbsent(event, k -> new ArrayList<>()).add(f.position));
+            f.consumedEvents.forEach(event -> byConsumedEvent.computeIfAbsent(event, k -> new ArrayList<>()).add(f.position));
+        }
+
+        List<BitSet> partners = new ArrayList<>(clusters.size());
         for (int i = 0; i < clusters.size(); i++) {
-            for (int j = i + 1; j < clusters.size(); j++) {
-                Cluster clusterA = clusters.get(i);
-                Cluster clusterB = clusters.get(j);
-                ClusterPair pair = new ClusterPair(clusterA.getClusterId(), clusterB.getClusterId());
-                
-                EdgeSignals signals = calculateSignals(clusterA, clusterB);
-                if (signals.getEvidenceScore() > 0.1) {
-                    edges.put(pair, signals);
+            partners.add(new BitSet());
+        }
+        for (ClusterFeatures f : features) {
+            int i = f.position;
+            f.tables.forEach(table -> addPartners(partners, i, byTable.get(table)));
+            f.tokens.forEach(token -> addPartners(partners, i, byToken.get(token)));
+            f.publishedEvents.forEach(event -> addPartners(partners, i, byConsumedEvent.get(event)));
+
+            // Clusters holding a component called by a member
+            for (int member : f.memberIds) {
+                for (int c = componentGraph.callStart(member); c < componentGraph.callEnd(member); c++) {
+                    int called = componentGraph.callTarget(c);
+                    for (int m = clusterIndex.start(called); m < clusterIndex.end(called); m++) {
+                        addPartner(partners, i, clusterIndex.cluster(m));
+                    }
                 }
             }
         }
+
+        long[] pairs = new long[partners.stream().mapToInt(BitSet::cardinality).sum()];
+        int count = 0;
+        for (int i = 0; i < partners.size(); i++) {
+            BitSet row = partners.get(i);
+            for (int j = row.nextSetBit(0); j >= 0; j = row.nextSetBit(j + 1)) {
+                pairs[count++] = ((long) i << 32) | j;
+            }
+        }
+        return pairs;
     }
 
-    private EdgeSignals calculateSignals(Cluster clusterA, Cluster clusterB) {
-        double tableJaccard = calculateTableJaccard(clusterA, clusterB);
+    private void addPartners(List<BitSet> partners, int i, List<Integer> others) {
+        if (others == null) return;
+        for (int j : others) {
+            addPartner(partners, i, j);
+        }
+    }
+
+    private void addPartner(List<BitSet> partners, int i, int j) {
+        if (i != j) {
+            partners.get(Math.min(i, j)).set(Math.max(i, j));
+        }
+    }
+
+    private static int first(long pair) { return (int) (pair >>> 32); }
+    private static int second(long pair) { return (int) pair; }
+
+    private EdgeSignals calculateSignals(ClusterFeatures clusterA, ClusterFeatures clusterB) {
+        double tableJaccard = calculateJaccard(clusterA.tables, clusterB.tables);
         double callDensity = calculateCallDensity(clusterA, clusterB);
-        double tokenSimilarity = calculateTokenSimilarity(clusterA, clusterB);
+        double tokenSimilarity = calculateJaccard(clusterA.tokens, clusterB.tokens);
         List<String> eventLinks = detectEventCoupling(clusterA, clusterB);
         
         double evidenceScore = 0.25 * tableJaccard + 0.35 * callDensity + 
@@ -44,86 +132,48 @@ public class InterClusterGraph {
         return new EdgeSignals(tableJaccard, callDensity, tokenSimilarity, eventLinks, evidenceScore);
     }
 
-    private double calculateTableJaccard(Cluster clusterA, Cluster clusterB) {
-        Set<String> tablesA = new HashSet<>(clusterA.getMetrics().getTablesShared());
-        Set<String> tablesB = new HashSet<>(clusterB.getMetrics().getTablesShared());
-        
-        if (tablesA.isEmpty() && tablesB.isEmpty()) return 0.0;
+    private double calculateJaccard(Set<String> setA, Set<String> setB) {
+        if (setA.isEmpty() && setB.isEmpty()) return 0.0;
         
-        Set<String> intersection = new HashSet<>(tablesA);
-        intersection.retainAll(tablesB);
+        Set<String> intersection = new HashSet<>(setA);
+        intersection.retainAll(setB);
         
-        Set<String> union = new HashSet<>(tablesA);
-        union.addAll(tablesB);
+        Set<String> union = new HashSet<>(setA);
+        union.addAll(setB);
         
         return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
     }
 
-    private double calculateCallDensity(Cluster clusterA, Cluster clusterB) {
-        int callsAtoB = countCalls(clusterA.getMembers(), clusterB.getMembers());
-        int callsBtoA = countCalls(clusterB.getMembers(), clusterA.getMembers());
+    private double calculateCallDensity(ClusterFeatures clusterA, ClusterFeatures clusterB) {
+        int callsAtoB = countCalls(clusterA.memberIds, clusterB.position);
+        int callsBtoA = countCalls(clusterB.memberIds, clusterA.position);
         int totalCrossCalls = callsAtoB + callsBtoA;
         
         if (totalCrossCalls == 0) return 0.0;
         
-        int internalCallsA = countInternalCalls(clusterA.getMembers());
-        int internalCallsB = countInternalCalls(clusterB.getMembers());
-        int totalInternalCalls = internalCallsA + internalCallsB;
+        int totalInternalCalls = clusterA.internalCalls + clusterB.internalCalls;
         
         if (totalInternalCalls == 0) return 0.0;
         
         return Math.min(1.0, (double) totalCrossCalls / (totalInternalCalls * 0.5));
     }
 
-    private int countCalls(List<String> fromComponents, List<String> toComponents) {
-        int calls = 0;
-        Set<String> toSet = new HashSet<>(toComponents);
-        
-        for (String fromComp : fromComponents) {
-            Component comp = componentMap.get(fromComp);
-            if (comp != null && comp.getCallsOut() != null) {
-                for (String called : comp.getCallsOut()) {
-                    if (toSet.contains(called)) {
-                        calls++;
-                    }
-                }
-            }
-        }
-        return calls;
-    }
-
-    private int countInternalCalls(List<String> components) {
+    /**
+     * Counts the calls made by the given members (repeated members count again) into a cluster.
+     */
+    private int countCalls(int[] fromComponents, int toCluster) {
         int calls = 0;
-        Set<String> compSet = new HashSet<>(components);
         
-        for (String comp : components) {
-            Component component = componentMap.get(comp);
-            if (component != null && component.getCallsOut() != null) {
-                for (String called : component.getCallsOut()) {
-                    if (compSet.contains(called)) {
-                        calls++;
-                    }
+        for (int fromComp : fromComponents) {
+            for (int c = componentGraph.callStart(fromComp); c < componentGraph.callEnd(fromComp); c++) {
+                if (clusterIndex.contains(componentGraph.callTarget(c), toCluster)) {
+                    calls++;
                 }
             }
         }
         return calls;
     }
 
-    private double calculateTokenSimilarity(Cluster clusterA, Cluster clusterB) {
-        Set<String> tokensA = extractDomainTokens(clusterA.getMembers());
-        Set<String> tokensB = extractDomainTokens(clusterB.getMembers());
-        
-        if (tokensA.isEmpty() && tokensB.isEmpty()) return 0.0;
-        
-        Set<String> intersection = new HashSet<>(tokensA);
-        intersection.retainAll(tokensB);
-        
-        Set<String> union = new HashSet<>(tokensA);
-        union.addAll(tokensB);
-        
-        return union.isEmpty() ? 0.0 : (double) intersection.size() / union.size();
-    }
-
     private Set<String> extractDomainTokens(List<String> components) {
         Set<String> tokens = new HashSet<>();
         Set<String> excludeKeywords = Set.of("entity", "model", "data", "dto", "event", "command", "query");
@@ -158,23 +208,17 @@ public class InterClusterGraph {
         return tokens;
     }
 
-    private List<String> detectEventCoupling(Cluster clusterA, Cluster clusterB) {
+    private List<String> detectEventCoupling(ClusterFeatures clusterA, ClusterFeatures clusterB) {
         List<String> eventLinks = new ArrayList<>();
         
-        Set<String> publishedEvents = findPublishedEvents(clusterA.getMembers());
-        Set<String> consumedEvents = findConsumedEvents(clusterB.getMembers());
-        
-        for (String published : publishedEvents) {
-            if (consumedEvents.contains(published)) {
+        for (String published : clusterA.publishedEvents) {
+            if (clusterB.consumedEvents.contains(published)) {
                 eventLinks.add(published);
             }
         }
         
-        publishedEvents = findPublishedEvents(clusterB.getMembers());
-        consumedEvents = findConsumedEvents(clusterA.getMembers());
-        
-        for (String published : publishedEvents) {
-            if (consumedEvents.contains(published)) {
+        for (String published : clusterB.publishedEvents) {
+            if (clusterA.consumedEvents.contains(published)) {
                 eventLinks.add(published);
             }
         }
@@ -216,6 +260,45 @@ public class InterClusterGraph {
         return edges.get(pair);
     }
 
+    /**
+     * Visits every edge with the positions of its clusters in the cluster list (i < j),
+     * ordered by i then j; pairs without an edge are never visited.
+     */
+    public void forEachEdge(EdgeVisitor visitor) {
+        for (int e = 0; e < edgePairs.length; e++) {
+            visitor.visit(first(edgePairs[e]), second(edgePairs[e]), edgeSignals[e]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface EdgeVisitor {
+        void visit(int positionA, int positionB, EdgeSignals signals);
+    }
+
+    /**
+     * Pair-independent facts of one cluster, computed once.
+     */
+    private class ClusterFeatures {
+        final int position;
+        final int[] memberIds;
+        final Set<String> tables;
+        final Set<String> tokens;
+        final Set<String> publishedEvents;
+        final Set<String> consumedEvents;
+        final int internalCalls;
+
+        ClusterFeatures(int position) {
+            Cluster cluster = clusters.get(position);
+            this.position = position;
+            this.memberIds = componentGraph.idsOf(cluster.getMembers());
+            this.tables = new HashSet<>(cluster.getMetrics().getTablesShared());
+            this.tokens = extractDomainTokens(cluster.getMembers());
+            this.publishedEvents = findPublishedEvents(cluster.getMembers());
+            this.consumedEvents = findConsumedEvents(cluster.getMembers());
+            this.internalCalls = countCalls(memberIds, position);
+        }
+    }
+
     public static class ClusterPair {
         private final int idA;
         private final int idB;
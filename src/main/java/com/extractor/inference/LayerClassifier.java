@@ -1,15 +1,21 @@
 package com.extractor.inference;
 
 import com.extractor.model.Component;
+import com.extractor.utils.KeywordMatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Classifies components into architectural layers: Controller, Business, Data, or Shared.
  * Works with any project structure by analyzing annotations, naming patterns, package structure, and relationships.
+ *
+ * The pattern tables are compiled once, one bit per pattern: names and packages into a
+ * {@link KeywordMatcher} that finds every pattern in a single pass, annotations into a map.
+ * A table's score is the number of its bits found, so classifying a component does not
+ * depend on the number of patterns. The name and package bits are memoized per component.
  */
 public class LayerClassifier {
     
@@ -131,12 +137,72 @@ public class LayerClassifier {
         ".provider."
     );
     
+    // JAX-RS and Spring REST annotations
+    private static final List<String> REST_ANNOTATIONS = Arrays.asList(
+        "Path", "GET", "POST", "PUT", "DELETE", "PATCH",
+        "RestController", "Controller", "WebServlet",
+        "RequestMapping", "GetMapping", "PostMapping", "PutMapping", 
+        "DeleteMapping", "PatchMapping"
+    );
+    
+    // Compiled pattern tables: one bit per pattern, and the bits of each table
+    private static final PatternBits ANNOTATION_BITS = new PatternBits();
+    private static final long CONTROLLER_ANNOTATION_BITS = ANNOTATION_BITS.add(CONTROLLER_ANNOTATIONS);
+    private static final long BUSINESS_ANNOTATION_BITS = ANNOTATION_BITS.add(BUSINESS_ANNOTATIONS);
+    private static final long PERSISTENCE_ANNOTATION_BITS = ANNOTATION_BITS.add(PERSISTENCE_ANNOTATIONS);
+    private static final long DOMAIN_ANNOTATION_BITS = ANNOTATION_BITS.add(DOMAIN_ANNOTATIONS);
+    private static final long TRANSFER_ANNOTATION_BITS = ANNOTATION_BITS.add(TRANSFER_ANNOTATIONS);
+    private static final long REST_ANNOTATION_BITS = ANNOTATION_BITS.add(REST_ANNOTATIONS);
+    private static final long ENTITY_ANNOTATION_BITS = ANNOTATION_BITS.pattern("Entity")
+            | ANNOTATION_BITS.pattern("Table");
+    
+    private static final PatternBits NAME_BITS = new PatternBits();
+    private static final long CONTROLLER_NAME_BITS = NAME_BITS.add(CONTROLLER_NAME_PATTERNS);
+    private static final long NON_CONTROLLER_NAME_BITS = NAME_BITS.add(NON_CONTROLLER_PATTERNS);
+    private static final long BUSINESS_NAME_BITS = NAME_BITS.add(BUSINESS_NAME_PATTERNS);
+    private static final long PERSISTENCE_NAME_BITS = NAME_BITS.add(PERSISTENCE_NAME_PATTERNS);
+    private static final long DOMAIN_NAME_BITS = NAME_BITS.add(DOMAIN_NAME_PATTERNS);
+    private static final long TRANSFER_NAME_BITS = NAME_BITS.add(TRANSFER_NAME_PATTERNS);
+    private static final long SHARED_NAME_BITS = NAME_BITS.add(SHARED_NAME_PATTERNS);
+    private static final KeywordMatcher NAME_MATCHER = NAME_BITS.compile();
+    
+    private static final PatternBits PACKAGE_BITS = new PatternBits();
+    // .services. is ambiguous: it does not score as a controller package, see rule 6
+    private static final long CONTROLLER_PACKAGE_BITS = PACKAGE_BITS.add(CONTROLLER_PACKAGE_PATTERNS)
+            & ~PACKAGE_BITS.pattern(".services.");
+    private static final long BUSINESS_PACKAGE_BITS = PACKAGE_BITS.add(BUSINESS_PACKAGE_PATTERNS);
+    private static final long PERSISTENCE_PACKAGE_BITS = PACKAGE_BITS.add(PERSISTENCE_PACKAGE_PATTERNS);
+    private static final long DOMAIN_PACKAGE_BITS = PACKAGE_BITS.add(DOMAIN_PACKAGE_PATTERNS);
+    private static final long TRANSFER_PACKAGE_BITS = PACKAGE_BITS.add(TRANSFER_PACKAGE_PATTERNS);
+    private static final long SHARED_PACKAGE_BITS = PACKAGE_BITS.add(SHARED_PACKAGE_PATTERNS);
+    private static final KeywordMatcher PACKAGE_MATCHER = PACKAGE_BITS.compile();
+    
+    // Name and package keywords of the disambiguation rules, all of them table patterns
+    private static final long PROVIDER_NAME = NAME_BITS.pattern("provider");
+    private static final long REPOSITORY_OR_DAO_NAME = NAME_BITS.pattern("repository") | NAME_BITS.pattern("dao");
+    private static final long MODEL_OR_DOMAIN_NAME = NAME_BITS.pattern("model") | NAME_BITS.pattern("domain");
+    private static final long TRANSFER_OBJECT_NAME = NAME_BITS.pattern("dto") | NAME_BITS.pattern("request")
+            | NAME_BITS.pattern("response") | NAME_BITS.pattern("payload");
+    private static final long PERSISTENCE_INTERFACE_NAME = REPOSITORY_OR_DAO_NAME | NAME_BITS.pattern("mapper");
+    private static final long API_CONTROLLER_PACKAGE = PACKAGE_BITS.pattern(".controller.") | PACKAGE_BITS.pattern(".rest.")
+            | PACKAGE_BITS.pattern(".api.");
+    private static final long DOMAIN_PACKAGE = PACKAGE_BITS.pattern(".domain.");
+    private static final long SERVICES_PACKAGE = PACKAGE_BITS.pattern(".services.");
+    private static final long API_PACKAGE = PACKAGE_BITS.pattern(".api.");
+    private static final long PERSISTENCE_INTERFACE_PACKAGE = PACKAGE_BITS.pattern(".repository.")
+            | PACKAGE_BITS.pattern(".dao.");
+    
+    // Name and package bits by component id
+    private final Map<String, long[]> nameSignals = new ConcurrentHashMap<>();
+    
     /**
      * Classify a component into its architectural layer with refined data layer classification.
      */
     public Layer classifyComponent(Component component) {
-        String componentId = component.getId().toLowerCase();
-        String simpleClassName = extractSimpleClassName(component.getId());
+        long[] signals = nameSignals.computeIfAbsent(component.getId(), LayerClassifier::matchNameAndPackage);
+        long names = signals[0];
+        long packages = signals[1];
+        long annotations = matchAnnotations(component);
         
         int controllerScore = 0;
         int businessScore = 0;
@@ -152,37 +218,34 @@ public class LayerClassifier {
         }
         
         // Score by annotations
-        controllerScore += scoreByAnnotations(component, CONTROLLER_ANNOTATIONS) * 10;
-        businessScore += scoreByAnnotations(component, BUSINESS_ANNOTATIONS) * 10;
-        persistenceScore += scoreByAnnotations(component, PERSISTENCE_ANNOTATIONS) * 10;
-        domainScore += scoreByAnnotations(component, DOMAIN_ANNOTATIONS) * 10;
-        transferScore += scoreByAnnotations(component, TRANSFER_ANNOTATIONS) * 10;
+        controllerScore += Long.bitCount(annotations & CONTROLLER_ANNOTATION_BITS) * 10;
+        businessScore += Long.bitCount(annotations & BUSINESS_ANNOTATION_BITS) * 10;
+        persistenceScore += Long.bitCount(annotations & PERSISTENCE_ANNOTATION_BITS) * 10;
+        domainScore += Long.bitCount(annotations & DOMAIN_ANNOTATION_BITS) * 10;
+        transferScore += Long.bitCount(annotations & TRANSFER_ANNOTATION_BITS) * 10;
         
         // Score by name patterns
-        controllerScore += scoreByNamePatterns(simpleClassName, CONTROLLER_NAME_PATTERNS) * 5;
-        businessScore += scoreByNamePatterns(simpleClassName, BUSINESS_NAME_PATTERNS) * 5;
-        persistenceScore += scoreByNamePatterns(simpleClassName, PERSISTENCE_NAME_PATTERNS) * 5;
-        domainScore += scoreByNamePatterns(simpleClassName, DOMAIN_NAME_PATTERNS) * 5;
-        transferScore += scoreByNamePatterns(simpleClassName, TRANSFER_NAME_PATTERNS) * 5;
-        sharedScore += scoreByNamePatterns(simpleClassName, SHARED_NAME_PATTERNS) * 5;
+        controllerScore += Long.bitCount(names & CONTROLLER_NAME_BITS) * 5;
+        businessScore += Long.bitCount(names & BUSINESS_NAME_BITS) * 5;
+        persistenceScore += Long.bitCount(names & PERSISTENCE_NAME_BITS) * 5;
+        domainScore += Long.bitCount(names & DOMAIN_NAME_BITS) * 5;
+        transferScore += Long.bitCount(names & TRANSFER_NAME_BITS) * 5;
+        sharedScore += Long.bitCount(names & SHARED_NAME_BITS) * 5;
         
         // Score by package patterns
-        controllerScore += scoreByPackagePatterns(componentId, CONTROLLER_PACKAGE_PATTERNS, ".services.") * 3;
-        businessScore += scoreByPackagePatterns(componentId, BUSINESS_PACKAGE_PATTERNS) * 3;
-        persistenceScore += scoreByPackagePatterns(componentId, PERSISTENCE_PACKAGE_PATTERNS) * 3;
-        domainScore += scoreByPackagePatterns(componentId, DOMAIN_PACKAGE_PATTERNS) * 3;
-        transferScore += scoreByPackagePatterns(componentId, TRANSFER_PACKAGE_PATTERNS) * 3;
-        sharedScore += scoreByPackagePatterns(componentId, SHARED_PACKAGE_PATTERNS) * 3;
+        controllerScore += Long.bitCount(packages & CONTROLLER_PACKAGE_BITS) * 3;
+        businessScore += Long.bitCount(packages & BUSINESS_PACKAGE_BITS) * 3;
+        persistenceScore += Long.bitCount(packages & PERSISTENCE_PACKAGE_BITS) * 3;
+        domainScore += Long.bitCount(packages & DOMAIN_PACKAGE_BITS) * 3;
+        transferScore += Long.bitCount(packages & TRANSFER_PACKAGE_BITS) * 3;
+        sharedScore += Long.bitCount(packages & SHARED_PACKAGE_BITS) * 3;
         
         // DISAMBIGUATION RULES
         
         // Rule 0: Explicit exclusions for consumers/clients (NOT controllers)
-        for (String pattern : NON_CONTROLLER_PATTERNS) {
-            if (simpleClassName.contains(pattern)) {
-                controllerScore = 0; // Never classify consumers/clients as controllers
-                sharedScore += 8; // Boost shared/business layer score
-                break;
-            }
+        if ((names & NON_CONTROLLER_NAME_BITS) != 0 && isNonController(extractSimpleClassName(component.getId()))) {
+            controllerScore = 0; // Never classify consumers/clients as controllers
+            sharedScore += 8; // Boost shared/business layer score
         }
         
         // Rule 1: Database access = PERSISTENCE (highest priority for data layers)
@@ -193,54 +256,49 @@ public class LayerClassifier {
         }
         
         // Rule 1.5: Provider with database access = PERSISTENCE (e.g., AfiMaeAfiliadoProvider with JDBC)
-        if (simpleClassName.toLowerCase().contains("provider") && usesDatabase) {
+        if ((names & PROVIDER_NAME) != 0 && usesDatabase) {
             persistenceScore += 20; // Very strong signal for persistence layer
             sharedScore = Math.max(0, sharedScore - 10); // Reduce shared score
             businessScore = Math.max(0, businessScore - 5); // Reduce business score
         }
         
         // Rule 2: @Entity annotation = PERSISTENCE (not domain)
-        if (hasAnnotation(component, "Entity") || hasAnnotation(component, "Table")) {
+        if ((annotations & ENTITY_ANNOTATION_BITS) != 0) {
             persistenceScore += 10;
             domainScore = 0; // @Entity is persistence, not domain
         }
         
         // Rule 3: Repository/Dao interface = PERSISTENCE
-        if (component.isInterface() && 
-            (simpleClassName.toLowerCase().contains("repository") || 
-             simpleClassName.toLowerCase().contains("dao"))) {
+        if (component.isInterface() && (names & REPOSITORY_OR_DAO_NAME) != 0) {
             persistenceScore += 10;
             businessScore = Math.max(0, businessScore - 5);
         }
         
         // Rule 4: DTO/Request/Response near controllers = TRANSFER
-        if ((simpleClassName.toLowerCase().matches(".*(dto|request|response|payload).*")) &&
-            (componentId.contains(".controller.") || componentId.contains(".rest.") || 
-             componentId.contains(".api."))) {
+        if ((names & TRANSFER_OBJECT_NAME) != 0 && (packages & API_CONTROLLER_PACKAGE) != 0) {
             transferScore += 8;
             domainScore = Math.max(0, domainScore - 5); // Reduce domain score for API objects
         }
         
         // Rule 5: Model/Domain without DB access = DOMAIN
-        if ((simpleClassName.toLowerCase().contains("model") || 
-             simpleClassName.toLowerCase().contains("domain") ||
-             componentId.contains(".domain.")) && !usesDatabase) {
+        if (((names & MODEL_OR_DOMAIN_NAME) != 0 || (packages & DOMAIN_PACKAGE) != 0) && !usesDatabase) {
             domainScore += 5;
         }
         
         // Rule 6: .services. and .api. packages are ambiguous
-        if (componentId.contains(".services.") && !hasRestAnnotations(component)) {
+        boolean hasRestAnnotations = (annotations & REST_ANNOTATION_BITS) != 0;
+        if ((packages & SERVICES_PACKAGE) != 0 && !hasRestAnnotations) {
             controllerScore -= 3;
             businessScore += 3;
         }
-        if (componentId.contains(".api.") && !hasRestAnnotations(component)) {
+        if ((packages & API_PACKAGE) != 0 && !hasRestAnnotations) {
             businessScore += 3;
         }
         
         // Rule 7: Interfaces without REST annotations default to Business
-        if (component.isInterface() && !hasRestAnnotations(component)) {
-            boolean isPersistenceInterface = simpleClassName.toLowerCase().matches(".*(repository|dao|mapper).*") ||
-                                             componentId.contains(".repository.") || componentId.contains(".dao.");
+        if (component.isInterface() && !hasRestAnnotations) {
+            boolean isPersistenceInterface = (names & PERSISTENCE_INTERFACE_NAME) != 0 ||
+                                             (packages & PERSISTENCE_INTERFACE_PACKAGE) != 0;
             if (!isPersistenceInterface) {
                 businessScore += 5;
                 controllerScore = Math.max(0, controllerScore - 5);
@@ -285,95 +343,94 @@ public class LayerClassifier {
     }
     
     /**
-     * Check if component has a specific annotation.
+     * Name pattern bits of the simple class name and package pattern bits of the id, both ignoring case.
      */
-    private boolean hasAnnotation(Component component, String annotation) {
-        List<String> annotations = component.getAnnotations();
-        if (annotations == null || annotations.isEmpty()) {
-            return false;
-        }
-        for (String ann : annotations) {
-            if (ann.equalsIgnoreCase(annotation)) {
-                return true;
-            }
-        }
-        return false;
+    private static long[] matchNameAndPackage(String componentId) {
+        return new long[] {
+            NAME_MATCHER.match(extractSimpleClassName(componentId)),
+            PACKAGE_MATCHER.match(componentId)
+        };
     }
     
-    private int scoreByAnnotations(Component component, List<String> annotations) {
-        int score = 0;
-        List<String> componentAnnotations = component.getAnnotations();
-        if (componentAnnotations == null || componentAnnotations.isEmpty()) {
-            return 0;
-        }
-        
-        for (String targetAnnotation : annotations) {
-            for (String componentAnnotation : componentAnnotations) {
-                if (componentAnnotation.equalsIgnoreCase(targetAnnotation)) {
-                    score++;
-                    break;
-                }
+    /**
+     * Annotation pattern bits of the component's annotations, ignoring case.
+     */
+    private static long matchAnnotations(Component component) {
+        long bits = 0;
+        List<String> annotations = component.getAnnotations();
+        if (annotations != null) {
+            for (String annotation : annotations) {
+                bits |= ANNOTATION_BITS.bits(annotation);
             }
         }
-        return score;
+        return bits;
     }
     
-    private int scoreByNamePatterns(String className, List<String> patterns) {
-        int score = 0;
-        for (String pattern : patterns) {
-            if (className.toLowerCase().contains(pattern.toLowerCase())) {
-                score++;
+    /**
+     * Consumer and client patterns are matched case-sensitively, unlike the other names.
+     */
+    private static boolean isNonController(String simpleClassName) {
+        for (String pattern : NON_CONTROLLER_PATTERNS) {
+            if (simpleClassName.contains(pattern)) {
+                return true;
             }
         }
-        return score;
-    }
-    
-    private int scoreByPackagePatterns(String fullClassName, List<String> patterns) {
-        return scoreByPackagePatterns(fullClassName, patterns, null);
+        return false;
     }
     
-    private int scoreByPackagePatterns(String fullClassName, List<String> patterns, String patternToExclude) {
-        int score = 0;
-        for (String pattern : patterns) {
-            if (patternToExclude != null && pattern.equals(patternToExclude)) {
-                continue; // Skip this pattern, will be handled specially
-            }
-            if (fullClassName.contains(pattern)) {
-                score++;
-            }
+    private static String extractSimpleClassName(String fullyQualifiedName) {
+        int lastDot = fullyQualifiedName.lastIndexOf('.');
+        if (lastDot >= 0 && lastDot < fullyQualifiedName.length() - 1) {
+            return fullyQualifiedName.substring(lastDot + 1);
         }
-        return score;
+        return fullyQualifiedName;
     }
     
-    private boolean hasRestAnnotations(Component component) {
-        List<String> annotations = component.getAnnotations();
-        if (annotations == null || annotations.isEmpty()) {
-            return false;
+    /**
+     * Numbers the patterns of the tables, one bit each, as they are added. Patterns are
+     * compared ignoring case, so a pattern listed twice with different case has two bits.
+     */
+    private static final class PatternBits {
+        private final Map<String, Long> bitsByPattern = new HashMap<>();
+        private final KeywordMatcher.Builder builder = KeywordMatcher.builder();
+        private int nextBit;
+        
+        /**
+         * @return the bits of the given patterns
+         */
+        long add(List<String> patterns) {
+            long bits = 0;
+            for (String pattern : patterns) {
+                if (nextBit == Long.SIZE) {
+                    throw new IllegalStateException("More than " + Long.SIZE + " patterns in one table set");
+                }
+                builder.add(nextBit, List.of(pattern));
+                bitsByPattern.merge(pattern.toLowerCase(Locale.ROOT), 1L << nextBit, (a, b) -> a | b);
+                bits |= 1L << nextBit++;
+            }
+            return bits;
         }
         
-        // JAX-RS and Spring REST annotations
-        List<String> restAnnotations = Arrays.asList(
-            "Path", "GET", "POST", "PUT", "DELETE", "PATCH",
-            "RestController", "Controller", "WebServlet",
-            "RequestMapping", "GetMapping", "PostMapping", "PutMapping", 
-            "DeleteMapping", "PatchMapping"
-        );
+        /**
+         * @return the bits of every pattern equal to the text ignoring case, 0 if none
+         */
+        long bits(String text) {
+            return bitsByPattern.getOrDefault(text.toLowerCase(Locale.ROOT), 0L);
+        }
         
-        for (String restAnnotation : restAnnotations) {
-            for (String componentAnnotation : annotations) {
-                if (componentAnnotation.equalsIgnoreCase(restAnnotation)) {
-                    return true;
-                }
+        /**
+         * @return the bits of a pattern that must have been added
+         */
+        long pattern(String pattern) {
+            long bits = bits(pattern);
+            if (bits == 0) {
+                throw new IllegalArgumentException("Unknown pattern: " + pattern);
             }
+            return bits;
         }
-        return false;
-    }
-    
-    private String extractSimpleClassName(String fullyQualifiedName) {
-        int lastDot = fullyQualifiedName.lastIndexOf('.');
-        if (lastDot >= 0 && lastDot < fullyQualifiedName.length() - 1) {
-            return fullyQualifiedName.substring(lastDot + 1);
+        
+        KeywordMatcher compile() {
+            return builder.build();
         }
-        return fullyQualifiedName;
     }
 }
@@ -1,136 +1,110 @@
 package com.extractor.inference;
 
 import com.extractor.model.Component;
-import com.extractor.model.DependencyGraph;
-import com.extractor.model.Edge;
 import java.util.*;
 
 /**
  * Calculates metrics for microservice candidate clusters.
+ * All clusters are measured together: a member-to-cluster index lets one pass over
+ * the members' edges and one pass over the components fill every cluster's metrics.
  */
 public class MetricsCalculator {
     
     /**
      * Calculates all metrics for a cluster.
      */
-    public ClusterMetrics calculateMetrics(Cluster cluster, DependencyGraph graph) {
-        ClusterMetrics metrics = new ClusterMetrics();
-        
-        List<Component> clusterComponents = getClusterComponents(cluster, graph.getComponents());
-        
-        // Calculate cohesion (internal calls / total possible internal calls)
-        metrics.setCohesion(calculateCohesion(cluster, graph));
-        
-        // Calculate coupling (external calls / total calls)
-        metrics.setCoupling(calculateCoupling(cluster, graph));
-        
-        // Find shared tables
-        metrics.setTablesShared(findSharedTables(clusterComponents));
-        
-        // Check for sensitive data
-        metrics.setSensitive(hasSensitiveData(clusterComponents));
-        
-        // Calculate lines of code
-        metrics.setLoc(calculateLOC(clusterComponents));
-        
-        return metrics;
+    public ClusterMetrics calculateMetrics(Cluster cluster, ComponentGraph graph) {
+        return calculateMetrics(Collections.singletonList(cluster), graph).get(0);
     }
     
     /**
-     * Calculates cohesion: how much components within the cluster call each other.
+     * Calculates all metrics for each cluster, in cluster order.
      */
-    private double calculateCohesion(Cluster cluster, DependencyGraph graph) {
-        Set<String> clusterMembers = new HashSet<>(cluster.getMembers());
-        if (clusterMembers.size() <= 1) {
-            return 0.0; // Single component has no internal cohesion
-        }
+    public List<ClusterMetrics> calculateMetrics(List<Cluster> clusters, ComponentGraph graph) {
+        ClusterIndex index = new ClusterIndex(clusters, graph);
+        int clusterCount = clusters.size();
         
-        int internalCalls = 0;
-        int totalPossibleCalls = 0;
+        // Edge weights leaving each cluster, split by whether the target is inside it
+        int[] internalCalls = new int[clusterCount];
+        int[] externalCalls = new int[clusterCount];
+        int[] totalCalls = new int[clusterCount];
+        countCalls(index, graph, internalCalls, externalCalls, totalCalls);
         
-        for (Edge edge : graph.getEdges()) {
-            boolean fromInCluster = clusterMembers.contains(edge.getFrom());
-            boolean toInCluster = clusterMembers.contains(edge.getTo());
-            
-            if (fromInCluster && toInCluster) {
-                internalCalls += edge.getWeight();
-            }
-            
-            if (fromInCluster) {
-                totalPossibleCalls += edge.getWeight();
+        // Component facts, accumulated in component list order
+        int[] loc = new int[clusterCount];
+        boolean[] sensitive = new boolean[clusterCount];
+        List<Map<String, Integer>> tableCounts = new ArrayList<>(clusterCount);
+        for (int k = 0; k < clusterCount; k++) {
+            tableCounts.add(new HashMap<>());
+        }
+        for (int id = 0; id < graph.componentCount(); id++) {
+            Component component = graph.component(id);
+            for (int m = index.start(id); m < index.end(id); m++) {
+                int k = index.cluster(m);
+                loc[k] += component.getLoc();
+                sensitive[k] |= component.isSensitiveData();
+                if (component.getTablesUsed() != null) {
+                    Map<String, Integer> tableCount = tableCounts.get(k);
+                    for (String table : component.getTablesUsed()) {
+                        tableCount.put(table, tableCount.getOrDefault(table, 0) + 1);
+                    }
+                }
             }
         }
         
-        return totalPossibleCalls > 0 ? (double) internalCalls / totalPossibleCalls : 0.0;
+        List<ClusterMetrics> result = new ArrayList<>(clusterCount);
+        for (int k = 0; k < clusterCount; k++) {
+            ClusterMetrics metrics = new ClusterMetrics();
+            
+            // Cohesion: internal calls / total possible internal calls; a single component has none
+            metrics.setCohesion(index.size(k) > 1 && totalCalls[k] > 0
+                    ? (double) internalCalls[k] / totalCalls[k] : 0.0);
+            
+            // Coupling: external calls / total calls
+            metrics.setCoupling(totalCalls[k] > 0 ? (double) externalCalls[k] / totalCalls[k] : 0.0);
+            
+            metrics.setTablesShared(findSharedTables(tableCounts.get(k)));
+            metrics.setSensitive(sensitive[k]);
+            metrics.setLoc(loc[k]);
+            result.add(metrics);
+        }
+        return result;
     }
     
     /**
-     * Calculates coupling: how much the cluster depends on external components.
+     * Walks the out-edges of every clustered component once and adds each edge's weight
+     * to the clusters of its source.
      */
-    private double calculateCoupling(Cluster cluster, DependencyGraph graph) {
-        Set<String> clusterMembers = new HashSet<>(cluster.getMembers());
-        
-        int externalCalls = 0;
-        int totalCalls = 0;
-        
-        for (Edge edge : graph.getEdges()) {
-            boolean fromInCluster = clusterMembers.contains(edge.getFrom());
-            boolean toInCluster = clusterMembers.contains(edge.getTo());
+    private void countCalls(ClusterIndex index, ComponentGraph graph,
+                            int[] internalCalls, int[] externalCalls, int[] totalCalls) {
+        for (int from = 0; from < graph.nodeCount(); from++) {
+            if (index.start(from) == index.end(from)) continue;
             
-            if (fromInCluster) {
-                totalCalls += edge.getWeight();
-                if (!toInCluster) {
-                    externalCalls += edge.getWeight();
+            for (int e = graph.outStart(from); e < graph.outEnd(from); e++) {
+                int to = graph.outTarget(e);
+                int weight = graph.outWeight(e);
+                for (int m = index.start(from); m < index.end(from); m++) {
+                    int k = index.cluster(m);
+                    totalCalls[k] += weight;
+                    if (index.contains(to, k)) {
+                        internalCalls[k] += weight;
+                    } else {
+                        externalCalls[k] += weight;
+                    }
                 }
             }
         }
-        
-        return totalCalls > 0 ? (double) externalCalls / totalCalls : 0.0;
     }
     
     /**
      * Finds tables that are shared among cluster components.
      * Only returns tables used by at least 2 components in the cluster.
      */
-    private List<String> findSharedTables(List<Component> components) {
-        Map<String, Integer> tableCount = new HashMap<>();
-        
-        for (Component component : components) {
-            if (component.getTablesUsed() != null) {
-                for (String table : component.getTablesUsed()) {
-                    tableCount.put(table, tableCount.getOrDefault(table, 0) + 1);
-                }
-            }
-        }
-        
+    private List<String> findSharedTables(Map<String, Integer> tableCount) {
         // Return only tables used by at least 2 components (actually shared)
         return tableCount.entrySet().stream()
             .filter(entry -> entry.getValue() >= 2)
             .map(Map.Entry::getKey)
             .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
     }
-    
-    /**
-     * Checks if any component in the cluster handles sensitive data.
-     */
-    private boolean hasSensitiveData(List<Component> components) {
-        return components.stream().anyMatch(Component::isSensitiveData);
-    }
-    
-    /**
-     * Calculates total lines of code for the cluster.
-     */
-    private int calculateLOC(List<Component> components) {
-        return components.stream().mapToInt(Component::getLoc).sum();
-    }
-    
-    /**
-     * Gets the Component objects for a cluster.
-     */
-    private List<Component> getClusterComponents(Cluster cluster, List<Component> allComponents) {
-        Set<String> memberIds = new HashSet<>(cluster.getMembers());
-        return allComponents.stream()
-                .filter(comp -> memberIds.contains(comp.getId()))
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-    }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.extractor.inference;
 
+import com.extractor.model.AnalysisMetrics;
 import com.extractor.model.Component;
 
 import java.util.*;
@@ -18,13 +19,26 @@ public class MicroserviceRecommendationEngine {
     /**
      * Analyzes candidates and generates consolidated architecture proposal.
      */
-    public ConsolidatedArchitecture analyzeConsolidated(MicroserviceCandidates candidates, List<Component> allComponents, Map<String, String> projectDependencies) {
+    public ConsolidatedArchitecture analyzeConsolidated(MicroserviceCandidates candidates, ComponentGraph componentGraph, Map<String, String> projectDependencies) {
+        return analyzeConsolidated(candidates, componentGraph, projectDependencies, AnalysisMetrics.disabled());
+    }
+    
+    /**
+     * Same as {@link #analyzeConsolidated(MicroserviceCandidates, ComponentGraph, Map)}, measuring
+     * the consolidation, the proposals and the project metadata into the given metrics.
+     */
+    public ConsolidatedArchitecture analyzeConsolidated(MicroserviceCandidates candidates, ComponentGraph componentGraph,
+                                                        Map<String, String> projectDependencies, AnalysisMetrics metrics) {
         List<Cluster> allClusters = candidates.getCandidates();
+        List<Component> allComponents = componentGraph.getComponents();
         
-        ClusterConsolidator consolidator = new ClusterConsolidator(allClusters, allComponents);
+        AnalysisMetrics.Timer timer = metrics.start("consolidation");
+        ClusterConsolidator consolidator = new ClusterConsolidator(allClusters, componentGraph);
         List<Set<Integer>> mergedGroups = consolidator.consolidate();
+        timer.stop();
         
-        ViabilityScorer scorer = new ViabilityScorer(allClusters, allComponents);
+        timer = metrics.start("proposals");
+        ViabilityScorer scorer = new ViabilityScorer(allClusters, componentGraph);
         
         List<MicroserviceProposal> proposals = new ArrayList<>();
         List<ConsolidatedArchitecture.SupportLibrary> supportLibraries = new ArrayList<>();
@@ -37,7 +51,7 @@ public class MicroserviceRecommendationEngine {
             if (isSupportGroup(group, allClusters)) {
                 supportLibraries.add(createSupportLibrary(proposalId++, group, allClusters));
             } else {
-                MicroserviceProposal proposal = createProposal(proposalId++, group, allClusters, allComponents, scorer);
+                MicroserviceProposal proposal = createProposal(proposalId++, group, allClusters, componentGraph, scorer);
                 proposals.add(proposal);
                 
                 List<Cluster> clusters = group.stream()
@@ -62,8 +76,12 @@ public class MicroserviceRecommendationEngine {
                 sortedInfra
             ));
         }
+        timer.stop();
+        metrics.count("microservices", proposals.size());
+        metrics.count("support_libraries", supportLibraries.size());
         
         // Calculate project metadata
+        timer = metrics.start("project_metadata");
         int totalLoc = allComponents.stream().mapToInt(Component::getLoc).sum();
         int componentsWithSecrets = (int) allComponents.stream()
             .filter(c -> c.getSecretsReferences() != null && !c.getSecretsReferences().isEmpty())
@@ -100,6 +118,7 @@ public class MicroserviceRecommendationEngine {
         );
         
         String summary = generateConsolidatedSummary(proposals, supportLibraries);
+        timer.stop();
         
         return new ConsolidatedArchitecture(metadata, proposals, supportLibraries, summary);
     }
@@ -126,7 +145,7 @@ public class MicroserviceRecommendationEngine {
     
     private MicroserviceProposal createProposal(int id, Set<Integer> clusterIds, 
                                                 List<Cluster> allClusters, 
-                                                List<Component> allComponents,
+                                                ComponentGraph componentGraph,
                                                 ViabilityScorer scorer) {
         String name = MicroserviceNameGenerator.generateName(clusterIds, allClusters);
         ViabilityScorer.ViabilityResult viabilityResult = scorer.calculateViability(clusterIds);
@@ -143,8 +162,8 @@ public class MicroserviceRecommendationEngine {
             .sorted()
             .collect(Collectors.toList());
         
-        MicroserviceProposal.ConsolidatedMetrics metrics = calculateConsolidatedMetrics(clusters, allComponents, true);
-        Map<String, Object> signals = calculateSignalsMap(clusters, allComponents);
+        MicroserviceProposal.ConsolidatedMetrics metrics = calculateConsolidatedMetrics(clusters, componentGraph, true);
+        Map<String, Object> signals = calculateSignalsMap(clusters);
         List<String> recommendedActions = generateActions(viabilityResult.getViability(), metrics);
         
         return new MicroserviceProposal(
@@ -168,12 +187,17 @@ public class MicroserviceRecommendationEngine {
         return new ConsolidatedArchitecture.SupportLibrary(id, name, new ArrayList<>(clusterIds), componentNames);
     }
     
-    private MicroserviceProposal.ConsolidatedMetrics calculateConsolidatedMetrics(List<Cluster> clusters, List<Component> allComponents, boolean filterInfrastructure) {
-        Set<String> allMembers = clusters.stream()
-            .flatMap(c -> c.getMembers().stream())
-            .filter(comp -> !filterInfrastructure || !isInfrastructureComponent(comp))
-            .collect(Collectors.toSet());
-        int size = allMembers.size();
+    private MicroserviceProposal.ConsolidatedMetrics calculateConsolidatedMetrics(List<Cluster> clusters, ComponentGraph componentGraph, boolean filterInfrastructure) {
+        BitSet allMembers = new BitSet(componentGraph.nodeCount());
+        for (Cluster c : clusters) {
+            for (String member : c.getMembers()) {
+                int id = componentGraph.idOf(member);
+                if (id >= 0 && (!filterInfrastructure || !isInfrastructureComponent(member))) {
+                    allMembers.set(id);
+                }
+            }
+        }
+        int size = allMembers.cardinality();
         
         Map<String, Double> componentCohesion = new HashMap<>();
         for (Cluster c : clusters) {
@@ -188,20 +212,14 @@ public class MicroserviceRecommendationEngine {
         double cohesionAvg = componentCohesion.isEmpty() ? 0.0 : 
             componentCohesion.values().stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
         
-        Map<String, Component> componentMap = allComponents.stream()
-            .collect(Collectors.toMap(Component::getId, c -> c));
-        
         int internalCalls = 0;
         int externalCalls = 0;
-        for (String member : allMembers) {
-            Component comp = componentMap.get(member);
-            if (comp != null && comp.getCallsOut() != null) {
-                for (String called : comp.getCallsOut()) {
-                    if (allMembers.contains(called)) {
-                        internalCalls++;
-                    } else {
-                        externalCalls++;
-                    }
+        for (int member = allMembers.nextSetBit(0); member >= 0; member = allMembers.nextSetBit(member + 1)) {
+            for (int c = componentGraph.callStart(member); c < componentGraph.callEnd(member); c++) {
+                if (allMembers.get(componentGraph.callTarget(c))) {
+                    internalCalls++;
+                } else {
+                    externalCalls++;
                 }
             }
         }
@@ -226,7 +244,7 @@ public class MicroserviceRecommendationEngine {
         );
     }
     
-    private Map<String, Object> calculateSignalsMap(List<Cluster> clusters, List<Component> allComponents) {
+    private Map<String, Object> calculateSignalsMap(List<Cluster> clusters) {
         Map<String, Object> signals = new HashMap<>();
         signals.put("cluster_count", clusters.size());
         signals.put("total_components", clusters.stream().mapToInt(c -> c.getMembers().size()).sum());
@@ -5,21 +5,20 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class ViabilityScorer {
-    private final List<Cluster> allClusters;
-    private final Map<String, Component> componentMap;
+    private final Map<Integer, Cluster> clustersById;
+    private final ComponentGraph componentGraph;
 
-    public ViabilityScorer(List<Cluster> allClusters, List<Component> allComponents) {
-        this.allClusters = allClusters;
-        this.componentMap = allComponents.stream()
-            .collect(Collectors.toMap(Component::getId, c -> c));
+    public ViabilityScorer(List<Cluster> allClusters, ComponentGraph componentGraph) {
+        this.clustersById = new HashMap<>();
+        for (Cluster cluster : allClusters) {
+            clustersById.putIfAbsent(cluster.getClusterId(), cluster);
+        }
+        this.componentGraph = componentGraph;
     }
 
     public ViabilityResult calculateViability(Set<Integer> clusterIds) {
         List<Cluster> clusters = clusterIds.stream()
-            .map(id -> allClusters.stream()
-                .filter(c -> c.getClusterId() == id)
-                .findFirst()
-                .orElse(null))
+            .map(clustersById::get)
             .filter(Objects::nonNull)
             .collect(Collectors.toList());
         
@@ -76,43 +75,34 @@ public class ViabilityScorer {
     }
 
     private double calculateInternalEdgeDensity(List<Cluster> clusters) {
-        Set<String> allMembers = clusters.stream()
-            .flatMap(c -> c.getMembers().stream())
-            .collect(Collectors.toSet());
+        BitSet allMembers = memberSet(clusters);
         
         int internalEdges = 0;
-        for (String member : allMembers) {
-            Component comp = componentMap.get(member);
-            if (comp != null && comp.getCallsOut() != null) {
-                for (String called : comp.getCallsOut()) {
-                    if (allMembers.contains(called)) {
-                        internalEdges++;
-                    }
+        for (int member = allMembers.nextSetBit(0); member >= 0; member = allMembers.nextSetBit(member + 1)) {
+            for (int c = componentGraph.callStart(member); c < componentGraph.callEnd(member); c++) {
+                if (allMembers.get(componentGraph.callTarget(c))) {
+                    internalEdges++;
                 }
             }
         }
         
-        int possibleEdges = allMembers.size() * (allMembers.size() - 1);
+        int memberCount = allMembers.cardinality();
+        int possibleEdges = memberCount * (memberCount - 1);
         return possibleEdges > 0 ? (double) internalEdges / possibleEdges : 0.0;
     }
 
     private double calculateExternalCoupling(List<Cluster> clusters, Set<Integer> clusterIds) {
-        Set<String> members = clusters.stream()
-            .flatMap(c -> c.getMembers().stream())
-            .collect(Collectors.toSet());
+        BitSet members = memberSet(clusters);
         
         int internalCalls = 0;
         int externalCalls = 0;
         
-        for (String member : members) {
-            Component comp = componentMap.get(member);
-            if (comp != null && comp.getCallsOut() != null) {
-                for (String called : comp.getCallsOut()) {
-                    if (members.contains(called)) {
-                        internalCalls++;
-                    } else {
-                        externalCalls++;
-                    }
+        for (int member = members.nextSetBit(0); member >= 0; member = members.nextSetBit(member + 1)) {
+            for (int c = componentGraph.callStart(member); c < componentGraph.callEnd(member); c++) {
+                if (members.get(componentGraph.callTarget(c))) {
+                    internalCalls++;
+                } else {
+                    externalCalls++;
                 }
             }
         }
@@ -121,6 +111,14 @@ public class ViabilityScorer {
         return totalCalls > 0 ? (double) externalCalls / totalCalls : 0.0;
     }
 
+    private BitSet memberSet(List<Cluster> clusters) {
+        BitSet members = new BitSet(componentGraph.nodeCount());
+        for (Cluster cluster : clusters) {
+            members.or(componentGraph.memberSet(cluster.getMembers()));
+        }
+        return members;
+    }
+
     private double calculateDataCohesion(List<Cluster> clusters) {
         Set<String> allTables = clusters.stream()
             .flatMap(c -> c.getMetrics().getTablesShared().stream())
@@ -146,7 +144,9 @@ public class ViabilityScorer {
         List<Component> components = clusters.stream()
             .flatMap(c -> c.getMembers().stream())
             .distinct()
-            .map(componentMap::get)
+            .map(componentGraph::idOf)
+            .filter(id -> id >= 0)
+            .map(componentGraph::component)
             .filter(Objects::nonNull)
             .collect(Collectors.toList());
         
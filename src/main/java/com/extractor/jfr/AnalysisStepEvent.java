@@ -0,0 +1,21 @@
+package com.extractor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One step of the analysis or of the inference, as measured by
+ * {@link com.extractor.model.AnalysisMetrics}: a {@code ProjectAnalyzer} pass, the model
+ * build, or an inference step. Emitted whether or not --metrics is enabled.
+ */
+@Name("com.extractor.AnalysisStep")
+@Label("Analysis Step")
+@Category({"Inference Engine", "Analysis"})
+@Description("A pass of the project analyzer or a step of the inference")
+public class AnalysisStepEvent extends jdk.jfr.Event {
+
+    @Label("Step")
+    public String step;
+}
@@ -0,0 +1,27 @@
+package com.extractor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One clustering strategy run by {@code ClusteringAlgorithm}. Several may run for one
+ * project, when a strategy gives clusters that are rejected.
+ */
+@Name("com.extractor.ClusteringStrategy")
+@Label("Clustering Strategy")
+@Category({"Inference Engine", "Inference"})
+@Description("Creation of the initial clusters with one strategy")
+public class ClusteringStrategyEvent extends jdk.jfr.Event {
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Components")
+    public int componentCount;
+
+    @Label("Clusters")
+    @Description("Clusters created by the strategy")
+    public int clusterCount;
+}
@@ -0,0 +1,23 @@
+package com.extractor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Merge of the clusters into microservice groups by {@code ClusterConsolidator}.
+ */
+@Name("com.extractor.Consolidation")
+@Label("Cluster Consolidation")
+@Category({"Inference Engine", "Inference"})
+@Description("Merge of related clusters into microservice groups")
+public class ConsolidationEvent extends jdk.jfr.Event {
+
+    @Label("Clusters")
+    public int clusterCount;
+
+    @Label("Groups")
+    @Description("Groups left after merging")
+    public int groupCount;
+}
@@ -0,0 +1,24 @@
+package com.extractor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Build of one Spoon model, over a whole project, one source root or some source files.
+ */
+@Name("com.extractor.ModelBuild")
+@Label("Spoon Model Build")
+@Category({"Inference Engine", "Analysis"})
+@Description("Parsing of Java sources into a Spoon model")
+public class ModelBuildEvent extends jdk.jfr.Event {
+
+    @Label("Inputs")
+    @Description("Source roots or files given to the launcher, or their count when there are several")
+    public String inputs;
+
+    @Label("Types")
+    @Description("Top-level types in the model")
+    public int typeCount;
+}
@@ -0,0 +1,27 @@
+package com.extractor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Analysis of one project type. Only recorded above the event threshold, 10 ms by default,
+ * which recordings can change like any JFR setting (for instance
+ * {@code com.extractor.TypeAnalysis#threshold=50 ms} in a .jfc file).
+ */
+@Name("com.extractor.TypeAnalysis")
+@Label("Type Analysis")
+@Category({"Inference Engine", "Analysis"})
+@Description("Single AST traversal of one project type")
+@Threshold("10 ms")
+public class TypeAnalysisEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    @Description("Qualified name of the analyzed type")
+    public String qualifiedName;
+
+    @Label("Method Invocations")
+    public int invocationCount;
+}
@@ -0,0 +1,241 @@
+package com.extractor.model;
+
+import com.extractor.jfr.AnalysisStepEvent;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wall time, CPU time and allocated bytes of each analysis and inference step, plus
+ * counters and the slowest types to analyze. Written to the graph metadata when metrics
+ * are enabled; a disabled instance measures nothing, but its steps are still emitted as
+ * {@link AnalysisStepEvent}s for Flight Recorder.
+ *
+ * CPU time is the CPU time of the whole process, so it includes the worker threads of
+ * parallel steps, the garbage collector and the JIT compiler. Allocated bytes are those
+ * of the thread running the step, plus those of the types analyzed on worker threads.
+ * Values are -1 when the JVM does not provide them.
+ */
+public class AnalysisMetrics {
+
+    private static final int SLOWEST_TYPES = 10;
+    private static final AnalysisMetrics DISABLED = new AnalysisMetrics(false);
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean();
+
+    @JsonProperty("steps")
+    private final List<Step> steps = new ArrayList<>();
+
+    @JsonProperty("counters")
+    private final Map<String, Long> counters = new TreeMap<>();
+
+    // Fastest of the slowest types first, so the head is the one to replace
+    private final PriorityQueue<TypeTiming> slowestTypes = new PriorityQueue<>(
+            Comparator.comparingLong((TypeTiming timing) -> timing.wallNanos)
+                    .thenComparing(timing -> timing.type, Comparator.reverseOrder()));
+
+    private final boolean enabled;
+    // Thread running the steps; types analyzed on other threads add their allocations
+    private final Thread owner;
+    private final AtomicLong workerAllocatedBytes = new AtomicLong();
+
+    public AnalysisMetrics() {
+        this(true);
+    }
+
+    private AnalysisMetrics(boolean enabled) {
+        this.enabled = enabled;
+        this.owner = Thread.currentThread();
+    }
+
+    /**
+     * An instance that records nothing.
+     */
+    public static AnalysisMetrics disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * The given metrics, or the disabled instance when there are none.
+     */
+    public static AnalysisMetrics orDisabled(AnalysisMetrics metrics) {
+        return metrics != null ? metrics : DISABLED;
+    }
+
+    @JsonIgnore
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts measuring a step; it is recorded when the returned timer is stopped.
+     */
+    public Timer start(String step) {
+        return new Timer(enabled ? this : null, step);
+    }
+
+    public synchronized void count(String counter, long value) {
+        if (enabled) {
+            counters.merge(counter, value, Long::sum);
+        }
+    }
+
+    /**
+     * Records the analysis of one type, for the slowest types and the allocations of workers.
+     */
+    public void recordType(String type, long wallNanos, long allocatedBytes) {
+        if (!enabled) {
+            return;
+        }
+        if (Thread.currentThread() != owner && allocatedBytes > 0) {
+            workerAllocatedBytes.addAndGet(allocatedBytes);
+        }
+        synchronized (this) {
+            slowestTypes.add(new TypeTiming(type, wallNanos, allocatedBytes));
+            if (slowestTypes.size() > SLOWEST_TYPES) {
+                slowestTypes.poll();
+            }
+        }
+    }
+
+    public synchronized List<Step> getSteps() {
+        return new ArrayList<>(steps);
+    }
+
+    public synchronized Map<String, Long> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    /** Slowest types, slowest first. */
+    @JsonProperty("slowest_types")
+    public synchronized List<TypeTiming> getSlowestTypes() {
+        List<TypeTiming> slowest = new ArrayList<>(slowestTypes);
+        slowest.sort(slowestTypes.comparator().reversed());
+        return slowest;
+    }
+
+    private synchronized void add(Step step) {
+        steps.add(step);
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 when not supported.
+     */
+    public static long threadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long processCpuNanos() {
+        if (OS instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) OS).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    private static double millis(long nanos) {
+        return nanos < 0 ? -1 : Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * A step being measured.
+     */
+    public static final class Timer {
+        private final AnalysisMetrics metrics;
+        private final String step;
+        private final AnalysisStepEvent event = new AnalysisStepEvent();
+        private final long startNanos;
+        private final long startCpuNanos;
+        private final long startAllocatedBytes;
+        private final long startWorkerAllocatedBytes;
+
+        private Timer(AnalysisMetrics metrics, String step) {
+            this.metrics = metrics;
+            this.step = step;
+            event.begin();
+            if (metrics == null) {
+                startNanos = startCpuNanos = startAllocatedBytes = startWorkerAllocatedBytes = 0;
+                return;
+            }
+            this.startAllocatedBytes = threadAllocatedBytes();
+            this.startWorkerAllocatedBytes = metrics.workerAllocatedBytes.get();
+            this.startCpuNanos = processCpuNanos();
+            this.startNanos = System.nanoTime();
+        }
+
+        public void stop() {
+            event.end();
+            if (event.shouldCommit()) {
+                event.step = step;
+                event.commit();
+            }
+            if (metrics == null) {
+                return;
+            }
+            long wallNanos = System.nanoTime() - startNanos;
+            long cpuNanos = startCpuNanos < 0 ? -1 : processCpuNanos() - startCpuNanos;
+            long allocatedBytes = startAllocatedBytes < 0 ? -1 : threadAllocatedBytes() - startAllocatedBytes
+                    + metrics.workerAllocatedBytes.get() - startWorkerAllocatedBytes;
+            metrics.add(new Step(step, millis(wallNanos), millis(cpuNanos), allocatedBytes));
+        }
+    }
+
+    /**
+     * Measurements of one step.
+     */
+    public static class Step {
+        @JsonProperty("name")
+        private final String name;
+        @JsonProperty("wall_ms")
+        private final double wallMs;
+        @JsonProperty("cpu_ms")
+        private final double cpuMs;
+        @JsonProperty("allocated_bytes")
+        private final long allocatedBytes;
+
+        Step(String name, double wallMs, double cpuMs, long allocatedBytes) {
+            this.name = name;
+            this.wallMs = wallMs;
+            this.cpuMs = cpuMs;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getName() { return name; }
+        public double getWallMs() { return wallMs; }
+        public double getCpuMs() { return cpuMs; }
+        public long getAllocatedBytes() { return allocatedBytes; }
+    }
+
+    /**
+     * Analysis time of one type.
+     */
+    public static class TypeTiming {
+        @JsonProperty("type")
+        private final String type;
+        @JsonProperty("wall_ms")
+        private final double wallMs;
+        @JsonProperty("allocated_bytes")
+        private final long allocatedBytes;
+
+        private final long wallNanos;
+
+        TypeTiming(String type, long wallNanos, long allocatedBytes) {
+            this.type = type;
+            this.wallNanos = wallNanos;
+            this.wallMs = millis(wallNanos);
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getType() { return type; }
+        public double getWallMs() { return wallMs; }
+        public long getAllocatedBytes() { return allocatedBytes; }
+    }
+}
@@ -1,5 +1,6 @@
 package com.extractor.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Map;
 import java.util.HashMap;
@@ -16,6 +17,10 @@ public class ApiSchema {
         this.name = name;
     }
 
+    // Used by Jackson when reading cached schemas
+    private ApiSchema() {
+    }
+
     @JsonProperty("type")
     public String getType() {
         return type;
@@ -33,7 +38,8 @@ public class ApiSchema {
     public static class Property {
         private String type;
 
-        public Property(String type) {
+        @JsonCreator
+        public Property(@JsonProperty("type") String type) {
             this.type = type;
         }
 
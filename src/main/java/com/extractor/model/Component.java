@@ -4,13 +4,18 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Represents a component (class/interface/enum) in the dependency graph.
  * This matches the Sofka schema exactly - simple lists for calls_out/calls_in,
- * no dependencies field.
+ * no dependencies field. Calls are held in insertion-ordered sets so adding one
+ * is constant time; they serialize as JSON arrays like the other lists.
  */
 public class Component {
 
@@ -36,10 +41,10 @@ public class Component {
     private String layer;
 
     @JsonProperty("calls_out")
-    private List<String> callsOut;
+    private Set<String> callsOut;
 
     @JsonProperty("calls_in")
-    private List<String> callsIn;
+    private Set<String> callsIn;
 
     @JsonProperty("ejb_type")
     private String ejbType;
@@ -89,11 +94,20 @@ public class Component {
     @JsonProperty("lcom")
     private Double lcom; // Lack of Cohesion in Methods (LCOM-HS: 0=high cohesion, 1=low cohesion)
 
+    @JsonProperty("lcom4")
+    private Integer lcom4; // Connected components of methods (1=cohesive, more=could be split)
+
+    @JsonProperty("tcc")
+    private Double tcc; // Tight Class Cohesion (0=low cohesion, 1=high cohesion)
+
+    @JsonProperty("lcc")
+    private Double lcc; // Loose Class Cohesion (0=low cohesion, 1=high cohesion)
+
     public Component() {
         this.files = new ArrayList<>();
         this.tablesUsed = new ArrayList<>();
-        this.callsOut = new ArrayList<>();
-        this.callsIn = new ArrayList<>();
+        this.callsOut = new LinkedHashSet<>();
+        this.callsIn = new LinkedHashSet<>();
         this.annotations = new ArrayList<>();
         this.secretsReferences = new ArrayList<>();
         this.externalDependencies = new ArrayList<>();
@@ -190,32 +204,28 @@ public class Component {
         this.layer = layer;
     }
 
-    public List<String> getCallsOut() {
+    public Set<String> getCallsOut() {
         return callsOut;
     }
 
-    public void setCallsOut(List<String> callsOut) {
-        this.callsOut = callsOut;
+    public void setCallsOut(Collection<String> callsOut) {
+        this.callsOut = callsOut != null ? new LinkedHashSet<>(callsOut) : null;
     }
 
     public void addCallOut(String to) {
-        if (!callsOut.contains(to)) {
-            callsOut.add(to);
-        }
+        callsOut.add(to);
     }
 
-    public List<String> getCallsIn() {
+    public Set<String> getCallsIn() {
         return callsIn;
     }
 
-    public void setCallsIn(List<String> callsIn) {
-        this.callsIn = callsIn;
+    public void setCallsIn(Collection<String> callsIn) {
+        this.callsIn = callsIn != null ? new LinkedHashSet<>(callsIn) : null;
     }
 
     public void addCallIn(String from) {
-        if (!callsIn.contains(from)) {
-            callsIn.add(from);
-        }
+        callsIn.add(from);
     }
 
     public String getEjbType() {
@@ -362,6 +372,30 @@ public class Component {
         this.lcom = lcom;
     }
 
+    public Integer getLcom4() {
+        return lcom4;
+    }
+
+    public void setLcom4(Integer lcom4) {
+        this.lcom4 = lcom4;
+    }
+
+    public Double getTcc() {
+        return tcc;
+    }
+
+    public void setTcc(Double tcc) {
+        this.tcc = tcc;
+    }
+
+    public Double getLcc() {
+        return lcc;
+    }
+
+    public void setLcc(Double lcc) {
+        this.lcc = lcc;
+    }
+
     /**
      * Normalize the component data by sorting and deduplicating collections.
      */
@@ -369,9 +403,9 @@ public class Component {
         // Sort and deduplicate tables_used
         tablesUsed = tablesUsed.stream().distinct().sorted().collect(Collectors.toList());
 
-        // Sort and deduplicate calls_out and calls_in
-        callsOut = callsOut.stream().distinct().sorted().collect(Collectors.toList());
-        callsIn = callsIn.stream().distinct().sorted().collect(Collectors.toList());
+        // Sort calls_out and calls_in; the sets hold no duplicates
+        callsOut = sorted(callsOut);
+        callsIn = sorted(callsIn);
 
         // Sort and deduplicate annotations
         annotations = annotations.stream().distinct().sorted().collect(Collectors.toList());
@@ -386,6 +420,12 @@ public class Component {
         implementsInterfaces = implementsInterfaces.stream().distinct().sorted().collect(Collectors.toList());
     }
 
+    private static Set<String> sorted(Set<String> values) {
+        List<String> list = new ArrayList<>(values);
+        Collections.sort(list);
+        return new LinkedHashSet<>(list);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
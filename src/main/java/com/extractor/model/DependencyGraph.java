@@ -1,5 +1,6 @@
 package com.extractor.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.Instant;
@@ -111,6 +112,11 @@ public class DependencyGraph {
         @JsonProperty("decomposition_accuracy")
         private Map<String, Object> decompositionAccuracy;
 
+        // Only present when metrics are enabled
+        @JsonProperty("metrics")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private AnalysisMetrics metrics;
+
         public Meta() {
             this.collectedAt = Instant.now().toString();
             this.microserviceCandidates = new HashMap<>();
@@ -155,5 +161,13 @@ public class DependencyGraph {
         public void setDecompositionAccuracy(Map<String, Object> decompositionAccuracy) {
             this.decompositionAccuracy = decompositionAccuracy;
         }
+
+        public AnalysisMetrics getMetrics() {
+            return metrics;
+        }
+
+        public void setMetrics(AnalysisMetrics metrics) {
+            this.metrics = metrics;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.extractor.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kinds of dependency an edge aggregates, each one bit of a type mask.
+ * The declaration order is the order the kinds are listed in an edge's type string
+ * ("call,uses"); it follows the order these labels have always been written in.
+ */
+public enum EdgeType {
+    CALL("call"),
+    INJECTION_FIELD("injection-field"),
+    INTERFACE_IMPL("interface_impl"),
+    EXTERNAL("external"),
+    REFLECTION("reflection"),
+    INJECTION_CONSTRUCTOR("injection-constructor"),
+    USES("uses"),
+    REPOSITORY("repository"),
+    DB("db"),
+    RELATION("relation"),
+    SPRING_EVENT("spring_event");
+
+    private static final EdgeType[] VALUES = values();
+    private static final Map<String, EdgeType> BY_LABEL = new HashMap<>();
+
+    static {
+        for (EdgeType type : VALUES) {
+            BY_LABEL.put(type.label, type);
+        }
+    }
+
+    private final String label;
+
+    EdgeType(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /** Bit of this kind in a type mask. */
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /** Number of distinct type masks, for tables indexed by mask. */
+    public static int maskCount() {
+        return 1 << VALUES.length;
+    }
+
+    /**
+     * The kind with this label.
+     */
+    public static EdgeType fromLabel(String label) {
+        EdgeType type = BY_LABEL.get(label);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown edge type: " + label);
+        }
+        return type;
+    }
+
+    /**
+     * Type string of a mask: the labels of its kinds joined by commas.
+     */
+    public static String join(int mask) {
+        StringBuilder joined = new StringBuilder();
+        for (EdgeType type : VALUES) {
+            if ((mask & type.bit()) != 0) {
+                if (joined.length() > 0) {
+                    joined.append(',');
+                }
+                joined.append(type.label);
+            }
+        }
+        return joined.toString();
+    }
+}
@@ -0,0 +1,304 @@
+package com.extractor.server;
+
+import com.extractor.analyzer.AnalyzerOptions;
+import com.extractor.utils.JsonStreamWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP server that keeps analyzed projects in memory between requests, so repeated
+ * queries on the same repositories skip JVM startup, Spoon class loading and the model
+ * build. Requests are served one at a time, on a single worker thread.
+ *
+ * Every endpoint takes the project directory as the {@code project} query parameter:
+ * <ul>
+ *   <li>{@code POST /analyze} analyzes the project if it is not in memory or its files
+ *       changed ({@code refresh=true} forces it) and returns a summary.</li>
+ *   <li>{@code POST /infer} runs the inference and recommendation engines again.</li>
+ *   <li>{@code POST /export?output=FILE} writes the three output files, as the command line does.
+ *       FILE is resolved against the export directory and cannot leave it.</li>
+ *   <li>{@code GET /graph}, {@code /architecture}, {@code /entrypoints} return the outputs.</li>
+ *   <li>{@code GET /status} lists the projects in memory; it takes no project.</li>
+ * </ul>
+ *
+ * POST requests must carry the {@value #CLIENT_HEADER} header. A custom header makes a
+ * cross-origin request non-simple, so browsers send a CORS preflight first; the server does
+ * not answer it, and web pages the developer visits cannot trigger analyses or exports.
+ */
+public class AnalysisServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisServer.class);
+
+    static final String CLIENT_HEADER = "X-Analysis-Client";
+
+    private final AnalyzerOptions options;
+    private final Path exportDirectory;
+    private final ProjectSessions sessions;
+    private final JsonStreamWriter jsonWriter = new JsonStreamWriter();
+    private final HttpServer httpServer;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "analysis-server"));
+
+    public AnalysisServer(AnalyzerOptions options, int port, long memoryBudgetBytes, Path exportDirectory)
+            throws IOException {
+        // Sessions keep the per-type analysis in memory, so a re-analysis only parses the changed files
+        this.options = options.toBuilder().inMemoryCache(true).build();
+        this.exportDirectory = exportDirectory.toRealPath();
+        this.sessions = new ProjectSessions(memoryBudgetBytes);
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        httpServer.createContext("/", this::handle);
+        httpServer.setExecutor(executor);
+    }
+
+    public void start() {
+        httpServer.start();
+        logger.info("Analysis server listening on {} with a memory budget of {} MB, exporting to {}",
+                httpServer.getAddress(), sessions.getMemoryBudgetBytes() >> 20, exportDirectory);
+    }
+
+    public void stop() {
+        httpServer.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String path = exchange.getRequestURI().getPath();
+        try {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            switch (path) {
+                case "/status":
+                    requireMethod(exchange, "GET");
+                    respond(exchange, 200, status());
+                    break;
+                case "/analyze": {
+                    requireMethod(exchange, "POST");
+                    boolean refresh = Boolean.parseBoolean(query.get("refresh"));
+                    ProjectSession session = sessionFor(query, refresh);
+                    respond(exchange, 200, summary(session, start));
+                    break;
+                }
+                case "/infer": {
+                    requireMethod(exchange, "POST");
+                    ProjectSession session = existingSession(query);
+                    if (session != null && !session.isStale()) {
+                        session.infer();
+                        sessions.put(session);
+                    } else {
+                        // Analyzing the project runs the inference as well
+                        session = sessionFor(query, false);
+                    }
+                    respond(exchange, 200, summary(session, start));
+                    break;
+                }
+                case "/export": {
+                    requireMethod(exchange, "POST");
+                    Path output = exportPath(required(query, "output"));
+                    ProjectSession session = sessionFor(query, false);
+                    session.export(output, jsonWriter);
+                    Map<String, Object> body = summary(session, start);
+                    body.put("output", output.toString());
+                    respond(exchange, 200, body);
+                    break;
+                }
+                case "/graph": {
+                    requireMethod(exchange, "GET");
+                    ProjectSession session = sessionFor(query, false);
+                    respond(exchange, 200, out -> jsonWriter.writeDependencyGraph(session.getGraph(), out));
+                    break;
+                }
+                case "/architecture":
+                    requireMethod(exchange, "GET");
+                    respond(exchange, 200, sessionFor(query, false).getArchitecture());
+                    break;
+                case "/entrypoints":
+                    requireMethod(exchange, "GET");
+                    respond(exchange, 200, sessionFor(query, false).getGraph().getApiContracts());
+                    break;
+                default:
+                    respond(exchange, 404, error("Ruta desconocida: " + path));
+            }
+        } catch (MethodNotAllowedException e) {
+            respond(exchange, 405, error(e.getMessage()));
+        } catch (ForbiddenException e) {
+            respond(exchange, 403, error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Request {} failed", exchange.getRequestURI(), e);
+            respond(exchange, 500, error("Error durante el análisis: " + e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * The session of the requested project, analyzed if it is not in memory, if its files
+     * changed, or if a refresh is requested.
+     */
+    private ProjectSession sessionFor(Map<String, String> query, boolean refresh) throws Exception {
+        Path projectRoot = projectRoot(query);
+        ProjectSession session = sessions.get(projectRoot);
+        if (session == null) {
+            session = new ProjectSession(projectRoot, options);
+        }
+        if (refresh || !session.isAnalyzed() || session.isStale()) {
+            logger.info("Analyzing {}", projectRoot);
+            session.analyze();
+        }
+        sessions.put(session);
+        return session;
+    }
+
+    private ProjectSession existingSession(Map<String, String> query) throws IOException {
+        return sessions.get(projectRoot(query));
+    }
+
+    private Path projectRoot(Map<String, String> query) throws IOException {
+        Path projectRoot = Paths.get(required(query, "project"));
+        if (!Files.isDirectory(projectRoot)) {
+            throw new IllegalArgumentException("El proyecto no es un directorio: " + projectRoot);
+        }
+        try {
+            return projectRoot.toRealPath();
+        } catch (NoSuchFileException e) {
+            throw new IllegalArgumentException("El proyecto no existe: " + projectRoot);
+        }
+    }
+
+    /**
+     * The output file, resolved against the export directory. Its directory must exist and,
+     * with symbolic links resolved, lie inside the export directory.
+     */
+    private Path exportPath(String output) throws IOException {
+        Path file = exportDirectory.resolve(output).normalize();
+        Path directory = file.getParent();
+        if (directory == null || !Files.isDirectory(directory)
+                || !directory.toRealPath().startsWith(exportDirectory)) {
+            throw new IllegalArgumentException("La salida debe estar dentro del directorio de exportación: "
+                    + exportDirectory);
+        }
+        return directory.toRealPath().resolve(file.getFileName());
+    }
+
+    private Map<String, Object> summary(ProjectSession session, long startNanos) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("project", session.getProjectRoot().toString());
+        summary.put("components", session.getGraph().getComponents().size());
+        summary.put("edges", session.getGraph().getEdges().size());
+        summary.put("clusters", session.getCandidates().getCandidates().size());
+        summary.put("elapsed_ms", (System.nanoTime() - startNanos) / 1_000_000);
+        return summary;
+    }
+
+    private Map<String, Object> status() {
+        List<Map<String, Object>> projects = new ArrayList<>();
+        for (ProjectSession session : sessions.list()) {
+            if (!session.isAnalyzed()) {
+                continue;
+            }
+            Map<String, Object> project = new LinkedHashMap<>();
+            project.put("project", session.getProjectRoot().toString());
+            project.put("components", session.getGraph().getComponents().size());
+            project.put("estimated_mb", session.estimatedBytes() >> 20);
+            projects.add(project);
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("memory_budget_mb", sessions.getMemoryBudgetBytes() >> 20);
+        status.put("memory_estimated_mb", sessions.totalBytes() >> 20);
+        status.put("projects", projects);
+        return status;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("error", message);
+        return error;
+    }
+
+    private static String required(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Falta el parámetro '" + name + "'");
+        }
+        return value;
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!method.equals(exchange.getRequestMethod())) {
+            throw new MethodNotAllowedException("Método no permitido: se esperaba " + method);
+        }
+        if (method.equals("POST") && exchange.getRequestHeaders().getFirst(CLIENT_HEADER) == null) {
+            throw new ForbiddenException("Falta la cabecera " + CLIENT_HEADER);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        respond(exchange, status, out -> jsonWriter.writeValue(body, out));
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        // Length 0: the body is streamed in chunks
+        exchange.sendResponseHeaders(status, 0);
+        try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            body.writeTo(out);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    private static class MethodNotAllowedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        MethodNotAllowedException(String message) {
+            super(message);
+        }
+    }
+
+    private static class ForbiddenException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ForbiddenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.extractor.server;
+
+import com.extractor.analyzer.AnalyzerOptions;
+import com.extractor.analyzer.ProjectAnalyzer;
+import com.extractor.analyzer.SourcePathDiscoverer;
+import com.extractor.inference.ComponentGraph;
+import com.extractor.inference.ConsolidatedArchitecture;
+import com.extractor.inference.InferenceEngine;
+import com.extractor.inference.MicroserviceCandidates;
+import com.extractor.inference.MicroserviceRecommendationEngine;
+import com.extractor.model.AnalysisMetrics;
+import com.extractor.model.DependencyGraph;
+import com.extractor.utils.JsonStreamWriter;
+import com.extractor.utils.ProjectInventory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One project kept in memory by the server: the analyzer with its Spoon model, the
+ * dependency graph and the latest inference results.
+ */
+class ProjectSession {
+
+    // Heap held by a Spoon model per byte of source, measured on Guava (about 16x),
+    // plus room for the dependency graph and the inference results
+    private static final long BYTES_PER_SOURCE_BYTE = 18;
+
+    private final Path projectRoot;
+    private final AnalyzerOptions options;
+
+    private ProjectAnalyzer analyzer;
+    private DependencyGraph graph;
+    private ComponentGraph componentGraph;
+    private MicroserviceCandidates candidates;
+    private ConsolidatedArchitecture architecture;
+    private SourceStamp stamp;
+
+    ProjectSession(Path projectRoot, AnalyzerOptions options) {
+        this.projectRoot = projectRoot;
+        this.options = options;
+    }
+
+    Path getProjectRoot() {
+        return projectRoot;
+    }
+
+    boolean isAnalyzed() {
+        return graph != null;
+    }
+
+    /**
+     * Whether the sources or build files changed since the last analysis.
+     */
+    boolean isStale() throws IOException {
+        return stamp == null || !stamp.equals(stamp());
+    }
+
+    /**
+     * Analyzes the project again, then runs the inference. The analyzer is kept between
+     * analyses: with a cache directory or the in-memory cache in the options only the
+     * types affected by the changed files are analyzed again.
+     */
+    void analyze() throws Exception {
+        // Taken first: a file changed during the analysis makes the session stale
+        SourceStamp newStamp = stamp();
+
+        if (analyzer == null) {
+            analyzer = new ProjectAnalyzer(options);
+        }
+        try {
+            graph = analyzer.analyzeProject(projectRoot);
+        } catch (Exception e) {
+            // The analyzer state is only consistent after a complete analysis
+            analyzer = null;
+            graph = null;
+            stamp = null;
+            throw e;
+        }
+        stamp = newStamp;
+        infer();
+    }
+
+    /**
+     * Runs the inference engine and the recommendation engine again on the current graph.
+     */
+    void infer() {
+        componentGraph = ComponentGraph.build(graph);
+        candidates = new InferenceEngine().analyze(graph, componentGraph);
+        architecture = new MicroserviceRecommendationEngine().analyzeConsolidated(candidates, componentGraph,
+                analyzer.getDependencyResolver().getAllDependencies(),
+                AnalysisMetrics.orDisabled(graph.getMeta().getMetrics()));
+    }
+
+    /**
+     * Writes the three output files the command line writes for this output file name.
+     */
+    void export(Path outputFile, JsonStreamWriter jsonWriter) throws IOException {
+        // Only the file name is renamed, so the three files share the directory of the output file
+        String output = outputFile.getFileName().toString();
+        jsonWriter.writeDependencyGraph(graph, outputFile);
+        jsonWriter.writeValue(architecture, outputFile.resolveSibling(output.replace(".json", "_architecture.json")));
+        jsonWriter.writeValue(graph.getApiContracts(),
+                outputFile.resolveSibling(output.replace(".json", "_entrypoints.json")));
+    }
+
+    /**
+     * Source roots and build files of the last analysis.
+     */
+    List<Path> getWatchedPaths() {
+        ProjectInventory inventory = analyzer.getInventory();
+        List<Path> paths = new ArrayList<>();
+        for (String sourcePath : new SourcePathDiscoverer().findSourcePaths(inventory)) {
+            paths.add(Paths.get(sourcePath));
+        }
+        paths.addAll(inventory.getBuildFiles());
+        return paths;
+    }
+
+    private SourceStamp stamp() throws IOException {
+        return SourceStamp.of(projectRoot, ProjectInventory.Exclusions.of(projectRoot, options.getExcludedDirectories()));
+    }
+
+    DependencyGraph getGraph() {
+        return graph;
+    }
+
+    MicroserviceCandidates getCandidates() {
+        return candidates;
+    }
+
+    ConsolidatedArchitecture getArchitecture() {
+        return architecture;
+    }
+
+    /**
+     * Estimated heap held by this session, from the size of the analyzed sources.
+     */
+    long estimatedBytes() {
+        return stamp != null ? stamp.getSourceBytes() * BYTES_PER_SOURCE_BYTE : 0;
+    }
+}
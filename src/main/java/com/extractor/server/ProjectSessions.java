@@ -0,0 +1,69 @@
+package com.extractor.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.nio.file.Path;
+
+/**
+ * Projects kept in memory, least recently used first. When their estimated size goes
+ * over the memory budget the least recently used ones are evicted; the session in use
+ * is always kept, even if it alone exceeds the budget.
+ */
+class ProjectSessions {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectSessions.class);
+
+    private final long memoryBudgetBytes;
+    private final Map<Path, ProjectSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+    ProjectSessions(long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    ProjectSession get(Path projectRoot) {
+        return sessions.get(projectRoot);
+    }
+
+    void put(ProjectSession session) {
+        sessions.put(session.getProjectRoot(), session);
+        evictOver(session);
+    }
+
+    /**
+     * Evicts least recently used sessions until the others fit in the budget.
+     */
+    void evictOver(ProjectSession inUse) {
+        Iterator<ProjectSession> eldestFirst = sessions.values().iterator();
+        while (totalBytes() > memoryBudgetBytes && eldestFirst.hasNext()) {
+            ProjectSession session = eldestFirst.next();
+            if (session != inUse) {
+                eldestFirst.remove();
+                logger.info("Evicted {} from memory ({} MB estimated)", session.getProjectRoot(),
+                        session.estimatedBytes() >> 20);
+            }
+        }
+    }
+
+    long totalBytes() {
+        long total = 0;
+        for (ProjectSession session : sessions.values()) {
+            total += session.estimatedBytes();
+        }
+        return total;
+    }
+
+    long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    /** Sessions from least to most recently used. */
+    List<ProjectSession> list() {
+        return new ArrayList<>(sessions.values());
+    }
+}
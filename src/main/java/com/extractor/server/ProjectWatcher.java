@@ -0,0 +1,188 @@
+package com.extractor.server;
+
+import com.extractor.analyzer.AnalyzerOptions;
+import com.extractor.utils.JsonStreamWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Watches the source roots and build files of a project and rewrites the outputs each time
+ * they change. Changes are batched: the analysis starts once no file changed for
+ * {@value #DEBOUNCE_MILLIS} ms.
+ *
+ * The session keeps its analyzer and the per-type analysis of the last run in memory, so
+ * only the types affected by the changed files are parsed and analyzed again; linking, the
+ * inference and the outputs are then redone from the per-type results. Adding or removing
+ * source files, or changing the dependencies in a build file, analyzes the whole project.
+ */
+public class ProjectWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectWatcher.class);
+
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    private final ProjectSession session;
+    private final Path outputFile;
+    private final JsonStreamWriter jsonWriter = new JsonStreamWriter();
+
+    private final Set<Path> watchedDirectories = new HashSet<>();
+    private final Set<Path> sourceDirectories = new HashSet<>();
+
+    public ProjectWatcher(Path projectRoot, Path outputFile, AnalyzerOptions options) {
+        this.session = new ProjectSession(projectRoot.toAbsolutePath().normalize(),
+                options.toBuilder().inMemoryCache(true).build());
+        this.outputFile = outputFile.toAbsolutePath();
+    }
+
+    /**
+     * Analyzes the project and writes the outputs, then updates them on every change until
+     * the thread is interrupted. A failed update, or a failure to watch the changed
+     * directories, is logged and the next change retries it.
+     */
+    public void run() throws Exception {
+        try (WatchService watchService = session.getProjectRoot().getFileSystem().newWatchService()) {
+            update(Collections.emptySet());
+            register(watchService);
+            // Files changed during the first analysis were not watched yet
+            if (session.isStale()) {
+                update(Collections.emptySet());
+            }
+
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Set<Path> changedFiles = awaitChanges(watchService);
+                    if (changedFiles.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        update(changedFiles);
+                    } catch (Exception e) {
+                        logger.error("Could not update the outputs, waiting for the next change", e);
+                    }
+                    // Source roots and build files may have been added
+                    register(watchService);
+                } catch (IOException e) {
+                    // E.g. a directory deleted before it was registered
+                    logger.error("Could not watch the changed directories, waiting for the next change", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void update(Set<Path> changedFiles) throws Exception {
+        long start = System.nanoTime();
+        if (!changedFiles.isEmpty()) {
+            logger.info("{} file(s) changed: {}", changedFiles.size(), changedFiles);
+        }
+
+        session.analyze();
+        session.export(outputFile, jsonWriter);
+
+        logger.info("Outputs updated in {} ms: {} components, {} edges, {} clusters",
+                (System.nanoTime() - start) / 1_000_000, session.getGraph().getComponents().size(),
+                session.getGraph().getEdges().size(), session.getCandidates().getCandidates().size());
+    }
+
+    /**
+     * Blocks until a file changes, then collects changes until none happened for the
+     * debounce delay. Returns the relevant files changed.
+     */
+    private Set<Path> awaitChanges(WatchService watchService) throws InterruptedException, IOException {
+        Set<Path> changedFiles = new TreeSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            collectChanges(watchService, key, changedFiles);
+            key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return changedFiles;
+    }
+
+    private void collectChanges(WatchService watchService, WatchKey key, Set<Path> changedFiles) throws IOException {
+        Path directory = (Path) key.watchable();
+        boolean inSources = sourceDirectories.contains(directory);
+
+        try {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // Events were lost: analyze anyway, the analysis finds what changed
+                    changedFiles.add(directory);
+                    continue;
+                }
+
+                Path path = directory.resolve((Path) event.context());
+                String name = path.getFileName().toString();
+                if (inSources && event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                    // Files may have been created in it before it was watched
+                    registerSources(watchService, path);
+                    changedFiles.add(path);
+                } else if (inSources && (name.endsWith(".java") || sourceDirectories.contains(path))) {
+                    changedFiles.add(path);
+                } else if (isBuildFile(name)) {
+                    changedFiles.add(path);
+                }
+            }
+        } finally {
+            // Reset even when a registration failed, or the directory would stop reporting changes
+            if (!key.reset()) {
+                // The directory was deleted
+                watchedDirectories.remove(directory);
+                sourceDirectories.remove(directory);
+            }
+        }
+    }
+
+    /**
+     * Watches every directory of the source roots, and the directories of the build files.
+     */
+    private void register(WatchService watchService) throws IOException {
+        for (Path path : session.getWatchedPaths()) {
+            Path absolute = path.toAbsolutePath().normalize();
+            if (Files.isDirectory(absolute)) {
+                registerSources(watchService, absolute);
+            } else if (absolute.getParent() != null) {
+                registerDirectory(watchService, absolute.getParent());
+            }
+        }
+        logger.info("Watching {} directories for changes", watchedDirectories.size());
+    }
+
+    private void registerSources(WatchService watchService, Path root) throws IOException {
+        List<Path> directories;
+        try (Stream<Path> paths = Files.walk(root)) {
+            directories = paths.filter(Files::isDirectory).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            // A directory deleted during the walk
+            throw e.getCause();
+        }
+        for (Path directory : directories) {
+            registerDirectory(watchService, directory);
+            sourceDirectories.add(directory);
+        }
+    }
+
+    private void registerDirectory(WatchService watchService, Path directory) throws IOException {
+        if (watchedDirectories.add(directory)) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+    }
+
+    private static boolean isBuildFile(String name) {
+        return name.equals("pom.xml") || name.equals("build.gradle") || name.equals("build.gradle.kts");
+    }
+}
@@ -0,0 +1,101 @@
+package com.extractor.server;
+
+import com.extractor.utils.ProjectInventory;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Fingerprint of the files an analysis reads: Java sources and Maven/Gradle build files.
+ * It only looks at paths, sizes and modification times, so checking whether a project
+ * changed since its last analysis costs a directory walk, not a parse.
+ */
+final class SourceStamp {
+
+    private final int fileCount;
+    private final long sourceBytes;
+    private final long digest;
+
+    private SourceStamp(int fileCount, long sourceBytes, long digest) {
+        this.fileCount = fileCount;
+        this.sourceBytes = sourceBytes;
+        this.digest = digest;
+    }
+
+    /**
+     * Stamp of the files under the project root, outside hidden and excluded directories.
+     */
+    static SourceStamp of(Path projectRoot, ProjectInventory.Exclusions exclusions) throws IOException {
+        long[] totals = new long[3];
+        Files.walkFileTree(projectRoot, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+                return !dir.equals(projectRoot) && (name.startsWith(".") || exclusions.matches(dir))
+                        ? FileVisitResult.SKIP_SUBTREE
+                        : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (isAnalyzedFile(file.getFileName().toString())) {
+                    totals[0]++;
+                    if (file.getFileName().toString().endsWith(".java")) {
+                        totals[1] += attrs.size();
+                    }
+                    // Order-independent, so the walk order does not matter
+                    totals[2] += mix(file.toString().hashCode() * 31L
+                            + attrs.lastModifiedTime().toMillis() * 17L + attrs.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return new SourceStamp((int) totals[0], totals[1], totals[2]);
+    }
+
+    private static boolean isAnalyzedFile(String name) {
+        return name.endsWith(".java") || name.equals("pom.xml")
+                || name.equals("build.gradle") || name.equals("build.gradle.kts");
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    int getFileCount() {
+        return fileCount;
+    }
+
+    /** Total size of the Java sources. */
+    long getSourceBytes() {
+        return sourceBytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        SourceStamp that = (SourceStamp) o;
+        return fileCount == that.fileCount && sourceBytes == that.sourceBytes && digest == that.digest;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fileCount, sourceBytes, digest);
+    }
+}
@@ -2,13 +2,17 @@ package com.extractor.utils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import spoon.reflect.code.BinaryOperatorKind;
+import spoon.reflect.code.CtBinaryOperator;
+import spoon.reflect.code.CtExpression;
+import spoon.reflect.code.CtLiteral;
+import spoon.reflect.code.CtNewArray;
 import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.CtElement;
-import spoon.reflect.declaration.CtMethod;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -38,6 +42,19 @@ public class DatabaseDetector {
         "commit", "rollback", "openSession", "getSqlSession"
     );
     
+    // Method name -> bitmask of the API families that declare it
+    private static final int JDBC = 1;
+    private static final int MYBATIS = 2;
+    private static final int JPA = 4;
+    private static final Map<String, Integer> METHOD_FAMILIES = methodFamilies();
+    
+    // Packages whose classes are always database access
+    private static final List<String> DATABASE_PACKAGES = List.of(
+        "java.sql.", "javax.sql.",
+        "javax.persistence.", "jakarta.persistence.", "org.hibernate.",
+        "org.apache.ibatis.", "com.ibatis."
+    );
+    
     // JPA/Hibernate annotations
     private static final Set<String> JPA_ANNOTATIONS = Set.of(
         "Entity", "Table", "Repository", "Query", 
@@ -50,125 +67,178 @@ public class DatabaseDetector {
         "MongoRepository", "ReactiveCrudRepository"
     );
     
-    // Patterns for extracting table names from SQL and annotations
-    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile(
-        "(?:FROM|INTO|UPDATE|JOIN)\\s+([a-zA-Z_][a-zA-Z0-9_]*)", 
-        Pattern.CASE_INSENSITIVE
-    );
+    // Keywords followed by a table name (4 or 6 letters long)
+    private static final Set<String> TABLE_KEYWORDS = Set.of("from", "join", "into", "update");
+    
+    // Annotations whose string values are queries, JPQL/HQL shorthand included
+    private static final Set<String> QUERY_ANNOTATIONS = Set.of("Query", "NamedQuery", "NamedNativeQuery");
     
-    private static final Pattern ANNOTATION_TABLE_PATTERN = Pattern.compile(
-        "@Table\\s*\\(\\s*name\\s*=\\s*[\"']([^\"']+)[\"']", 
-        Pattern.CASE_INSENSITIVE
+    // Keywords a SQL statement starts with
+    private static final Set<String> STATEMENT_KEYWORDS = Set.of("select", "insert", "update", "delete");
+    
+    // SQL keywords and common non-table words that are never reported as tables
+    private static final Set<String> SQL_KEYWORDS = Set.of(
+        "select", "from", "where", "and", "or", "not", "in", "like", "as", "on",
+        "inner", "outer", "left", "right", "join", "order", "by", "group",
+        "having", "union", "distinct", "count", "sum", "max", "min", "avg",
+        "values", "insert", "update", "delete", "create", "drop", "alter",
+        "table", "index", "database", "schema", "primary", "foreign", "key",
+        "constraint", "null", "auto_increment", "varchar", "int",
+        "class", "entity", "repository", "spring", "jpa", "sql", "java"
     );
     
+    // catalog.schema.table; longer dotted names are Java names in prose, not tables
+    private static final int MAX_NAME_PARTS = 3;
+    
+    // Shorter string literals are not treated as SQL
+    private static final int MIN_SQL_LENGTH = 11;
+    
+    // Stands for a non-literal operand of a concatenation, so it never reads as a name
+    private static final String CONCAT_PLACEHOLDER = "?";
+    
+    private static final Pattern REPOSITORY_ENTITY_PATTERN = Pattern.compile("extends\\s+\\w+Repository<([^,>]+)");
+    private static final Pattern ENTITY_SUFFIX_PATTERN = Pattern.compile("(Entity|Model|Domain)$");
+    private static final Pattern CAMEL_CASE_PATTERN = Pattern.compile("([a-z])([A-Z])");
+    
+    // Tables found in each distinct SQL string, shared by the types analyzed in one run
+    private final Map<String, Set<String>> sqlTablesCache = new ConcurrentHashMap<>();
+    
+    /**
+     * Forget the SQL strings of the previous run.
+     */
+    public void clear() {
+        sqlTablesCache.clear();
+    }
+    
     /**
      * Find tables used by a type.
      */
     public List<String> findTablesUsed(CtType<?> type) {
-        Set<String> tables = new HashSet<>();
-        
-        // Check for JPA @Table annotations
-        tables.addAll(findTablesFromAnnotations(type));
-        
-        // Check for SQL queries in string literals
-        tables.addAll(findTablesFromSqlQueries(type));
-        
-        // Check for repository method names (Spring Data)
-        tables.addAll(findTablesFromRepositoryMethods(type));
-        
-        // Infer table name from entity class name
-        if (isEntityClass(type)) {
-            String tableName = inferTableNameFromClassName(type.getSimpleName());
-            tables.add(tableName);
-        }
-        
-        return new ArrayList<>(tables);
+        TypeScanner scanner = new TypeScanner();
+        TableScan scan = register(type, TypeIndex.describe(type), scanner);
+        scanner.scan(type);
+        return scan.getTables();
     }
     
     /**
-     * Check if a class name or invocation indicates a database call.
+     * Register the SQL string checks on a shared scanner. Every @Query/@NamedQuery value and
+     * every other string literal of the type that reads as a SQL statement is searched for
+     * tables; a concatenation is read once as a whole, with its non-literal operands left out.
+     * The tables are available from the returned scan once the type has been scanned.
      */
-    public boolean isDatabaseCall(String className, String invocationString) {
-        if (className == null) return false;
+    public TableScan register(CtType<?> type, TypeIndex.IndexedType indexedType, TypeScanner scanner) {
+        TableScan scan = new TableScan(type, indexedType);
+        scanner.onEnter(CtLiteral.class, literal -> {
+            if (literal.getValue() instanceof String && !isConcatenationOperand(literal)) {
+                String sql = (String) literal.getValue();
+                scan.queryTables.addAll(findTablesInSql(sql, isQueryAnnotationValue(literal)));
+            }
+        });
+        scanner.onEnter(CtBinaryOperator.class, operator -> {
+            if (isConcatenation(operator) && !isConcatenationOperand(operator)) {
+                String sql = concatenatedText(operator);
+                if (sql != null) {
+                    scan.queryTables.addAll(findTablesInSql(sql, isQueryAnnotationValue(operator)));
+                }
+            }
+        });
+        return scan;
+    }
+    
+    /**
+     * Tables used by one type, filled while its AST is scanned.
+     */
+    public class TableScan {
+        private final CtType<?> type;
+        private final TypeIndex.IndexedType indexedType;
+        private final Set<String> queryTables = new HashSet<>();
         
-        // Check for JDBC classes - must be exact package matches
-        if (className.startsWith("java.sql.") || 
-            className.startsWith("javax.sql.") ||
-            className.equals("java.sql.Connection") ||
-            className.equals("java.sql.Statement") ||
-            className.equals("java.sql.PreparedStatement") ||
-            className.equals("java.sql.CallableStatement") ||
-            className.equals("java.sql.ResultSet")) {
-            return true;
+        private TableScan(CtType<?> type, TypeIndex.IndexedType indexedType) {
+            this.type = type;
+            this.indexedType = indexedType;
         }
         
-        // Check for JPA/Hibernate classes - must be exact package matches
-        if (className.startsWith("javax.persistence.") ||
-            className.startsWith("jakarta.persistence.") ||
-            className.startsWith("org.hibernate.") ||
-            className.equals("javax.persistence.EntityManager") ||
-            className.equals("jakarta.persistence.EntityManager") ||
-            className.equals("org.hibernate.Session")) {
-            return true;
+        public List<String> getTables() {
+            Set<String> tables = new HashSet<>();
+            
+            // Check for JPA @Table annotations
+            if (indexedType.hasAnnotation("Table")) {
+                tables.addAll(findTablesFromAnnotations(type));
+            }
+            
+            // Check for SQL queries in string literals and @Query/@NamedQuery values
+            tables.addAll(queryTables);
+            
+            // Check for repository method names (Spring Data)
+            if (isSpringDataRepository(indexedType)) {
+                tables.addAll(findTablesFromRepositoryMethods(type));
+            }
+            
+            // Infer table name from entity class name
+            if (indexedType.hasAnnotation("Entity")) {
+                String tableName = inferTableNameFromClassName(type.getSimpleName());
+                tables.add(tableName);
+            }
+            
+            return new ArrayList<>(tables);
         }
+    }
+    
+    /**
+     * Check if a call indicates database access, from the class it targets and the
+     * simple name of the called method (null for none).
+     */
+    public boolean isDatabaseCall(String className, String methodName) {
+        if (className == null) return false;
         
-        // Check for iBatis/MyBatis classes - must be exact package matches
-        if (className.startsWith("org.apache.ibatis.") ||
-            className.startsWith("com.ibatis.") ||
-            className.equals("org.apache.ibatis.session.SqlSession") ||
-            className.equals("org.apache.ibatis.session.SqlSessionFactory") ||
-            className.equals("com.ibatis.sqlmap.client.SqlMapClient")) {
-            return true;
+        // JDBC, JPA/Hibernate and iBatis/MyBatis classes - must be exact package matches
+        for (String prefix : DATABASE_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
         }
         
         // Check for Spring Data repositories - must be exact interface matches
         if (className.startsWith("org.springframework.data.")) {
-            for (String repoType : SPRING_DATA_REPOSITORIES) {
-                if (className.endsWith("." + repoType)) {
-                    return true;
-                }
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            if (SPRING_DATA_REPOSITORIES.contains(simpleName)) {
+                return true;
             }
         }
         
-        // Check method names in invocation - be more specific
-        if (invocationString != null) {
-            // JDBC methods
-            for (String method : JDBC_METHODS) {
-                if (invocationString.matches(".*\\b" + method + "\\s*\\(.*")) {
-                    // Only if the class is also database-related
-                    if (className.contains("sql") || className.contains("jdbc") || 
-                        className.contains("Connection") || className.contains("Statement")) {
-                        return true;
-                    }
-                }
+        // A database method name only counts when the class is also database-related
+        if (methodName != null) {
+            int families = METHOD_FAMILIES.getOrDefault(methodName, 0);
+            if ((families & JDBC) != 0 &&
+                (className.contains("sql") || className.contains("jdbc") ||
+                 className.contains("Connection") || className.contains("Statement"))) {
+                return true;
             }
-            
-            // MyBatis/iBatis methods
-            for (String method : MYBATIS_METHODS) {
-                if (invocationString.matches(".*\\b" + method + "\\s*\\(.*")) {
-                    if (className.contains("ibatis") || className.contains("SqlSession") ||
-                        className.contains("SqlMap")) {
-                        return true;
-                    }
-                }
+            if ((families & MYBATIS) != 0 &&
+                (className.contains("ibatis") || className.contains("SqlSession") ||
+                 className.contains("SqlMap"))) {
+                return true;
             }
-            
-            for (String method : JPA_METHODS) {
-                if (invocationString.matches(".*\\b" + method + "\\s*\\(.*")) {
-                    // Only if the class is also JPA-related
-                    if (className.contains("persistence") || className.contains("hibernate") ||
-                        className.contains("EntityManager") || className.contains("Query")) {
-                        return true;
-                    }
-                }
+            if ((families & JPA) != 0 &&
+                (className.contains("persistence") || className.contains("hibernate") ||
+                 className.contains("EntityManager") || className.contains("Query"))) {
+                return true;
             }
         }
         
         return false;
     }
     
+    private static Map<String, Integer> methodFamilies() {
+        Map<String, Integer> families = new HashMap<>();
+        JDBC_METHODS.forEach(method -> families.merge(method, JDBC, (a, b) -> a | b));
+        MYBATIS_METHODS.forEach(method -> families.merge(method, MYBATIS, (a, b) -> a | b));
+        JPA_METHODS.forEach(method -> families.merge(method, JPA, (a, b) -> a | b));
+        return Collections.unmodifiableMap(families);
+    }
+    
     /**
-     * Find tables from JPA annotations.
+     * Find tables from class-level JPA annotations.
      */
     private Set<String> findTablesFromAnnotations(CtType<?> type) {
         Set<String> tables = new HashSet<>();
@@ -178,148 +248,229 @@ public class DatabaseDetector {
             String annotationName = annotation.getAnnotationType().getSimpleName();
             
             if ("Table".equals(annotationName)) {
-                String tableName = extractTableNameFromAnnotation(annotation.toString());
+                String tableName = extractTableNameFromAnnotation(annotation);
                 if (tableName != null) {
                     tables.add(tableName);
                 }
             }
         }
         
-        // Check method-level annotations (for @Query, @NamedQuery, etc.)
-        List<CtMethod<?>> methods = type.getElements(new TypeFilter<>(CtMethod.class));
-        for (CtMethod<?> method : methods) {
-            for (CtAnnotation<?> annotation : method.getAnnotations()) {
-                String annotationName = annotation.getAnnotationType().getSimpleName();
-                
-                if ("Query".equals(annotationName) || "NamedQuery".equals(annotationName)) {
-                    String sql = extractQueryFromAnnotation(annotation.toString());
-                    if (sql != null) {
-                        tables.addAll(extractTableNamesFromSql(sql));
-                    }
-                }
-            }
-        }
-        
         return tables;
     }
     
+    private static boolean isConcatenation(CtElement element) {
+        return element instanceof CtBinaryOperator
+            && ((CtBinaryOperator<?>) element).getKind() == BinaryOperatorKind.PLUS;
+    }
+    
     /**
-     * Find tables from SQL queries in string literals.
+     * Whether an expression is part of a larger concatenation, which is read as a whole.
      */
-    private Set<String> findTablesFromSqlQueries(CtType<?> type) {
-        Set<String> tables = new HashSet<>();
-        
-        String sourceCode = type.toString();
-        
-        // Find actual SQL string literals (enclosed in quotes)
-        Pattern sqlStringPattern = Pattern.compile("[\"'](.*(?:SELECT|INSERT|UPDATE|DELETE|FROM|JOIN).*)[\"']", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = sqlStringPattern.matcher(sourceCode);
-        
-        while (matcher.find()) {
-            String sqlQuery = matcher.group(1);
-            if (sqlQuery != null && sqlQuery.length() > 10) { // Filter out short non-SQL strings
-                tables.addAll(extractTableNamesFromSql(sqlQuery));
-            }
+    private static boolean isConcatenationOperand(CtElement element) {
+        return element.isParentInitialized() && isConcatenation(element.getParent());
+    }
+    
+    /**
+     * Text of a concatenation, or null when none of its operands is a string literal
+     * (plain arithmetic).
+     */
+    private static String concatenatedText(CtBinaryOperator<?> operator) {
+        StringBuilder text = new StringBuilder();
+        return appendOperand(operator, text) ? text.toString() : null;
+    }
+    
+    private static boolean appendOperand(CtExpression<?> operand, StringBuilder text) {
+        if (isConcatenation(operand)) {
+            CtBinaryOperator<?> operator = (CtBinaryOperator<?>) operand;
+            boolean left = appendOperand(operator.getLeftHandOperand(), text);
+            boolean right = appendOperand(operator.getRightHandOperand(), text);
+            return left || right;
         }
-        
-        return tables;
+        if (operand instanceof CtLiteral) {
+            Object value = ((CtLiteral<?>) operand).getValue();
+            text.append(value);
+            return value instanceof String;
+        }
+        text.append(CONCAT_PLACEHOLDER);
+        return false;
     }
     
     /**
-     * Find tables from Spring Data repository method names.
+     * Whether a string is the value of a query annotation, e.g. {@code @Query("from Order o")},
+     * possibly inside an array.
+     */
+    private static boolean isQueryAnnotationValue(CtElement element) {
+        CtElement parent = element.isParentInitialized() ? element.getParent() : null;
+        while (parent instanceof CtNewArray && parent.isParentInitialized()) {
+            parent = parent.getParent();
+        }
+        return parent instanceof CtAnnotation
+            && QUERY_ANNOTATIONS.contains(((CtAnnotation<?>) parent).getAnnotationType().getSimpleName());
+    }
+    
+    /**
+     * Tables named by a SQL string, computed once per distinct string. A query annotation
+     * value is known to be a query; any other string must read as a SQL statement.
+     */
+    private Set<String> findTablesInSql(String sql, boolean query) {
+        if (!query && (sql.length() < MIN_SQL_LENGTH || !isSqlStatement(sql))) {
+            return Collections.emptySet();
+        }
+        return sqlTablesCache.computeIfAbsent(sql, DatabaseDetector::extractTableNamesFromSql);
+    }
+    
+    /**
+     * Find tables from Spring Data repository method names; called for repositories only.
      */
     private Set<String> findTablesFromRepositoryMethods(CtType<?> type) {
         Set<String> tables = new HashSet<>();
         
-        // Check if this type extends a Spring Data repository
-        if (isSpringDataRepository(type)) {
-            // Extract entity type from repository declaration
-            String entityType = extractEntityTypeFromRepository(type);
-            if (entityType != null) {
-                String tableName = inferTableNameFromClassName(entityType);
-                tables.add(tableName);
-            }
+        // Extract entity type from repository declaration
+        String entityType = extractEntityTypeFromRepository(type);
+        if (entityType != null) {
+            String tableName = inferTableNameFromClassName(entityType);
+            tables.add(tableName);
         }
         
         return tables;
     }
     
     /**
-     * Check if a type is a JPA entity.
+     * Check if a type is a Spring Data repository.
      */
-    private boolean isEntityClass(CtType<?> type) {
-        return type.getAnnotations().stream()
-            .anyMatch(annotation -> "Entity".equals(annotation.getAnnotationType().getSimpleName()));
+    private boolean isSpringDataRepository(TypeIndex.IndexedType indexedType) {
+        return indexedType.getInterfaceSimpleNames().stream()
+            .anyMatch(SPRING_DATA_REPOSITORIES::contains);
     }
     
     /**
-     * Check if a type is a Spring Data repository.
+     * Extract table name from the name attribute of a @Table annotation.
      */
-    private boolean isSpringDataRepository(CtType<?> type) {
-        return type.getSuperInterfaces().stream()
-            .anyMatch(iface -> SPRING_DATA_REPOSITORIES.contains(iface.getSimpleName()));
+    private String extractTableNameFromAnnotation(CtAnnotation<?> annotation) {
+        CtExpression<?> name = annotation.getValues().get("name");
+        if (name instanceof CtLiteral && ((CtLiteral<?>) name).getValue() instanceof String) {
+            String tableName = (String) ((CtLiteral<?>) name).getValue();
+            return tableName.isEmpty() ? null : tableName;
+        }
+        return null;
     }
     
     /**
-     * Extract table name from @Table annotation.
+     * Extract table names from a SQL string in one pass: the name after each FROM, JOIN,
+     * INTO or UPDATE keyword, case-insensitive. For a qualified name (schema.table) the
+     * last part is the table.
      */
-    private String extractTableNameFromAnnotation(String annotationString) {
-        Matcher matcher = ANNOTATION_TABLE_PATTERN.matcher(annotationString);
-        if (matcher.find()) {
-            return matcher.group(1);
+    static Set<String> extractTableNamesFromSql(String sql) {
+        Set<String> tables = null;
+        // After a keyword, a table name must follow whitespace and nothing else
+        boolean afterKeyword = false;
+        boolean sawWhitespace = false;
+        int length = sql.length();
+        int i = 0;
+        
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (!isIdentifierStart(c)) {
+                if (Character.isWhitespace(c)) {
+                    sawWhitespace = true;
+                } else {
+                    afterKeyword = false;
+                }
+                i++;
+                continue;
+            }
+            
+            int start = i;
+            while (i < length && isIdentifierPart(sql.charAt(i))) {
+                i++;
+            }
+            
+            if (afterKeyword && sawWhitespace) {
+                // Qualified name: keep the last part
+                int nameStart = start;
+                int parts = 1;
+                while (i + 1 < length && sql.charAt(i) == '.' && isIdentifierStart(sql.charAt(i + 1))) {
+                    nameStart = ++i;
+                    parts++;
+                    while (i < length && isIdentifierPart(sql.charAt(i))) {
+                        i++;
+                    }
+                }
+                String tableName = sql.substring(nameStart, i).toLowerCase(Locale.ROOT);
+                if (parts <= MAX_NAME_PARTS && isValidTableName(tableName)) {
+                    if (tables == null) {
+                        tables = new HashSet<>();
+                    }
+                    tables.add(tableName);
+                }
+                afterKeyword = false;
+            } else {
+                // Keywords only count as whole words
+                char before = start > 0 ? sql.charAt(start - 1) : ' ';
+                int wordLength = i - start;
+                afterKeyword = (wordLength == 4 || wordLength == 6)
+                    && !isIdentifierPart(before) && before != '.'
+                    && TABLE_KEYWORDS.contains(sql.substring(start, i).toLowerCase(Locale.ROOT));
+            }
+            sawWhitespace = false;
         }
-        return null;
+        
+        return tables != null ? tables : Collections.emptySet();
     }
     
     /**
-     * Extract SQL query from @Query annotation.
+     * Whether a string reads as a SQL statement: it starts with a DML keyword, possibly after
+     * opening parentheses, or has a SELECT followed by a FROM. Other text with FROM, INTO,
+     * JOIN or UPDATE in it, such as a log message, is prose.
      */
-    private String extractQueryFromAnnotation(String annotationString) {
-        // Look for value = "..." or just "..." after @Query
-        Pattern pattern = Pattern.compile("(?:value\\s*=\\s*)?[\"']([^\"']*(?:SELECT|INSERT|UPDATE|DELETE)[^\"']*)[\"']", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(annotationString);
-        if (matcher.find()) {
-            return matcher.group(1);
+    static boolean isSqlStatement(String text) {
+        int length = text.length();
+        int i = 0;
+        while (i < length && (Character.isWhitespace(text.charAt(i)) || text.charAt(i) == '(')) {
+            i++;
         }
-        return null;
+        int start = i;
+        while (i < length && isIdentifierPart(text.charAt(i))) {
+            i++;
+        }
+        if (STATEMENT_KEYWORDS.contains(text.substring(start, i).toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+        
+        String lowerText = text.toLowerCase(Locale.ROOT);
+        int select = indexOfWord(lowerText, "select", 0);
+        return select >= 0 && indexOfWord(lowerText, "from", select + "select".length()) >= 0;
     }
     
     /**
-     * Extract table names from SQL query string.
+     * Index of a lower-case word in a lower-cased text, as a whole word, or -1.
      */
-    private Set<String> extractTableNamesFromSql(String sql) {
-        Set<String> tables = new HashSet<>();
-        
-        Matcher matcher = TABLE_NAME_PATTERN.matcher(sql);
-        while (matcher.find()) {
-            String tableName = matcher.group(1);
-            if (tableName != null && !tableName.isEmpty() && isValidTableName(tableName)) {
-                tables.add(tableName.toLowerCase());
+    private static int indexOfWord(String text, String word, int fromIndex) {
+        int index = text.indexOf(word, fromIndex);
+        while (index >= 0) {
+            int end = index + word.length();
+            if ((index == 0 || !isIdentifierPart(text.charAt(index - 1)))
+                    && (end == text.length() || !isIdentifierPart(text.charAt(end)))) {
+                return index;
             }
+            index = text.indexOf(word, index + 1);
         }
-        
-        return tables;
+        return -1;
+    }
+    
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+    
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9');
     }
     
     /**
-     * Check if a string is a valid table name (not a SQL keyword or common non-table word).
+     * Check if a lower-cased name can be a table (not a SQL keyword or common non-table word).
      */
-    private boolean isValidTableName(String name) {
-        if (name == null || name.length() < 2) return false;
-        
-        // Exclude SQL keywords and common non-table words
-        String lowerName = name.toLowerCase();
-        Set<String> sqlKeywords = Set.of(
-            "select", "from", "where", "and", "or", "not", "in", "like", "as", "on",
-            "inner", "outer", "left", "right", "join", "order", "by", "group",
-            "having", "union", "distinct", "count", "sum", "max", "min", "avg",
-            "values", "insert", "update", "delete", "create", "drop", "alter",
-            "table", "index", "database", "schema", "primary", "foreign", "key",
-            "constraint", "null", "auto_increment", "varchar", "int",
-            "class", "entity", "repository", "spring", "jpa", "sql", "java"
-        );
-        
-        return !sqlKeywords.contains(lowerName) && name.matches("[a-zA-Z_][a-zA-Z0-9_]*");
+    private static boolean isValidTableName(String name) {
+        return name.length() >= 2 && !SQL_KEYWORDS.contains(name);
     }
     
     /**
@@ -331,8 +482,7 @@ public class DatabaseDetector {
         String typeName = type.toString();
         
         // Look for patterns like "extends JpaRepository<Entity, Long>"
-        Pattern pattern = Pattern.compile("extends\\s+\\w+Repository<([^,>]+)");
-        Matcher matcher = pattern.matcher(typeName);
+        Matcher matcher = REPOSITORY_ENTITY_PATTERN.matcher(typeName);
         if (matcher.find()) {
             return matcher.group(1).trim();
         }
@@ -347,9 +497,9 @@ public class DatabaseDetector {
         if (className == null) return null;
         
         // Remove common suffixes
-        className = className.replaceAll("(Entity|Model|Domain)$", "");
+        className = ENTITY_SUFFIX_PATTERN.matcher(className).replaceAll("");
         
         // Convert CamelCase to snake_case
-        return className.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+        return CAMEL_CASE_PATTERN.matcher(className).replaceAll("$1_$2").toLowerCase();
     }
 }
\ No newline at end of file
@@ -12,7 +12,10 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,8 +26,25 @@ public class DependencyResolver {
     
     private static final Logger logger = LoggerFactory.getLogger(DependencyResolver.class);
     
+    // Most recently resolved class names kept in the memo
+    private static final int RESOLVED_CACHE_SIZE = 4096;
+    
+    // Memo entry for a class name that resolves to no dependency
+    private static final String UNRESOLVED = "";
+    
     private Map<String, String> packageToDependency = new HashMap<>();
     private Map<String, String> allProjectDependencies = new HashMap<>();
+    private final List<Path> buildFiles = new ArrayList<>();
+    
+    // Built from packageToDependency once the build files are loaded
+    private PackageTrie packageTrie = new PackageTrie();
+    private final Map<String, String> resolvedCache = Collections.synchronizedMap(
+        new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > RESOLVED_CACHE_SIZE;
+            }
+        });
     
     /**
      * Get all project dependencies with versions.
@@ -33,32 +53,74 @@ public class DependencyResolver {
         return new HashMap<>(allProjectDependencies);
     }
     
+    /**
+     * Build files read by the last {@link #loadDependencies} call.
+     */
+    public List<Path> getBuildFiles() {
+        return new ArrayList<>(buildFiles);
+    }
+    
     /**
      * Load dependencies from build files in the project.
      */
     public void loadDependencies(Path projectRoot) {
+        try {
+            loadDependencies(ProjectInventory.scan(projectRoot, ProjectInventory.DEFAULT_EXCLUDES));
+        } catch (IOException e) {
+            logger.warn("Error walking project tree for build files: {}", e.getMessage());
+            loadDependencies(Collections.emptyList());
+        }
+    }
+    
+    /**
+     * Load dependencies from the build files of a project inventory.
+     */
+    public void loadDependencies(ProjectInventory inventory) {
+        loadDependencies(inventory.getBuildFiles());
+    }
+    
+    private void loadDependencies(List<Path> projectBuildFiles) {
         logger.info("Loading dependencies from build files...");
         
+        // Loading again replaces what the previous build files declared
+        packageToDependency.clear();
+        allProjectDependencies.clear();
+        buildFiles.clear();
+        
         // Load from Maven pom.xml files
-        loadMavenDependencies(projectRoot);
+        loadMavenDependencies(projectBuildFiles);
         
         // Load from Gradle build files
-        loadGradleDependencies(projectRoot);
+        loadGradleDependencies(projectBuildFiles);
+        
+        packageTrie = new PackageTrie();
+        packageToDependency.forEach(packageTrie::put);
+        resolvedCache.clear();
         
         logger.info("Loaded {} package to dependency mappings", packageToDependency.size());
     }
     
     /**
      * Resolve a class name to its Maven/Gradle dependency.
+     * Results are memoized for the most recently resolved class names.
      */
     public String resolveDependency(String className) {
         if (className == null) return null;
         
-        // Try exact package match first
-        for (Map.Entry<String, String> entry : packageToDependency.entrySet()) {
-            if (className.startsWith(entry.getKey())) {
-                return entry.getValue();
-            }
+        String resolved = resolvedCache.get(className);
+        if (resolved == null) {
+            resolved = findDependency(className);
+            resolvedCache.put(className, resolved != null ? resolved : UNRESOLVED);
+            return resolved;
+        }
+        return UNRESOLVED.equals(resolved) ? null : resolved;
+    }
+    
+    private String findDependency(String className) {
+        // Try the longest package prefix declared by the build files first
+        String dependency = packageTrie.longestMatch(className);
+        if (dependency != null) {
+            return dependency;
         }
         
         // Try common known mappings
@@ -73,13 +135,12 @@ public class DependencyResolver {
     /**
      * Load dependencies from Maven pom.xml files.
      */
-    private void loadMavenDependencies(Path projectRoot) {
-        try {
-            Files.walk(projectRoot)
-                .filter(path -> path.getFileName().toString().equals("pom.xml"))
-                .forEach(this::parseMavenPom);
-        } catch (IOException e) {
-            logger.warn("Error walking project tree for pom.xml files: {}", e.getMessage());
+    private void loadMavenDependencies(List<Path> projectBuildFiles) {
+        for (Path path : projectBuildFiles) {
+            if (ProjectInventory.isMavenBuildFile(path)) {
+                buildFiles.add(path);
+                parseMavenPom(path);
+            }
         }
     }
     
@@ -126,14 +187,12 @@ public class DependencyResolver {
     /**
      * Load dependencies from Gradle build files.
      */
-    private void loadGradleDependencies(Path projectRoot) {
-        try {
-            Files.walk(projectRoot)
-                .filter(path -> path.getFileName().toString().equals("build.gradle") ||
-                               path.getFileName().toString().equals("build.gradle.kts"))
-                .forEach(this::parseGradleBuild);
-        } catch (IOException e) {
-            logger.warn("Error walking project tree for Gradle files: {}", e.getMessage());
+    private void loadGradleDependencies(List<Path> projectBuildFiles) {
+        for (Path path : projectBuildFiles) {
+            if (ProjectInventory.isGradleBuildFile(path)) {
+                buildFiles.add(path);
+                parseGradleBuild(path);
+            }
         }
     }
     
@@ -261,4 +320,38 @@ public class DependencyResolver {
         
         return null;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Package prefixes by segment, so a lookup walks the segments of a class name
+     * once and returns the dependency of the longest declared prefix.
+     */
+    private static class PackageTrie {
+        private final Map<String, PackageTrie> children = new HashMap<>();
+        private String dependency;
+        
+        void put(String packagePrefix, String prefixDependency) {
+            PackageTrie node = this;
+            for (String segment : packagePrefix.split("\\.")) {
+                node = node.children.computeIfAbsent(segment, key -> new PackageTrie());
+            }
+            node.dependency = prefixDependency;
+        }
+        
+        String longestMatch(String className) {
+            PackageTrie node = this;
+            String match = null;
+            int start = 0;
+            while (start <= className.length()) {
+                int end = className.indexOf('.', start);
+                if (end < 0) end = className.length();
+                node = node.children.get(className.substring(start, end));
+                if (node == null) break;
+                if (node.dependency != null) {
+                    match = node.dependency;
+                }
+                start = end + 1;
+            }
+            return match;
+        }
+    }
+}
@@ -3,25 +3,21 @@ package com.extractor.utils;
 import spoon.reflect.declaration.*;
 import spoon.reflect.reference.CtTypeReference;
 import spoon.reflect.code.CtInvocation;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class EJBDetector {
     
-    private static final Set<String> EJB_SESSION_ANNOTATIONS = Set.of(
-        "javax.ejb.Stateless",
-        "javax.ejb.Stateful", 
-        "javax.ejb.Singleton",
-        "jakarta.ejb.Stateless",
-        "jakarta.ejb.Stateful",
-        "jakarta.ejb.Singleton"
-    );
-    
-    private static final Set<String> EJB_MESSAGE_ANNOTATIONS = Set.of(
-        "javax.ejb.MessageDriven",
-        "jakarta.ejb.MessageDriven"
+    // EJB type by the annotation declaring it, session beans and message-driven beans
+    private static final Map<String, String> EJB_TYPES = Map.of(
+        "javax.ejb.Stateless", "Stateless",
+        "javax.ejb.Stateful", "Stateful",
+        "javax.ejb.Singleton", "Singleton",
+        "javax.ejb.MessageDriven", "MessageDriven",
+        "jakarta.ejb.Stateless", "Stateless",
+        "jakarta.ejb.Stateful", "Stateful",
+        "jakarta.ejb.Singleton", "Singleton",
+        "jakarta.ejb.MessageDriven", "MessageDriven"
     );
     
     private static final Set<String> EJB_INJECTION_ANNOTATIONS = Set.of(
@@ -49,32 +45,77 @@ public class EJBDetector {
     }
     
     public static EJBInfo detectEJB(CtType<?> type) {
-        String ejbType = getEJBType(type);
-        if (ejbType == null) {
-            return null;
+        TypeScanner scanner = new TypeScanner();
+        EJBScan scan = register(type, TypeIndex.describe(type), scanner);
+        if (scan.ejbType != null) {
+            scanner.scan(type);
         }
-        
-        String name = type.getQualifiedName();
-        List<String> dependencies = detectEJBDependencies(type);
-        boolean usesJNDI = detectJNDIUsage(type);
-        
-        return new EJBInfo(ejbType, name, dependencies, usesJNDI);
+        return scan.getInfo();
     }
     
-    private static String getEJBType(CtType<?> type) {
-        List<CtAnnotation<? extends java.lang.annotation.Annotation>> annotations = type.getAnnotations();
+    /**
+     * Register the JNDI usage check on a shared scanner; nothing is registered for non-EJB types.
+     * The EJB info is available from the returned scan once the type has been scanned.
+     */
+    public static EJBScan register(CtType<?> type, TypeIndex.IndexedType indexedType, TypeScanner scanner) {
+        EJBScan scan = new EJBScan(type, getEJBType(indexedType));
+        if (scan.ejbType != null) {
+            scanner.onEnter(CtInvocation.class, invocation -> scan.checkInvocation(invocation, scanner));
+        }
+        return scan;
+    }
+    
+    /**
+     * EJB information of one type, filled while its AST is scanned.
+     */
+    public static class EJBScan {
+        private final CtType<?> type;
+        private final String ejbType;
+        private boolean usesJNDI;
+        private boolean jndiCheckFailed;
+        
+        private EJBScan(CtType<?> type, String ejbType) {
+            this.type = type;
+            this.ejbType = ejbType;
+        }
+        
+        /**
+         * @return the EJB info, or null when the type is not an EJB
+         */
+        public EJBInfo getInfo() {
+            if (ejbType == null) {
+                return null;
+            }
+            String name = type.getQualifiedName();
+            List<String> dependencies = detectEJBDependencies(type);
+            return new EJBInfo(ejbType, name, dependencies, usesJNDI);
+        }
         
-        for (CtAnnotation<?> annotation : annotations) {
-            String annotationType = annotation.getAnnotationType().getQualifiedName();
-            
-            if (EJB_SESSION_ANNOTATIONS.contains(annotationType)) {
-                if (annotationType.contains("Stateless")) return "Stateless";
-                if (annotationType.contains("Stateful")) return "Stateful";
-                if (annotationType.contains("Singleton")) return "Singleton";
+        private void checkInvocation(CtInvocation<?> invocation, TypeScanner scanner) {
+            if (usesJNDI || jndiCheckFailed) {
+                return;
+            }
+            try {
+                String methodName = invocation.getExecutable().getSimpleName();
+                
+                if (methodName.equals("lookup") || 
+                    methodName.equals("InitialContext") ||
+                    scanner.print(invocation).contains("java:comp/env") ||
+                    scanner.print(invocation).contains("ejb/")) {
+                    usesJNDI = true;
+                }
+            } catch (Exception e) {
+                // A failing invocation ends the check, as the former getElements() loop did
+                jndiCheckFailed = true;
             }
-            
-            if (EJB_MESSAGE_ANNOTATIONS.contains(annotationType)) {
-                return "MessageDriven";
+        }
+    }
+    
+    private static String getEJBType(TypeIndex.IndexedType indexedType) {
+        for (String annotationType : indexedType.getAnnotations()) {
+            String ejbType = EJB_TYPES.get(annotationType);
+            if (ejbType != null) {
+                return ejbType;
             }
         }
         
@@ -100,36 +141,13 @@ public class EJBDetector {
         return dependencies;
     }
     
-    private static boolean detectJNDIUsage(CtType<?> type) {
-        try {
-            List<CtInvocation<?>> invocations = type.getElements(new TypeFilter<>(CtInvocation.class));
-            
-            for (CtInvocation<?> invocation : invocations) {
-                String methodName = invocation.getExecutable().getSimpleName();
-                
-                if (methodName.equals("lookup") || 
-                    methodName.equals("InitialContext") ||
-                    invocation.toString().contains("java:comp/env") ||
-                    invocation.toString().contains("ejb/")) {
-                    return true;
-                }
-            }
-        } catch (Exception e) {
-        }
-        
-        return false;
-    }
-    
     public static boolean isEJBComponent(CtType<?> type) {
-        return getEJBType(type) != null;
+        return getEJBType(TypeIndex.describe(type)) != null;
     }
     
     public static String getEJBAnnotation(CtType<?> type) {
-        for (CtAnnotation<?> annotation : type.getAnnotations()) {
-            String annotationType = annotation.getAnnotationType().getQualifiedName();
-            
-            if (EJB_SESSION_ANNOTATIONS.contains(annotationType) ||
-                EJB_MESSAGE_ANNOTATIONS.contains(annotationType)) {
+        for (String annotationType : TypeIndex.describe(type).getAnnotations()) {
+            if (EJB_TYPES.containsKey(annotationType)) {
                 return annotationType;
             }
         }
@@ -0,0 +1,96 @@
+package com.extractor.utils;
+
+import com.extractor.model.DependencyGraph;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the JSON output files straight to a buffered UTF-8 writer instead of building
+ * the whole document as a String first. The dependency graph is written one component
+ * and one edge at a time, so the memory used for output does not grow with the graph.
+ * Output is indented and map entries are ordered by key, as before.
+ */
+public class JsonStreamWriter {
+
+    private final ObjectMapper mapper;
+
+    public JsonStreamWriter() {
+        this.mapper = new ObjectMapper();
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        // Values are written one component or edge at a time; let the buffer decide when to flush
+        mapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes the dependency graph, streaming its components and edges.
+     */
+    public void writeDependencyGraph(DependencyGraph graph, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeDependencyGraph(graph, out);
+        }
+    }
+
+    /**
+     * Writes the dependency graph to a writer, which is flushed but left open.
+     */
+    public void writeDependencyGraph(DependencyGraph graph, Writer out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            writeArray(generator, "components", graph.getComponents());
+            writeArray(generator, "edges", graph.getEdges());
+            generator.writeFieldName("api_contracts");
+            mapper.writeValue(generator, graph.getApiContracts());
+            generator.writeFieldName("meta");
+            mapper.writeValue(generator, graph.getMeta());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes any value the way the mapper would serialize it, without an intermediate String.
+     */
+    public void writeValue(Object value, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeValue(value, out);
+        }
+    }
+
+    /**
+     * Writes a value to a writer, which is flushed but left open.
+     */
+    public void writeValue(Object value, Writer out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            mapper.writeValue(generator, value);
+        }
+    }
+
+    private JsonGenerator createGenerator(Writer out) throws IOException {
+        // A character writer keeps emoji as characters; the byte generator would escape them
+        JsonGenerator generator = mapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.useDefaultPrettyPrinter();
+        return generator;
+    }
+
+    private void writeArray(JsonGenerator generator, String fieldName, List<?> values) throws IOException {
+        generator.writeFieldName(fieldName);
+        if (values == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray();
+        for (Object value : values) {
+            mapper.writeValue(generator, value);
+        }
+        generator.writeEndArray();
+    }
+}
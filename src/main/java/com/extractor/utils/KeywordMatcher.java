@@ -0,0 +1,178 @@
+package com.extractor.utils;
+
+import java.util.*;
+
+/**
+ * Case-insensitive multi-keyword matcher (Aho-Corasick).
+ * Keywords are added in groups, numbered 0..63, and compiled once into a DFA over the
+ * characters they use; {@link #match} then reads a text once, whatever the number of
+ * keywords, and returns the groups that have a keyword occurring in it as a bit mask.
+ */
+public final class KeywordMatcher {
+
+    // Characters that appear in no keyword share column 0
+    private static final int OTHER = 0;
+
+    private final int[] asciiColumns;
+    private final Map<Character, Integer> columns;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final long[] outputs;
+
+    private KeywordMatcher(int[] asciiColumns, Map<Character, Integer> columns, int alphabetSize,
+                           int[] transitions, long[] outputs) {
+        this.asciiColumns = asciiColumns;
+        this.columns = columns;
+        this.alphabetSize = alphabetSize;
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Groups with at least one keyword occurring in the text, as a bit mask (bit g for group g).
+     */
+    public long match(CharSequence text) {
+        if (text == null) return 0L;
+
+        long found = 0L;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * alphabetSize + column(text.charAt(i))];
+            found |= outputs[state];
+        }
+        return found;
+    }
+
+    /**
+     * Whether any keyword of any group occurs in the text.
+     */
+    public boolean matchesAny(CharSequence text) {
+        if (text == null) return false;
+
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * alphabetSize + column(text.charAt(i))];
+            if (outputs[state] != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int column(char c) {
+        // Character.toLowerCase does not depend on the default locale
+        c = Character.toLowerCase(c);
+        if (c < asciiColumns.length) {
+            return asciiColumns[c];
+        }
+        return columns.getOrDefault(c, OTHER);
+    }
+
+    /**
+     * Collects keywords by group and compiles them.
+     */
+    public static final class Builder {
+        private final Map<String, Long> keywords = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(int group, Collection<String> groupKeywords) {
+            if (group < 0 || group >= Long.SIZE) {
+                throw new IllegalArgumentException("Keyword group must be in 0..63: " + group);
+            }
+            for (String keyword : groupKeywords) {
+                if (keyword.isEmpty()) {
+                    throw new IllegalArgumentException("Empty keyword in group " + group);
+                }
+                keywords.merge(keyword.toLowerCase(Locale.ROOT), 1L << group, (a, b) -> a | b);
+            }
+            return this;
+        }
+
+        public KeywordMatcher build() {
+            // Alphabet: one column per distinct keyword character, in first-seen order
+            int[] asciiColumns = new int[128];
+            Map<Character, Integer> columns = new HashMap<>();
+            int alphabetSize = 1;
+            for (String keyword : keywords.keySet()) {
+                for (int i = 0; i < keyword.length(); i++) {
+                    char c = keyword.charAt(i);
+                    if (c < asciiColumns.length) {
+                        if (asciiColumns[c] == OTHER) {
+                            asciiColumns[c] = alphabetSize++;
+                        }
+                    } else if (!columns.containsKey(c)) {
+                        columns.put(c, alphabetSize++);
+                    }
+                }
+            }
+
+            // Trie of the keywords; -1 marks a missing edge until the failure links fill it
+            List<int[]> trie = new ArrayList<>();
+            List<Long> trieOutputs = new ArrayList<>();
+            trie.add(newState(alphabetSize));
+            trieOutputs.add(0L);
+            for (Map.Entry<String, Long> entry : keywords.entrySet()) {
+                String keyword = entry.getKey();
+                int state = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    char c = keyword.charAt(i);
+                    int column = c < asciiColumns.length ? asciiColumns[c] : columns.get(c);
+                    if (trie.get(state)[column] < 0) {
+                        trie.get(state)[column] = trie.size();
+                        trie.add(newState(alphabetSize));
+                        trieOutputs.add(0L);
+                    }
+                    state = trie.get(state)[column];
+                }
+                trieOutputs.set(state, trieOutputs.get(state) | entry.getValue());
+            }
+
+            // Breadth-first: resolve missing edges through the failure links and inherit
+            // the outputs of the longest proper suffix that is also a trie state
+            int stateCount = trie.size();
+            int[] transitions = new int[stateCount * alphabetSize];
+            long[] outputs = new long[stateCount];
+            int[] failure = new int[stateCount];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int column = 0; column < alphabetSize; column++) {
+                int next = trie.get(0)[column];
+                if (next < 0) {
+                    transitions[column] = 0;
+                } else {
+                    transitions[column] = next;
+                    failure[next] = 0;
+                    queue.add(next);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                outputs[state] = trieOutputs.get(state) | outputs[failure[state]];
+                for (int column = 0; column < alphabetSize; column++) {
+                    int next = trie.get(state)[column];
+                    int fallback = transitions[failure[state] * alphabetSize + column];
+                    if (next < 0) {
+                        transitions[state * alphabetSize + column] = fallback;
+                    } else {
+                        transitions[state * alphabetSize + column] = next;
+                        failure[next] = fallback;
+                        queue.add(next);
+                    }
+                }
+            }
+
+            return new KeywordMatcher(asciiColumns, columns, alphabetSize, transitions, outputs);
+        }
+
+        private static int[] newState(int alphabetSize) {
+            int[] edges = new int[alphabetSize];
+            Arrays.fill(edges, -1);
+            return edges;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.reference.CtTypeReference;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MessagingDetector {
 
@@ -22,6 +23,8 @@ public class MessagingDetector {
         MESSAGING_PATTERNS.put("org.springframework.jms", "spring-jms");
     }
     
+    private static final PrefixTrie MESSAGING_PREFIXES = PrefixTrie.of(MESSAGING_PATTERNS);
+    
     private static final Set<String> PUBLISHER_INDICATORS = new HashSet<>(Arrays.asList(
         "MessageProducer", "QueueSender", "TopicPublisher",
         "KafkaTemplate", "KafkaProducer",
@@ -38,14 +41,40 @@ public class MessagingDetector {
     private static final Set<String> PUBLISHER_METHOD_PATTERNS = new HashSet<>(Arrays.asList(
         "send", "sendMessage", "publish", "produce", "convertAndSend"
     ));
+    
+    private static final KeywordMatcher PUBLISHER_METHOD_MATCHER = KeywordMatcher.builder()
+            .add(0, PUBLISHER_METHOD_PATTERNS)
+            .build();
+    
+    // Messaging type by referenced qualified name, "" when none, shared by the types analyzed
+    // in one run. Types reference the same few names over and over, so each name is matched
+    // against the prefixes only once
+    private final Map<String, String> messagingTypesByName = new ConcurrentHashMap<>();
+    
+    /**
+     * Forget the type names of the previous run.
+     */
+    public void clear() {
+        messagingTypesByName.clear();
+    }
+    
+    public MessagingInfo detectMessaging(CtType<?> ctType) {
+        return detectMessaging(ctType, TypeIndex.describe(ctType), ctType.getReferencedTypes());
+    }
 
-    public static MessagingInfo detectMessaging(CtType<?> ctType) {
+    /**
+     * Detect messaging usage from type references already collected for the type,
+     * e.g. by a {@link TypeScanner} shared with other detectors, and from its annotations
+     * resolved by the {@link TypeIndex}.
+     */
+    public MessagingInfo detectMessaging(CtType<?> ctType, TypeIndex.IndexedType indexedType,
+            Set<CtTypeReference<?>> referencedTypes) {
         Set<String> messagingTypes = new HashSet<>();
         boolean isPublisher = false;
         boolean isConsumer = false;
         
         Set<CtTypeReference<?>> allTypes = new HashSet<>();
-        allTypes.addAll(ctType.getReferencedTypes());
+        allTypes.addAll(referencedTypes);
         
         for (CtField<?> field : ctType.getFields()) {
             if (field.getType() != null) {
@@ -60,13 +89,10 @@ public class MessagingDetector {
         }
         
         for (CtTypeReference<?> typeRef : allTypes) {
-            String qualifiedName = typeRef.getQualifiedName();
-            
-            for (Map.Entry<String, String> entry : MESSAGING_PATTERNS.entrySet()) {
-                if (qualifiedName.startsWith(entry.getKey())) {
-                    messagingTypes.add(entry.getValue());
-                    break;
-                }
+            String messagingType = messagingTypesByName.computeIfAbsent(typeRef.getQualifiedName(),
+                    MessagingDetector::matchMessagingType);
+            if (!messagingType.isEmpty()) {
+                messagingTypes.add(messagingType);
             }
             
             String simpleName = typeRef.getSimpleName();
@@ -78,9 +104,7 @@ public class MessagingDetector {
             }
         }
         
-        for (String annotation : ctType.getAnnotations().stream()
-                .map(a -> a.getAnnotationType().getSimpleName())
-                .toArray(String[]::new)) {
+        for (String annotation : indexedType.getAnnotationSimpleNames()) {
             if (CONSUMER_INDICATORS.contains(annotation)) {
                 isConsumer = true;
             }
@@ -95,12 +119,8 @@ public class MessagingDetector {
                 }
             }
             
-            String methodName = method.getSimpleName().toLowerCase();
-            for (String pattern : PUBLISHER_METHOD_PATTERNS) {
-                if (methodName.contains(pattern.toLowerCase()) && !messagingTypes.isEmpty()) {
-                    isPublisher = true;
-                    break;
-                }
+            if (!messagingTypes.isEmpty() && PUBLISHER_METHOD_MATCHER.matchesAny(method.getSimpleName())) {
+                isPublisher = true;
             }
         }
         
@@ -122,6 +142,49 @@ public class MessagingDetector {
         return new MessagingInfo(messagingType, role);
     }
     
+    private static String matchMessagingType(String qualifiedName) {
+        return MESSAGING_PREFIXES.match(qualifiedName);
+    }
+    
+    /**
+     * Package prefixes compiled once into a character trie: a name is matched in a single
+     * pass over its leading characters, whatever the number of prefixes.
+     */
+    private static final class PrefixTrie {
+        private final Map<Character, PrefixTrie> children = new HashMap<>();
+        // Messaging type of the prefix ending at this node, null when none does
+        private String value;
+        
+        static PrefixTrie of(Map<String, String> valuesByPrefix) {
+            PrefixTrie root = new PrefixTrie();
+            valuesByPrefix.forEach((prefix, value) -> {
+                PrefixTrie node = root;
+                for (int i = 0; i < prefix.length(); i++) {
+                    node = node.children.computeIfAbsent(prefix.charAt(i), c -> new PrefixTrie());
+                }
+                node.value = value;
+            });
+            return root;
+        }
+        
+        /**
+         * Value of the shortest prefix of the text, or "" when no prefix matches.
+         */
+        String match(String text) {
+            PrefixTrie node = this;
+            for (int i = 0; i < text.length(); i++) {
+                node = node.children.get(text.charAt(i));
+                if (node == null) {
+                    return "";
+                }
+                if (node.value != null) {
+                    return node.value;
+                }
+            }
+            return "";
+        }
+    }
+    
     public static class MessagingInfo {
         private final String messagingType;
         private final String messagingRole;
@@ -0,0 +1,240 @@
+package com.extractor.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Files of a project the analysis reads, found in a single walk of the project tree:
+ * Java source roots and Maven/Gradle build files.
+ * Source discovery and dependency loading share it instead of each walking the tree.
+ *
+ * Excluded directories are not entered. Each top-level directory is walked on its own
+ * thread and the results are concatenated in listing order, so the inventory lists the
+ * paths in the order of a sequential walk.
+ */
+public final class ProjectInventory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectInventory.class);
+
+    /** VCS metadata, build outputs and JavaScript dependencies. */
+    public static final List<String> DEFAULT_EXCLUDES = List.of(".git", "target", "build", "node_modules");
+
+    private static final String SOURCE_ROOT = "src/main/java";
+    private static final List<String> SOURCE_ROOT_NAMES = List.of("src", "main", "java");
+
+    private final Path projectRoot;
+    private final List<Path> sourceRoots;
+    private final List<Path> buildFiles;
+
+    private ProjectInventory(Path projectRoot, List<Path> sourceRoots, List<Path> buildFiles) {
+        this.projectRoot = projectRoot;
+        this.sourceRoots = Collections.unmodifiableList(sourceRoots);
+        this.buildFiles = Collections.unmodifiableList(buildFiles);
+    }
+
+    /**
+     * Walk the project tree, skipping the directories matched by the exclusion globs
+     * (see {@link Exclusions}).
+     *
+     * @throws IOException when the project root cannot be listed
+     */
+    public static ProjectInventory scan(Path projectRoot, List<String> excludes) throws IOException {
+        Exclusions exclusions = Exclusions.of(projectRoot, excludes);
+        Collector root = new Collector(exclusions);
+        root.enterDirectory(projectRoot);
+
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(projectRoot)) {
+            stream.forEach(entries::add);
+        }
+
+        List<Collector> subtrees;
+        try {
+            subtrees = entries.parallelStream()
+                    .map(entry -> walk(entry, exclusions))
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        List<Path> sourceRoots = new ArrayList<>(root.sourceRoots);
+        List<Path> mavenFiles = new ArrayList<>();
+        List<Path> gradleFiles = new ArrayList<>();
+        for (Collector subtree : subtrees) {
+            sourceRoots.addAll(subtree.sourceRoots);
+            mavenFiles.addAll(subtree.mavenFiles);
+            gradleFiles.addAll(subtree.gradleFiles);
+        }
+        List<Path> buildFiles = new ArrayList<>(mavenFiles);
+        buildFiles.addAll(gradleFiles);
+        logger.debug("Project inventory: {} source roots, {} build files",
+                sourceRoots.size(), buildFiles.size());
+        return new ProjectInventory(projectRoot, sourceRoots, buildFiles);
+    }
+
+    private static Collector walk(Path entry, Exclusions exclusions) {
+        Collector collector = new Collector(exclusions);
+        try {
+            Files.walkFileTree(entry, collector);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return collector;
+    }
+
+    public Path getProjectRoot() {
+        return projectRoot;
+    }
+
+    /** Directories ending in src/main/java, in walk order. */
+    public List<Path> getSourceRoots() {
+        return sourceRoots;
+    }
+
+    /** pom.xml files followed by build.gradle and build.gradle.kts files, each in walk order. */
+    public List<Path> getBuildFiles() {
+        return buildFiles;
+    }
+
+    public static boolean isMavenBuildFile(Path path) {
+        return path.getFileName() != null && path.getFileName().toString().equals("pom.xml");
+    }
+
+    public static boolean isGradleBuildFile(Path path) {
+        if (path.getFileName() == null) {
+            return false;
+        }
+        String name = path.getFileName().toString();
+        return name.equals("build.gradle") || name.equals("build.gradle.kts");
+    }
+
+    /**
+     * Inventory of one subtree. Build files are kept per kind, as the inventory lists the
+     * Maven ones first.
+     */
+    private static final class Collector extends SimpleFileVisitor<Path> {
+        private final Exclusions exclusions;
+        private final List<Path> sourceRoots = new ArrayList<>();
+        private final List<Path> mavenFiles = new ArrayList<>();
+        private final List<Path> gradleFiles = new ArrayList<>();
+
+        Collector(Exclusions exclusions) {
+            this.exclusions = exclusions;
+        }
+
+        void enterDirectory(Path dir) {
+            if (dir.toString().endsWith(SOURCE_ROOT)) {
+                sourceRoots.add(dir);
+            }
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (exclusions.matches(dir)) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            enterDirectory(dir);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (isMavenBuildFile(file)) {
+                mavenFiles.add(file);
+            } else if (isGradleBuildFile(file)) {
+                gradleFiles.add(file);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            // An unreadable directory or file is left out, the rest of the tree is still walked
+            logger.debug("Skipping {}: {}", file, e.getMessage());
+            return FileVisitResult.CONTINUE;
+        }
+    }
+
+    /**
+     * Directories left out of the walk. A glob without a slash matches a directory name at
+     * any depth, e.g. {@code node_modules} or {@code .*}; a glob with a slash matches the
+     * path relative to the project root, e.g. {@code legacy/**}. The root and the packages
+     * under a src/main/java root are never excluded, so a package named {@code build} or
+     * {@code target} is still analyzed.
+     */
+    public static final class Exclusions {
+        private final Path projectRoot;
+        private final List<PathMatcher> nameMatchers = new ArrayList<>();
+        private final List<PathMatcher> pathMatchers = new ArrayList<>();
+
+        private Exclusions(Path projectRoot) {
+            this.projectRoot = projectRoot;
+        }
+
+        public static Exclusions of(Path projectRoot, List<String> globs) {
+            Exclusions exclusions = new Exclusions(projectRoot);
+            FileSystem fileSystem = projectRoot.getFileSystem();
+            for (String glob : globs) {
+                PathMatcher matcher = fileSystem.getPathMatcher("glob:" + glob);
+                if (glob.contains("/")) {
+                    exclusions.pathMatchers.add(matcher);
+                } else {
+                    exclusions.nameMatchers.add(matcher);
+                }
+            }
+            return exclusions;
+        }
+
+        public boolean matches(Path directory) {
+            if (directory.equals(projectRoot)) {
+                return false;
+            }
+            Path relative = projectRoot.relativize(directory);
+            if (insideSourceRoot(relative)) {
+                return false;
+            }
+            Path name = directory.getFileName();
+            for (PathMatcher matcher : nameMatchers) {
+                if (name != null && matcher.matches(name)) {
+                    return true;
+                }
+            }
+            if (!pathMatchers.isEmpty()) {
+                for (PathMatcher matcher : pathMatchers) {
+                    if (matcher.matches(relative)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean insideSourceRoot(Path relative) {
+            int size = SOURCE_ROOT_NAMES.size();
+            // The source root itself may still be excluded, only the directories below it are kept
+            for (int i = 0; i + size < relative.getNameCount(); i++) {
+                boolean match = true;
+                for (int j = 0; j < size && match; j++) {
+                    match = relative.getName(i + j).toString().equals(SOURCE_ROOT_NAMES.get(j));
+                }
+                if (match) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -8,7 +8,6 @@ import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtMethod;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -35,78 +34,110 @@ public class SecretsDetector {
      * Returns a list of detected patterns (e.g., "System.getenv()", "@Value annotation")
      */
     public List<String> detectSecretReferences(CtType<?> type) {
-        List<String> references = new ArrayList<>();
-        
-        // 1. Detect System.getenv() calls
-        if (hasSystemGetenv(type)) {
-            references.add("System.getenv()");
-        }
-        
-        // 2. Detect System.getProperty() calls
-        if (hasSystemGetProperty(type)) {
-            references.add("System.getProperty()");
-        }
-        
-        // 3. Detect @Value annotations (Spring)
-        if (hasValueAnnotation(type)) {
-            references.add("@Value");
-        }
-        
-        // 4. Detect @ConfigProperty annotations (Quarkus/MicroProfile)
-        if (hasConfigPropertyAnnotation(type)) {
-            references.add("@ConfigProperty");
-        }
-        
-        // 5. Detect properties file references
-        if (hasPropertiesFileAccess(type)) {
-            references.add("Properties file access");
-        }
-        
-        // 6. Detect JNDI lookups (often used for datasources)
-        if (hasJNDILookup(type)) {
-            references.add("JNDI lookup");
-        }
-        
-        // 7. Detect @Resource annotations (JavaEE)
-        if (hasResourceAnnotation(type)) {
-            references.add("@Resource");
-        }
-        
-        return references;
+        TypeScanner scanner = new TypeScanner();
+        SecretsScan scan = register(type, scanner);
+        scanner.scan(type);
+        return scan.getReferences();
     }
     
     /**
-     * Detect System.getenv() invocations.
+     * Register the invocation checks on a shared scanner.
+     * The references are available from the returned scan once the type has been scanned.
      */
-    private boolean hasSystemGetenv(CtType<?> type) {
-        List<CtInvocation<?>> invocations = type.getElements(new TypeFilter<>(CtInvocation.class));
-        
-        for (CtInvocation<?> invocation : invocations) {
-            String invocationStr = invocation.toString();
-            if (invocationStr.contains("System.getenv(")) {
-                logger.debug("Detected System.getenv() in {}", type.getQualifiedName());
-                return true;
-            }
-        }
-        
-        return false;
+    public SecretsScan register(CtType<?> type, TypeScanner scanner) {
+        SecretsScan scan = new SecretsScan(type);
+        scanner.onEnter(CtInvocation.class, invocation -> scan.checkInvocation(invocation, scanner));
+        return scan;
     }
     
     /**
-     * Detect System.getProperty() invocations.
+     * Secret references of one type, filled while its AST is scanned.
      */
-    private boolean hasSystemGetProperty(CtType<?> type) {
-        List<CtInvocation<?>> invocations = type.getElements(new TypeFilter<>(CtInvocation.class));
+    public class SecretsScan {
+        private final CtType<?> type;
+        private boolean systemGetenv;
+        private boolean systemGetProperty;
+        private boolean propertiesFileAccess;
+        private boolean jndiLookup;
+        
+        private SecretsScan(CtType<?> type) {
+            this.type = type;
+        }
+        
+        public List<String> getReferences() {
+            List<String> references = new ArrayList<>();
+            
+            // 1. Detect System.getenv() calls
+            if (systemGetenv) {
+                references.add("System.getenv()");
+            }
+            
+            // 2. Detect System.getProperty() calls
+            if (systemGetProperty) {
+                references.add("System.getProperty()");
+            }
+            
+            // 3. Detect @Value annotations (Spring)
+            if (hasValueAnnotation(type)) {
+                references.add("@Value");
+            }
+            
+            // 4. Detect @ConfigProperty annotations (Quarkus/MicroProfile)
+            if (hasConfigPropertyAnnotation(type)) {
+                references.add("@ConfigProperty");
+            }
+            
+            // 5. Detect properties file references
+            if (propertiesFileAccess) {
+                references.add("Properties file access");
+            }
+            
+            // 6. Detect JNDI lookups (often used for datasources)
+            if (jndiLookup) {
+                references.add("JNDI lookup");
+            }
+            
+            // 7. Detect @Resource annotations (JavaEE)
+            if (hasResourceAnnotation(type)) {
+                references.add("@Resource");
+            }
+            
+            return references;
+        }
         
-        for (CtInvocation<?> invocation : invocations) {
-            String invocationStr = invocation.toString();
-            if (invocationStr.contains("System.getProperty(")) {
+        private void checkInvocation(CtInvocation<?> invocation, TypeScanner scanner) {
+            if (systemGetenv && systemGetProperty && propertiesFileAccess && jndiLookup) {
+                return;
+            }
+            String invocationStr = scanner.print(invocation);
+            
+            // System.getenv() invocations
+            if (!systemGetenv && invocationStr.contains("System.getenv(")) {
+                logger.debug("Detected System.getenv() in {}", type.getQualifiedName());
+                systemGetenv = true;
+            }
+            
+            // System.getProperty() invocations
+            if (!systemGetProperty && invocationStr.contains("System.getProperty(")) {
                 logger.debug("Detected System.getProperty() in {}", type.getQualifiedName());
-                return true;
+                systemGetProperty = true;
+            }
+            
+            // Properties file access (ResourceBundle, Properties class)
+            if (!propertiesFileAccess && (invocationStr.contains("ResourceBundle.getBundle") ||
+                invocationStr.contains(".properties") ||
+                invocationStr.contains("Properties.load"))) {
+                logger.debug("Detected properties file access in {}", type.getQualifiedName());
+                propertiesFileAccess = true;
+            }
+            
+            // JNDI lookups
+            if (!jndiLookup && (invocationStr.contains("InitialContext") ||
+                invocationStr.contains(".lookup(") && invocationStr.contains("java:"))) {
+                logger.debug("Detected JNDI lookup in {}", type.getQualifiedName());
+                jndiLookup = true;
             }
         }
-        
-        return false;
     }
     
     /**
@@ -159,43 +190,6 @@ public class SecretsDetector {
         return false;
     }
     
-    /**
-     * Detect properties file access (ResourceBundle, Properties class).
-     */
-    private boolean hasPropertiesFileAccess(CtType<?> type) {
-        List<CtInvocation<?>> invocations = type.getElements(new TypeFilter<>(CtInvocation.class));
-        
-        for (CtInvocation<?> invocation : invocations) {
-            String invocationStr = invocation.toString();
-            if (invocationStr.contains("ResourceBundle.getBundle") ||
-                invocationStr.contains(".properties") ||
-                invocationStr.contains("Properties.load")) {
-                logger.debug("Detected properties file access in {}", type.getQualifiedName());
-                return true;
-            }
-        }
-        
-        return false;
-    }
-    
-    /**
-     * Detect JNDI lookups.
-     */
-    private boolean hasJNDILookup(CtType<?> type) {
-        List<CtInvocation<?>> invocations = type.getElements(new TypeFilter<>(CtInvocation.class));
-        
-        for (CtInvocation<?> invocation : invocations) {
-            String invocationStr = invocation.toString();
-            if (invocationStr.contains("InitialContext") ||
-                invocationStr.contains(".lookup(") && invocationStr.contains("java:")) {
-                logger.debug("Detected JNDI lookup in {}", type.getQualifiedName());
-                return true;
-            }
-        }
-        
-        return false;
-    }
-    
     /**
      * Detect @Resource annotations (JavaEE).
      */
@@ -2,19 +2,18 @@ package com.extractor.utils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import spoon.reflect.code.CtLiteral;
 import spoon.reflect.declaration.CtType;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtMethod;
-import spoon.reflect.visitor.filter.TypeFilter;
 
 import java.util.Set;
-import java.util.HashSet;
-import java.util.Arrays;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 /**
  * Detects sensitive data patterns in Java code.
+ * Names and string literals are matched against all keywords at once with a compiled
+ * {@link KeywordMatcher}, and literals are checked for secret shapes in a single pass,
+ * so the cost is linear in the text read.
  */
 public class SensitiveDataDetector {
     
@@ -35,6 +34,35 @@ public class SensitiveDataDetector {
         "salary", "income", "revenue", "financial", "payment"
     );
     
+    // Phrases that mark a literal as documentation or test data rather than a sensitive value
+    private static final Set<String> NON_SENSITIVE_CONTEXTS = Set.of(
+        "password field", "enter password", "password required", "password must",
+        "email address", "phone number", "api documentation", "example api",
+        "test data", "mock data", "dummy data", "placeholder"
+    );
+    
+    private static final int SENSITIVE_KEYWORD = 0;
+    private static final int NON_SENSITIVE_CONTEXT = 1;
+    private static final long SENSITIVE_KEYWORD_MASK = 1L << SENSITIVE_KEYWORD;
+    private static final long NON_SENSITIVE_CONTEXT_MASK = 1L << NON_SENSITIVE_CONTEXT;
+    
+    private static final KeywordMatcher SENSITIVE_KEYWORD_MATCHER = KeywordMatcher.builder()
+        .add(SENSITIVE_KEYWORD, SENSITIVE_KEYWORDS)
+        .build();
+    
+    private static final KeywordMatcher LITERAL_MATCHER = KeywordMatcher.builder()
+        .add(SENSITIVE_KEYWORD, SENSITIVE_KEYWORDS)
+        .add(NON_SENSITIVE_CONTEXT, NON_SENSITIVE_CONTEXTS)
+        .build();
+    
+    // Character classes of the secret shapes, as bits
+    private static final int HEX = 1;            // [0-9a-f]
+    private static final int BASE64 = 2;         // [a-z0-9+/]
+    private static final int PATH = 4;           // [a-z0-9/_\-{}]
+    private static final int WORD = 8;           // [a-z0-9_]
+    private static final int TOKEN = 16;         // [a-z0-9_-]
+    private static final int[] CHAR_CLASSES = charClasses();
+    
     // Sensitive annotation patterns
     private static final Set<String> SENSITIVE_ANNOTATIONS = Set.of(
         "Sensitive", "Secret", "Confidential", "Private", "Encrypted",
@@ -45,6 +73,55 @@ public class SensitiveDataDetector {
      * Check if a type contains sensitive data.
      */
     public boolean hasSensitiveData(CtType<?> type) {
+        TypeScanner scanner = new TypeScanner();
+        SensitiveScan scan = register(type, TypeIndex.describe(type), scanner);
+        scanner.scan(type);
+        return scan.hasSensitiveData();
+    }
+    
+    /**
+     * Register the string literal check on a shared scanner.
+     * The result is available from the returned scan once the type has been scanned.
+     */
+    public SensitiveScan register(CtType<?> type, TypeIndex.IndexedType indexedType, TypeScanner scanner) {
+        SensitiveScan scan = new SensitiveScan(type, indexedType);
+        scanner.onEnter(CtLiteral.class, literal -> {
+            if (!scan.sensitiveLiteral && literal.getValue() instanceof String) {
+                scan.sensitiveLiteral = isSensitiveLiteral((String) literal.getValue());
+            }
+        });
+        return scan;
+    }
+    
+    /**
+     * Sensitive data of one type, filled while its AST is scanned.
+     */
+    public class SensitiveScan {
+        private final CtType<?> type;
+        private final TypeIndex.IndexedType indexedType;
+        private boolean sensitiveLiteral;
+        
+        private SensitiveScan(CtType<?> type, TypeIndex.IndexedType indexedType) {
+            this.type = type;
+            this.indexedType = indexedType;
+        }
+        
+        public boolean hasSensitiveData() {
+            return hasSensitiveDeclarations(type, indexedType) || hasSensitiveLiterals();
+        }
+        
+        private boolean hasSensitiveLiterals() {
+            if (sensitiveLiteral) {
+                logger.debug("Sensitive data detected in source literals of class: {}", type.getQualifiedName());
+            }
+            return sensitiveLiteral;
+        }
+    }
+    
+    /**
+     * Check the names, types and annotations declared by a type.
+     */
+    private boolean hasSensitiveDeclarations(CtType<?> type, TypeIndex.IndexedType indexedType) {
         String typeName = type.getQualifiedName();
         
         // Check class name
@@ -70,17 +147,11 @@ public class SensitiveDataDetector {
         }
         
         // Check for sensitive annotations
-        if (hasSensitiveAnnotations(type)) {
+        if (hasSensitiveAnnotations(indexedType)) {
             logger.debug("Sensitive data detected in annotations of class: {}", typeName);
             return true;
         }
         
-        // Check source code for sensitive literals
-        if (containsSensitiveLiterals(type.toString())) {
-            logger.debug("Sensitive data detected in source literals of class: {}", typeName);
-            return true;
-        }
-        
         return false;
     }
     
@@ -129,118 +200,115 @@ public class SensitiveDataDetector {
     /**
      * Check if a type has sensitive annotations.
      */
-    private boolean hasSensitiveAnnotations(CtType<?> type) {
-        return type.getAnnotations().stream()
-            .anyMatch(annotation -> SENSITIVE_ANNOTATIONS.contains(annotation.getAnnotationType().getSimpleName()));
-    }
-    
-    /**
-     * Check if source code contains sensitive string literals.
-     */
-    private boolean containsSensitiveLiterals(String sourceCode) {
-        // Look for actual string literals containing sensitive keywords
-        Pattern stringLiteralPattern = Pattern.compile("[\"']([^\"']*)[\"']");
-        Matcher matcher = stringLiteralPattern.matcher(sourceCode);
-        
-        while (matcher.find()) {
-            String literal = matcher.group(1).toLowerCase();
-            
-            // Check if the literal contains sensitive keywords
-            for (String keyword : SENSITIVE_KEYWORDS) {
-                if (literal.contains(keyword)) {
-                    // Additional check to avoid false positives from common words
-                    if (isLikelySensitiveLiteral(literal, keyword)) {
-                        return true;
-                    }
-                }
-            }
-            
-            // Check for potential hardcoded secrets
-            if (containsHardcodedSecrets(matcher.group(0))) {
-                return true;
-            }
-        }
-        
-        return false;
+    private boolean hasSensitiveAnnotations(TypeIndex.IndexedType indexedType) {
+        return indexedType.getAnnotationSimpleNames().stream()
+            .anyMatch(SENSITIVE_ANNOTATIONS::contains);
     }
     
     /**
-     * Check if a literal is likely to be sensitive based on context.
+     * Check if a string literal is sensitive: it names sensitive data outside of a
+     * documentation or test-data phrase, or it looks like a hardcoded secret.
      */
-    private boolean isLikelySensitiveLiteral(String literal, String keyword) {
-        // Avoid false positives from documentation, comments, or common phrases
-        if (literal.length() < 3) return false;
-        
-        // Skip obvious non-sensitive contexts
-        String[] nonSensitiveContexts = {
-            "password field", "enter password", "password required", "password must",
-            "email address", "phone number", "api documentation", "example api",
-            "test data", "mock data", "dummy data", "placeholder"
-        };
-        
-        for (String context : nonSensitiveContexts) {
-            if (literal.contains(context)) {
-                return false;
-            }
+    private static boolean isSensitiveLiteral(String literal) {
+        long found = LITERAL_MATCHER.match(literal);
+        if ((found & SENSITIVE_KEYWORD_MASK) != 0 && (found & NON_SENSITIVE_CONTEXT_MASK) == 0) {
+            return true;
         }
-        
-        // Consider it sensitive if it's a key-value pair or looks like actual sensitive data
-        return literal.contains("=") || literal.contains(":") || 
-               literal.matches(".*" + keyword + "[_-]?\\w*.*");
+        return looksLikeSecret(literal);
     }
     
     /**
      * Check if a string contains sensitive keywords.
      */
     private boolean containsSensitiveKeywords(String text) {
-        if (text == null) return false;
-        
-        String lowerText = text.toLowerCase();
-        
-        return SENSITIVE_KEYWORDS.stream()
-            .anyMatch(lowerText::contains);
+        return SENSITIVE_KEYWORD_MATCHER.matchesAny(text);
     }
     
     /**
-     * Check for hardcoded secrets patterns.
+     * Check if a literal has the shape of a hardcoded secret: a long hex or Base64 string,
+     * a Stripe or Google key, a Google OAuth token or a UUID. REST paths such as
+     * "/api/users/{id}" are never secrets. The literal is read once; each shape is a
+     * check on the character classes it contains.
      */
-    private boolean containsHardcodedSecrets(String line) {
-        String lowerLine = line.toLowerCase();
+    private static boolean looksLikeSecret(String literal) {
+        int length = literal.length();
+        if (length == 0) return false;
         
-        // Skip REST endpoint paths (common false positives)
-        if (lowerLine.matches(".*[\"']/[a-zA-Z0-9/_\\-{}]*[\"'].*")) { // Paths like "/api/users/{id}"
-            return false;
+        // Trailing '=' padding only belongs to Base64
+        int bodyEnd = length;
+        while (bodyEnd > 0 && literal.charAt(bodyEnd - 1) == '=') {
+            bodyEnd--;
         }
+        boolean padded = bodyEnd < length;
         
-        // Check for common secret patterns
-        if (lowerLine.matches(".*[\"'][a-f0-9]{32,}[\"'].*")) { // Hex strings (API keys, hashes)
-            return true;
+        // Classes shared by every character of the body, and by the body after a 5-character prefix
+        int all = HEX | BASE64 | PATH | WORD | TOKEN;
+        int afterPrefix = all;
+        for (int i = 0; i < bodyEnd; i++) {
+            int classes = charClass(literal.charAt(i));
+            all &= classes;
+            if (i >= 5) {
+                afterPrefix &= classes;
+            }
         }
         
-        if (lowerLine.matches(".*[\"'][A-Za-z0-9+/]{20,}={0,2}[\"'].*")) { // Base64 strings
-            return true;
+        if (!padded && literal.charAt(0) == '/' && (all & PATH) != 0) {
+            return false;
         }
-        
-        if (lowerLine.matches(".*[\"']sk_[a-zA-Z0-9_]{20,}[\"'].*")) { // Stripe secret keys
+        if (!padded && length >= 32 && (all & HEX) != 0) {
             return true;
         }
-        
-        if (lowerLine.matches(".*[\"']pk_[a-zA-Z0-9_]{20,}[\"'].*")) { // Stripe public keys  
+        if (length - bodyEnd <= 2 && bodyEnd >= 20 && (all & BASE64) != 0) {
             return true;
         }
-        
-        if (lowerLine.matches(".*[\"']AIza[a-zA-Z0-9_-]{35}[\"'].*")) { // Google API keys
+        if (!padded && length >= 23 && (all & WORD) != 0
+            && (startsWithIgnoreCase(literal, "sk_") || startsWithIgnoreCase(literal, "pk_"))) {
             return true;
         }
-        
-        if (lowerLine.matches(".*[\"']ya29\\.[a-zA-Z0-9_-]{68}[\"'].*")) { // Google OAuth tokens
+        if (!padded && length == 39 && (all & TOKEN) != 0 && literal.startsWith("AIza")) {
             return true;
         }
-        
-        if (lowerLine.matches(".*[\"'][0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}[\"'].*")) { // UUIDs (might be secret)
+        if (!padded && length == 73 && (afterPrefix & TOKEN) != 0 && startsWithIgnoreCase(literal, "ya29.")) {
             return true;
         }
-        
-        return false;
+        return !padded && isUuid(literal);
+    }
+    
+    private static boolean isUuid(String literal) {
+        if (literal.length() != 36) return false;
+        for (int i = 0; i < 36; i++) {
+            char c = literal.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : (charClass(c) & HEX) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean startsWithIgnoreCase(String text, String prefix) {
+        return text.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+    
+    private static int charClass(char c) {
+        return c < CHAR_CLASSES.length ? CHAR_CLASSES[Character.toLowerCase(c)] : 0;
+    }
+    
+    private static int[] charClasses() {
+        int[] classes = new int[128];
+        for (char c = 'a'; c <= 'z'; c++) {
+            classes[c] = BASE64 | PATH | WORD | TOKEN | (c <= 'f' ? HEX : 0);
+            classes[Character.toUpperCase(c)] = classes[c];
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            classes[c] = HEX | BASE64 | PATH | WORD | TOKEN;
+        }
+        classes['+'] = BASE64;
+        classes['/'] = BASE64 | PATH;
+        classes['_'] = PATH | WORD | TOKEN;
+        classes['-'] = PATH | TOKEN;
+        classes['{'] = PATH;
+        classes['}'] = PATH;
+        return classes;
     }
-}
\ No newline at end of file
+}
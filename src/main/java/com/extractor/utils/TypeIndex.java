@@ -0,0 +1,147 @@
+package com.extractor.utils;
+
+import spoon.reflect.declaration.CtAnnotation;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeReference;
+
+import java.util.*;
+
+/**
+ * Project types of the current model, indexed once after it is built: qualified name to
+ * declaration, and for each type its direct superclass, interfaces and annotations with
+ * their names already resolved. The passes and detectors look these up instead of each
+ * resolving the same references again.
+ *
+ * The index is filled before the types are analyzed and only read afterwards, so parallel
+ * analysis can share it. Types that are not indexed are described on each lookup.
+ */
+public class TypeIndex {
+
+    private final Map<String, CtType<?>> typesByName = new HashMap<>();
+    private final Map<CtType<?>, IndexedType> indexedTypes = new IdentityHashMap<>();
+
+    /**
+     * Index the given types, including nested ones, replacing the previous index.
+     * When two types share a qualified name the first one wins.
+     */
+    public void rebuild(Collection<CtType<?>> types) {
+        clear();
+        Deque<CtType<?>> pending = new ArrayDeque<>(types);
+        while (!pending.isEmpty()) {
+            CtType<?> type = pending.poll();
+            IndexedType indexed = describe(type);
+            if (typesByName.putIfAbsent(indexed.getQualifiedName(), type) == null) {
+                indexedTypes.put(type, indexed);
+            }
+            pending.addAll(type.getNestedTypes());
+        }
+    }
+
+    public void clear() {
+        typesByName.clear();
+        indexedTypes.clear();
+    }
+
+    /**
+     * @return the indexed type with this qualified name, or null
+     */
+    public CtType<?> getType(String qualifiedName) {
+        return typesByName.get(qualifiedName);
+    }
+
+    /** Qualified names of the indexed types, as a live view. */
+    public Set<String> getQualifiedNames() {
+        return Collections.unmodifiableSet(typesByName.keySet());
+    }
+
+    public Collection<CtType<?>> getTypes() {
+        return Collections.unmodifiableCollection(typesByName.values());
+    }
+
+    /**
+     * @return the resolved names of a type, from the index when it is indexed
+     */
+    public IndexedType get(CtType<?> type) {
+        IndexedType indexed = indexedTypes.get(type);
+        return indexed != null ? indexed : describe(type);
+    }
+
+    /**
+     * Resolve the names of a type without indexing it.
+     */
+    public static IndexedType describe(CtType<?> type) {
+        String superclass = null;
+        if (type instanceof CtClass<?>) {
+            CtTypeReference<?> superclassRef = ((CtClass<?>) type).getSuperclass();
+            if (superclassRef != null) {
+                superclass = superclassRef.getQualifiedName();
+            }
+        }
+
+        List<String> interfaces = new ArrayList<>();
+        List<String> interfaceSimpleNames = new ArrayList<>();
+        Set<CtTypeReference<?>> interfaceRefs = type.getSuperInterfaces();
+        if (interfaceRefs != null) {
+            for (CtTypeReference<?> interfaceRef : interfaceRefs) {
+                String interfaceName = interfaceRef.getQualifiedName();
+                if (interfaceName != null) {
+                    interfaces.add(interfaceName);
+                    interfaceSimpleNames.add(interfaceRef.getSimpleName());
+                }
+            }
+        }
+
+        List<String> annotations = new ArrayList<>();
+        List<String> annotationSimpleNames = new ArrayList<>();
+        for (CtAnnotation<?> annotation : type.getAnnotations()) {
+            CtTypeReference<?> annotationType = annotation.getAnnotationType();
+            annotations.add(annotationType.getQualifiedName());
+            annotationSimpleNames.add(annotationType.getSimpleName());
+        }
+
+        return new IndexedType(type.getQualifiedName(), superclass, interfaces, interfaceSimpleNames,
+                annotations, annotationSimpleNames);
+    }
+
+    /**
+     * Resolved names of one type. Lists keep declaration order.
+     */
+    public static class IndexedType {
+        private final String qualifiedName;
+        private final String superclass;
+        private final List<String> interfaces;
+        private final List<String> interfaceSimpleNames;
+        private final List<String> annotations;
+        private final List<String> annotationSimpleNames;
+
+        private IndexedType(String qualifiedName, String superclass, List<String> interfaces,
+                List<String> interfaceSimpleNames, List<String> annotations, List<String> annotationSimpleNames) {
+            this.qualifiedName = qualifiedName;
+            this.superclass = superclass;
+            this.interfaces = Collections.unmodifiableList(interfaces);
+            this.interfaceSimpleNames = Collections.unmodifiableList(interfaceSimpleNames);
+            this.annotations = Collections.unmodifiableList(annotations);
+            this.annotationSimpleNames = Collections.unmodifiableList(annotationSimpleNames);
+        }
+
+        public String getQualifiedName() { return qualifiedName; }
+
+        /** Declared superclass of a class, or null; java.lang.Object only when explicit. */
+        public String getSuperclass() { return superclass; }
+
+        /** Qualified names of the directly extended or implemented interfaces. */
+        public List<String> getInterfaces() { return interfaces; }
+
+        public List<String> getInterfaceSimpleNames() { return interfaceSimpleNames; }
+
+        /** Qualified names of the annotation types on the type declaration. */
+        public List<String> getAnnotations() { return annotations; }
+
+        public List<String> getAnnotationSimpleNames() { return annotationSimpleNames; }
+
+        public boolean hasAnnotation(String simpleName) {
+            return annotationSimpleNames.contains(simpleName);
+        }
+    }
+}
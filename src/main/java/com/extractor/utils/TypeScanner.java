@@ -0,0 +1,199 @@
+package com.extractor.utils;
+
+import spoon.reflect.declaration.*;
+import spoon.reflect.path.CtRole;
+import spoon.reflect.reference.CtArrayTypeReference;
+import spoon.reflect.reference.CtExecutableReference;
+import spoon.reflect.reference.CtFieldReference;
+import spoon.reflect.reference.CtTypeReference;
+import spoon.reflect.visitor.CtScanner;
+
+import java.lang.annotation.Annotation;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Single-traversal scanner over the AST of a type.
+ * Detectors register handlers for the node kinds they need and one scan feeds all of them,
+ * instead of each detector running its own getElements() query over the same tree.
+ *
+ * Handlers registered with {@link #onEnter} see nodes in pre-order, the order getElements()
+ * returns them in; handlers registered with {@link #onExit} see nodes in post-order, like a
+ * CtScanner override that runs its check after super.visit(). A kind matches its subtypes,
+ * as with TypeFilter.
+ */
+public class TypeScanner extends CtScanner {
+
+    private final List<Registration> enterRegistrations = new ArrayList<>();
+    private final List<Registration> exitRegistrations = new ArrayList<>();
+    private final Map<Class<?>, List<Consumer<CtElement>>> enterHandlers = new HashMap<>();
+    private final Map<Class<?>, List<Consumer<CtElement>>> exitHandlers = new HashMap<>();
+
+    private Set<CtTypeReference<?>> referencedTypes;
+    private int hiddenReferenceDepth;
+
+    private CtElement printedElement;
+    private String printed;
+
+    public <T extends CtElement> void onEnter(Class<T> kind, Consumer<? super T> handler) {
+        enterRegistrations.add(new Registration(kind, handler));
+        enterHandlers.clear();
+    }
+
+    public <T extends CtElement> void onExit(Class<T> kind, Consumer<? super T> handler) {
+        exitRegistrations.add(new Registration(kind, handler));
+        exitHandlers.clear();
+    }
+
+    /**
+     * Also collect the referenced types during the scan, with the same result as
+     * {@link CtElement#getReferencedTypes()} on the scanned element.
+     */
+    public void collectReferencedTypes() {
+        if (referencedTypes == null) {
+            referencedTypes = new HashSet<>();
+        }
+    }
+
+    public Set<CtTypeReference<?>> getReferencedTypes() {
+        return referencedTypes != null ? referencedTypes : Collections.emptySet();
+    }
+
+    /**
+     * Printed form of an element. Handlers of the same node share one pretty-printer run.
+     */
+    public String print(CtElement element) {
+        if (element != printedElement) {
+            printed = element.toString();
+            printedElement = element;
+        }
+        return printed;
+    }
+
+    @Override
+    protected void enter(CtElement e) {
+        dispatch(e, enterRegistrations, enterHandlers);
+    }
+
+    @Override
+    protected void exit(CtElement e) {
+        dispatch(e, exitRegistrations, exitHandlers);
+    }
+
+    private void dispatch(CtElement e, List<Registration> registrations,
+            Map<Class<?>, List<Consumer<CtElement>>> handlersByClass) {
+        if (registrations.isEmpty()) {
+            return;
+        }
+        List<Consumer<CtElement>> handlers = handlersByClass.computeIfAbsent(e.getClass(), nodeClass -> {
+            List<Consumer<CtElement>> matching = new ArrayList<>();
+            for (Registration registration : registrations) {
+                if (registration.kind.isAssignableFrom(nodeClass)) {
+                    matching.add(registration.handler);
+                }
+            }
+            return matching;
+        });
+        for (Consumer<CtElement> handler : handlers) {
+            handler.accept(e);
+        }
+    }
+
+    // --- Referenced types, mirroring spoon.support.visitor.TypeReferenceScanner ---
+
+    private void addReference(CtTypeReference<?> reference) {
+        if (referencedTypes != null && hiddenReferenceDepth == 0) {
+            referencedTypes.add(reference);
+        }
+    }
+
+    private void addTypeAndNestedTypes(CtType<?> type) {
+        addReference(type.getReference());
+        for (CtTypeMember typeMember : type.getTypeMembers()) {
+            if (typeMember instanceof CtType) {
+                addReference(((CtType<?>) typeMember).getReference());
+            }
+        }
+    }
+
+    @Override
+    public <T> void visitCtTypeReference(CtTypeReference<T> reference) {
+        if (!(reference instanceof CtArrayTypeReference)) {
+            addReference(reference);
+        }
+        super.visitCtTypeReference(reference);
+    }
+
+    @Override
+    public <A extends Annotation> void visitCtAnnotationType(CtAnnotationType<A> annotationType) {
+        addReference(annotationType.getReference());
+        super.visitCtAnnotationType(annotationType);
+    }
+
+    @Override
+    public <T extends Enum<?>> void visitCtEnum(CtEnum<T> ctEnum) {
+        addReference(ctEnum.getReference());
+        super.visitCtEnum(ctEnum);
+    }
+
+    @Override
+    public <T> void visitCtInterface(CtInterface<T> intrface) {
+        if (referencedTypes != null) {
+            addTypeAndNestedTypes(intrface);
+        }
+        super.visitCtInterface(intrface);
+    }
+
+    @Override
+    public <T> void visitCtClass(CtClass<T> ctClass) {
+        if (referencedTypes != null) {
+            addTypeAndNestedTypes(ctClass);
+        }
+        super.visitCtClass(ctClass);
+    }
+
+    /**
+     * TypeReferenceScanner only follows the declaring type of a field reference.
+     */
+    @Override
+    public <T> void visitCtFieldReference(CtFieldReference<T> reference) {
+        enter(reference);
+        scan(CtRole.DECLARING_TYPE, reference.getDeclaringType());
+        hiddenReferenceDepth++;
+        scan(CtRole.TYPE, reference.getType());
+        scan(CtRole.ANNOTATION, reference.getAnnotations());
+        hiddenReferenceDepth--;
+        exit(reference);
+    }
+
+    /**
+     * TypeReferenceScanner only follows the declaring type and type arguments of an
+     * executable reference.
+     */
+    @Override
+    public <T> void visitCtExecutableReference(CtExecutableReference<T> reference) {
+        enter(reference);
+        scan(CtRole.DECLARING_TYPE, reference.getDeclaringType());
+        hiddenReferenceDepth++;
+        scan(CtRole.TYPE, reference.getType());
+        scan(CtRole.ARGUMENT_TYPE, reference.getParameters());
+        hiddenReferenceDepth--;
+        scan(CtRole.TYPE_ARGUMENT, reference.getActualTypeArguments());
+        hiddenReferenceDepth++;
+        scan(CtRole.ANNOTATION, reference.getAnnotations());
+        scan(CtRole.COMMENT, reference.getComments());
+        hiddenReferenceDepth--;
+        exit(reference);
+    }
+
+    private static class Registration {
+        private final Class<?> kind;
+        private final Consumer<CtElement> handler;
+
+        @SuppressWarnings("unchecked")
+        Registration(Class<? extends CtElement> kind, Consumer<?> handler) {
+            this.kind = kind;
+            this.handler = (Consumer<CtElement>) handler;
+        }
+    }
+}